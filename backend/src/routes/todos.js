@@ -1,4 +1,5 @@
 // backend/src/routes/todos.js
+const { once } = require('events');
 const express = require('express');
 const router = express.Router();
 const db = require('../db');
@@ -8,11 +9,113 @@ const { userMiddleware } = require('./users'); // Import the user middleware
 // This ensures that req.user is available in every handler.
 router.use(userMiddleware);
 
+// Number of rows the export reads from the database per query.
+const EXPORT_BATCH_SIZE = 1000;
+
+// Page size of GET /api/todos when paginating, and the largest page a client may ask for.
+const DEFAULT_PAGE_SIZE = 50;
+const MAX_PAGE_SIZE = 500;
+
+// Reads one keyset page of a user's todos, newest first, with the key of each row.
+// 'after' is the key of the last row of the previous page. The key carries created_at as text,
+// because a JS Date would truncate the microseconds of the TIMESTAMPTZ and make the next page
+// skip or repeat rows.
+// 'completed' and 'createdAfter' filter the rows; both are optional.
+async function fetchPage(userId, { limit, after = null, completed = null, createdAfter = null }) {
+  const params = [userId];
+  let query = "SELECT id, title, completed, created_at, completed_at, created_at::text AS created_at_key FROM todos WHERE user_id = $1";
+  if (completed !== null) {
+    params.push(completed);
+    query += ` AND completed = $${params.length}`;
+  }
+  if (createdAfter !== null) {
+    params.push(createdAfter);
+    query += ` AND created_at > $${params.length}::timestamptz`;
+  }
+  if (after) {
+    params.push(after.createdAt, after.id);
+    query += ` AND (created_at, id) < ($${params.length - 1}::timestamptz, $${params.length})`;
+  }
+  params.push(limit);
+  query += ` ORDER BY created_at DESC, id DESC LIMIT $${params.length}`;
+
+  const result = await db.query(query, params);
+  const rows = result.rows.map(({ created_at_key, ...todo }) => todo);
+  const keys = result.rows.map((row) => ({ createdAt: row.created_at_key, id: row.id }));
+  return { rows, keys };
+}
+
+// Cursors are opaque to clients: the key of the last row of a page, as base64url JSON.
+function encodeCursor(key) {
+  return Buffer.from(JSON.stringify([key.createdAt, key.id])).toString('base64url');
+}
+
+function decodeCursor(cursor) {
+  try {
+    const [createdAt, id] = JSON.parse(Buffer.from(cursor, 'base64url').toString('utf8'));
+    if (typeof createdAt === 'string' && Number.isInteger(id)) {
+      return { createdAt, id };
+    }
+  } catch (err) {
+    // Falls through to the error below
+  }
+  throw new Error('Invalid cursor.');
+}
+
+// Validates the pagination and filter query parameters of GET /api/todos.
+// Returns null when none is given, so the caller can keep serving the full list.
+function parsePageQuery(query) {
+  const { limit, cursor, completed, createdAfter } = query;
+  if (limit === undefined && cursor === undefined && completed === undefined && createdAfter === undefined) {
+    return null;
+  }
+  const page = { limit: DEFAULT_PAGE_SIZE, after: null, completed: null, createdAfter: null };
+  if (limit !== undefined) {
+    page.limit = Number(limit);
+    if (!Number.isInteger(page.limit) || page.limit < 1 || page.limit > MAX_PAGE_SIZE) {
+      throw new Error(`limit must be an integer between 1 and ${MAX_PAGE_SIZE}.`);
+    }
+  }
+  if (cursor !== undefined) {
+    page.after = decodeCursor(cursor);
+  }
+  if (completed !== undefined) {
+    if (completed !== 'true' && completed !== 'false') {
+      throw new Error('completed must be true or false.');
+    }
+    page.completed = completed === 'true';
+  }
+  if (createdAfter !== undefined) {
+    if (Number.isNaN(Date.parse(createdAfter))) {
+      throw new Error('createdAfter must be an ISO-8601 timestamp.');
+    }
+    page.createdAfter = createdAfter;
+  }
+  return page;
+}
+
 // GET /api/todos
 // Retrieves all todo items for the authenticated user.
+// With any of 'limit', 'cursor', 'completed' or 'createdAfter' it returns one page instead,
+// newest first, and the cursor of the next page in the 'X-Next-Cursor' header if there is one.
 router.get('/', async (req, res) => {
   const userId = req.user.id;
+  let pageQuery;
+  try {
+    pageQuery = parsePageQuery(req.query);
+  } catch (err) {
+    return res.status(400).json({ error: err.message });
+  }
   try {
+    if (pageQuery) {
+      // One extra row tells whether there is a next page
+      const page = await fetchPage(userId, { ...pageQuery, limit: pageQuery.limit + 1 });
+      if (page.rows.length > pageQuery.limit) {
+        res.set('X-Next-Cursor', encodeCursor(page.keys[pageQuery.limit - 1]));
+        return res.json(page.rows.slice(0, pageQuery.limit));
+      }
+      return res.json(page.rows);
+    }
     const result = await db.query(
       "SELECT id, title, completed, created_at, completed_at FROM todos WHERE user_id = $1 ORDER BY created_at DESC",
       [userId]
@@ -24,6 +127,37 @@ router.get('/', async (req, res) => {
   }
 });
 
+// GET /api/todos/export
+// Streams all todo items of the authenticated user as newline-delimited JSON, newest first.
+// Rows are read in keyset batches and written as they come, respecting backpressure,
+// so memory stays constant however long the list is.
+router.get('/export', async (req, res) => {
+  const userId = req.user.id;
+  let after = null;
+  try {
+    do {
+      const page = await fetchPage(userId, { limit: EXPORT_BATCH_SIZE, after });
+      if (!res.headersSent) {
+        res.status(200).type('application/x-ndjson');
+      }
+      for (const todo of page.rows) {
+        if (!res.write(JSON.stringify(todo) + '\n')) {
+          await once(res, 'drain');
+        }
+      }
+      after = page.rows.length === EXPORT_BATCH_SIZE ? page.keys[page.keys.length - 1] : null;
+    } while (after);
+    res.end();
+  } catch (err) {
+    console.error('Error exporting todos:', err);
+    if (res.headersSent) {
+      res.destroy(err); // Cut the stream so the client does not mistake it for a complete export
+    } else {
+      res.status(500).json({ error: 'Internal server error' });
+    }
+  }
+});
+
 // GET /api/todos/:id
 // Retrieves a single todo item by its ID, ensuring it belongs to the authenticated user.
 router.get('/:id', async (req, res) => {
@@ -60,6 +60,53 @@ describe('Todo API Integration Tests', () => {
       expect(res.body).toEqual({ error: 'Internal server error' });
     });
 
+    it('should return one page and the next cursor when paginating', async () => {
+      const rows = [
+        { id: 5, title: 'Newest', completed: false, created_at: 'x', completed_at: null, created_at_key: '2025-06-01 12:00:00.000003+00' },
+        { id: 4, title: 'Middle', completed: false, created_at: 'x', completed_at: null, created_at_key: '2025-06-01 12:00:00.000002+00' },
+        { id: 3, title: 'Extra', completed: false, created_at: 'x', completed_at: null, created_at_key: '2025-06-01 12:00:00.000001+00' }
+      ];
+      db.query.mockResolvedValueOnce({ rows: [testUser] }).mockResolvedValueOnce({ rows });
+
+      const res = await request(app)
+        .get('/api/todos?limit=2&completed=false&createdAfter=2025-01-01T00:00:00Z')
+        .set('X-User-Email', testUserEmail);
+
+      expect(res.statusCode).toEqual(200);
+      expect(res.body.map((todo) => todo.id)).toEqual([5, 4]);
+      expect(res.body[0].created_at_key).toBeUndefined();
+      const cursor = res.headers['x-next-cursor'];
+      expect(JSON.parse(Buffer.from(cursor, 'base64url').toString())).toEqual(['2025-06-01 12:00:00.000002+00', 4]);
+      expect(db.query).toHaveBeenLastCalledWith(
+        "SELECT id, title, completed, created_at, completed_at, created_at::text AS created_at_key FROM todos WHERE user_id = $1 AND completed = $2 AND created_at > $3::timestamptz ORDER BY created_at DESC, id DESC LIMIT $4",
+        [testUser.id, false, '2025-01-01T00:00:00Z', 3]
+      );
+
+      // The cursor resumes right after the last returned row
+      db.query.mockResolvedValueOnce({ rows: [testUser] }).mockResolvedValueOnce({ rows: rows.slice(2) });
+      const next = await request(app)
+        .get(`/api/todos?limit=2&cursor=${cursor}`)
+        .set('X-User-Email', testUserEmail);
+
+      expect(next.statusCode).toEqual(200);
+      expect(next.body.map((todo) => todo.id)).toEqual([3]);
+      expect(next.headers['x-next-cursor']).toBeUndefined();
+      expect(db.query).toHaveBeenLastCalledWith(
+        "SELECT id, title, completed, created_at, completed_at, created_at::text AS created_at_key FROM todos WHERE user_id = $1 AND (created_at, id) < ($2::timestamptz, $3) ORDER BY created_at DESC, id DESC LIMIT $4",
+        [testUser.id, '2025-06-01 12:00:00.000002+00', 4, 3]
+      );
+    });
+
+    it('should return 400 for invalid pagination parameters', async () => {
+      for (const query of ['limit=0', 'limit=abc', 'cursor=not-a-cursor', 'completed=maybe', 'createdAfter=yesterday']) {
+        db.query.mockResolvedValueOnce({ rows: [testUser] });
+        const res = await request(app)
+          .get(`/api/todos?${query}`)
+          .set('X-User-Email', testUserEmail);
+        expect(res.statusCode).toEqual(400);
+      }
+    });
+
     it('should return 401 if user email header is missing', async () => {
       const res = await request(app).get('/api/todos');
       expect(res.statusCode).toEqual(401);
@@ -67,6 +114,41 @@ describe('Todo API Integration Tests', () => {
     });
   });
 
+  describe('GET /api/todos/export', () => {
+    it('should stream the todos of the authenticated user as NDJSON', async () => {
+      const now = new Date().toISOString();
+      const rows = [
+        { id: 2, title: 'Test Todo 2', completed: true, created_at: now, completed_at: now, created_at_key: '2025-06-01 12:00:00.123456+00' },
+        { id: 1, title: 'Test Todo 1', completed: false, created_at: now, completed_at: null, created_at_key: '2025-06-01 11:00:00+00' }
+      ];
+      db.query.mockResolvedValueOnce({ rows: [testUser] }).mockResolvedValueOnce({ rows });
+
+      const res = await request(app)
+        .get('/api/todos/export')
+        .set('X-User-Email', testUserEmail);
+
+      expect(res.statusCode).toEqual(200);
+      expect(res.headers['content-type']).toMatch(/application\/x-ndjson/);
+      const lines = res.text.trim().split('\n').map((line) => JSON.parse(line));
+      expect(lines).toEqual(rows.map(({ created_at_key, ...todo }) => todo));
+      expect(db.query).toHaveBeenCalledWith(
+        "SELECT id, title, completed, created_at, completed_at, created_at::text AS created_at_key FROM todos WHERE user_id = $1 ORDER BY created_at DESC, id DESC LIMIT $2",
+        [testUser.id, 1000]
+      );
+    });
+
+    it('should return 500 if the first page cannot be read', async () => {
+      db.query.mockResolvedValueOnce({ rows: [testUser] }).mockRejectedValueOnce(new Error('Database connection failed'));
+
+      const res = await request(app)
+        .get('/api/todos/export')
+        .set('X-User-Email', testUserEmail);
+
+      expect(res.statusCode).toEqual(500);
+      expect(res.body).toEqual({ error: 'Internal server error' });
+    });
+  });
+
   describe('GET /api/todos/:id', () => {
     it('should return a single todo by ID for the authenticated user', async () => {
       const mockTodo = { id: 1, title: 'Single Todo', completed: false, user_id: testUser.id };
@@ -25,6 +25,10 @@ CREATE TABLE IF NOT EXISTS todos (
         ON DELETE CASCADE -- If a user is deleted, their todos are also deleted.
 );
 
+-- Serves the per-user listing in 'ORDER BY created_at DESC, id DESC' order, so keyset
+-- pagination and the NDJSON export read only the rows they return.
+CREATE INDEX IF NOT EXISTS idx_todos_user_created ON todos (user_id, created_at DESC, id DESC);
+
 -- Insert some sample users.
 INSERT INTO users (username, email) VALUES
 ('jquinter_gmail_com', 'jquinter@gmail.com'),
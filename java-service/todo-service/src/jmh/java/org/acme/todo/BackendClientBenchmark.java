@@ -0,0 +1,122 @@
+// src/jmh/java/org/acme/todo/BackendClientBenchmark.java
+package org.acme.todo;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerOptions;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend round trips with 1, 64 and 1024 concurrent callers, per connection setting of the
+ * backend clients (see BackendHttpClientOptions), against a stub backend in the same JVM that
+ * answers GET /todos after 1 ms. The REST client itself cannot be built outside Quarkus, so this
+ * drives its transport, a Vert.x HttpClient, with the same options: a pool of 50 connections and
+ * - http1: keep-alive, one request per connection at a time.
+ * - http1-close: a new connection per request.
+ * - pipelined: up to 10 requests per connection.
+ * - http2: h2c, up to 100 streams per connection.
+ * 'requests' is the number of round trips per second; a batch is complete when all callers
+ * got their response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BackendClientBenchmark {
+
+    private static final int POOL_SIZE = 50;
+
+    @Param({"1", "64", "1024"})
+    int callers;
+
+    @Param({"http1", "http1-close", "pipelined", "http2"})
+    String transport;
+
+    private Vertx vertx;
+    private HttpServer server;
+    private HttpClient client;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class RoundTrips {
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        Buffer body = Buffer.buffer("[{\"id\":\"2\",\"title\":\"Walk the dog\",\"completed\":true},"
+                + "{\"id\":\"1\",\"title\":\"Buy groceries\",\"completed\":false}]");
+        server = vertx.createHttpServer(new HttpServerOptions().setHttp2ClearTextEnabled(true))
+                .requestHandler(request -> vertx.setTimer(1, timer -> request.response()
+                        .putHeader("Content-Type", "application/json")
+                        .end(body)))
+                .listen(0, "localhost")
+                .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+        HttpClientOptions options = new HttpClientOptions()
+                .setDefaultHost("localhost")
+                .setDefaultPort(server.actualPort())
+                .setMaxPoolSize(POOL_SIZE)
+                .setHttp2MaxPoolSize(POOL_SIZE)
+                .setMaxWaitQueueSize(-1)
+                .setKeepAlive(!transport.equals("http1-close"))
+                .setKeepAliveTimeout(60);
+        BackendHttpClientOptions.Protocol protocol = switch (transport) {
+            case "pipelined" -> BackendHttpClientOptions.Protocol.PIPELINED;
+            case "http2" -> BackendHttpClientOptions.Protocol.HTTP2;
+            default -> BackendHttpClientOptions.Protocol.HTTP1;
+        };
+        client = vertx.createHttpClient(BackendHttpClientOptions.configure(options, protocol, 10, 100, 1000));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public List<Buffer> getTodos(RoundTrips roundTrips) throws Exception {
+        List<Future<Buffer>> responses = new ArrayList<>(callers);
+        for (int i = 0; i < callers; i++) {
+            responses.add(client.request(HttpMethod.GET, "/todos")
+                    .compose(request -> request.putHeader("X-User-Email", "user@example.com").send())
+                    .compose(HttpClientResponse::body));
+        }
+        List<Buffer> bodies = Future.all(responses)
+                .map(all -> all.<Buffer>list())
+                .toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+        roundTrips.requests += callers;
+        return bodies;
+    }
+}
@@ -0,0 +1,104 @@
+// src/jmh/java/org/acme/todo/BenchmarkData.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixtures shared by the benchmarks: generated todo lists, a stubbed backend and a TodoService
+ * wired up without the Quarkus container.
+ */
+final class BenchmarkData {
+
+    private static final String[] WORDS = {
+        "walk", "the", "dog", "buy", "milk", "call", "mom", "clean", "house", "pay", "bills", "book",
+        "flight", "to", "berlin", "review", "pull", "request", "fix", "bike", "water", "plants", "renew",
+        "passport", "plan", "birthday", "party", "for", "sam", "write", "report", "q3", "budget"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Generates a reproducible list of todo items, newest first like the backend returns them.
+     */
+    static List<TodoItem> todos(int size) {
+        Random random = new Random(size);
+        OffsetDateTime now = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        List<TodoItem> todos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StringBuilder title = new StringBuilder();
+            int words = 2 + random.nextInt(5);
+            for (int j = 0; j < words; j++) {
+                if (j > 0) {
+                    title.append(' ');
+                }
+                title.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            boolean completed = random.nextInt(3) == 0;
+            OffsetDateTime createdAt = now.minusMinutes(i).withNano(random.nextInt(1000) * 1_000_000);
+            todos.add(new TodoItem(String.valueOf(size - i), title.toString(), completed, 1,
+                    createdAt, completed ? createdAt.plusHours(random.nextInt(72)) : null));
+        }
+        return todos;
+    }
+
+    /**
+     * An ObjectMapper configured like the one Quarkus REST uses.
+     */
+    static ObjectMapper objectMapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    /**
+     * A TodoService backed by an in-memory stub of the Node backend.
+     */
+    static TodoService service(List<TodoItem> todos) {
+        TodoService service = new TodoService();
+        service.todoStore = new RestTodoStore(new StubTodoClient(todos));
+        service.todoCache = new TodoCache();
+        service.todoCache.registry = new SimpleMeterRegistry();
+        service.singleFlight = new SingleFlight();
+        service.singleFlight.registry = new SimpleMeterRegistry();
+        service.writeBehind = new WriteBehindBuffer();
+        service.insightsRefresher = new InsightsRefresher();
+        service.changeLog = new ChangeLog();
+        service.changeLog.registry = new SimpleMeterRegistry();
+        service.events = new TodoEvents();
+        service.events.changeLog = service.changeLog;
+        service.metrics = new BackendMetrics(new SimpleMeterRegistry());
+        service.todoCache.singleFlight = service.singleFlight;
+        return service;
+    }
+
+    /**
+     * A MemoryTodoStore over the given directory, recovered from whatever it holds, that takes
+     * snapshots only when asked to.
+     */
+    static MemoryTodoStore memoryStore(Path directory, boolean fsync) {
+        MemoryTodoStore store = new MemoryTodoStore();
+        store.directory = directory;
+        store.fsync = fsync;
+        store.snapshotInterval = Duration.ofDays(1);
+        store.snapshotMinRecords = 1;
+        store.registry = new SimpleMeterRegistry();
+        store.init();
+        return store;
+    }
+}
@@ -0,0 +1,66 @@
+// src/jmh/java/org/acme/todo/InsightsBenchmark.java
+package org.acme.todo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TodoService.getInsights for growing lists.
+ * 'recompute' is the full computation over the list (used on a cold cache and for requests
+ * without a user identity); 'incrementalUpdate' applies one edit to the maintained aggregate
+ * and reads its snapshot, which is what a dashboard refresh after an edit costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsightsBenchmark {
+
+    @Param({"10", "1000", "100000", "1000000"})
+    int size;
+
+    private TodoService service;
+    private InsightsAggregate aggregate;
+    private TodoItem original;
+    private TodoItem edited;
+    private boolean toggled;
+
+    @Setup
+    public void setUp() {
+        List<TodoItem> todos = BenchmarkData.todos(size);
+        service = BenchmarkData.service(todos);
+        aggregate = InsightsAggregate.of(todos);
+        original = todos.get(0);
+        edited = new TodoItem(original.getId(), original.getTitle() + " today", !original.isCompleted());
+    }
+
+    @Benchmark
+    public TodoInsights recompute() {
+        return service.getInsights(null);
+    }
+
+    @Benchmark
+    public TodoInsights incrementalUpdate() {
+        if (toggled) {
+            aggregate.replace(edited, original);
+        } else {
+            aggregate.replace(original, edited);
+        }
+        toggled = !toggled;
+        return aggregate.snapshot();
+    }
+}
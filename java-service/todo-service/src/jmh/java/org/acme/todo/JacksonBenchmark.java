@@ -0,0 +1,67 @@
+// src/jmh/java/org/acme/todo/JacksonBenchmark.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization and deserialization of TodoItem lists, including the '@JsonFormat'
+ * OffsetDateTime pattern on createdAt and completedAt, by:
+ * - beans: Jackson's bean serializer and deserializer, formatting timestamps with the pattern;
+ * - streaming: the TodoItemJson module the application mapper registers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "1000", "100000"})
+    int size;
+
+    @Param({"beans", "streaming"})
+    String serializer;
+
+    private ObjectMapper mapper;
+    private List<TodoItem> todos;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = serializer.equals("streaming")
+                ? BenchmarkData.objectMapper().registerModule(TodoItemJson.module())
+                : BenchmarkData.objectMapper();
+        todos = BenchmarkData.todos(size);
+        json = mapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public List<TodoItem> deserialize() throws IOException {
+        return mapper.readValue(json, TODO_LIST);
+    }
+}
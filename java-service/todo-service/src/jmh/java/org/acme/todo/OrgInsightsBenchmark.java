@@ -0,0 +1,70 @@
+// src/jmh/java/org/acme/todo/OrgInsightsBenchmark.java
+package org.acme.todo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to aggregate the organization-wide insights of GET /admin/insights, once the items are read.
+ * 'sequential' is a single pass over all users; 'parallel' is OrgInsightsAggregate.compute on a
+ * pool of 'threads' workers, so the speed-up per core can be read off the results.
+ * Users have between 10 and 1000 items, about 500 on average.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrgInsightsBenchmark {
+
+    @Param({"100", "1000"})
+    int users;
+
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    private List<List<TodoItem>> todosPerUser;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        todosPerUser = new ArrayList<>(users);
+        for (int user = 0; user < users; user++) {
+            todosPerUser.add(BenchmarkData.todos(10 + user * 37 % 991));
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public OrgInsights sequential() {
+        OrgInsightsAggregate aggregate = new OrgInsightsAggregate();
+        todosPerUser.forEach(aggregate::addUser);
+        return aggregate.snapshot();
+    }
+
+    @Benchmark
+    public OrgInsights parallel() {
+        return OrgInsightsAggregate.compute(todosPerUser, pool);
+    }
+}
@@ -0,0 +1,81 @@
+// src/jmh/java/org/acme/todo/ResourceDispatchBenchmark.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.core.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The TodoResource -> TodoService -> TodoClient path with a stubbed backend, including the
+ * hand-off to the worker pool of the blocking pipeline and serialization of the response entity. HTTP transport is left out on purpose, so the
+ * numbers reflect this service's own work per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceDispatchBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    private ObjectMapper mapper;
+    private TodoResource resource;
+
+    @Setup
+    public void setUp() {
+        mapper = BenchmarkData.objectMapper();
+        resource = new TodoResource();
+        resource.todoService = BenchmarkData.service(BenchmarkData.todos(size));
+        resource.execution = new TodoExecution();
+        resource.conditionalGet = new ConditionalGet();
+        resource.conditionalGet.todoCache = resource.todoService.todoCache;
+        resource.conditionalGet.registry = new SimpleMeterRegistry();
+    }
+
+    @Benchmark
+    public byte[] getAll() throws IOException {
+        return write(resource.getAll(null, null, null, null, null, null, null));
+    }
+
+    @Benchmark
+    public byte[] getFirstPage() throws IOException {
+        return write(resource.getAll(null, null, null, "50", null, "false", null));
+    }
+
+    @Benchmark
+    public byte[] getTodoById() throws IOException {
+        return write(resource.getTodoById("1", null));
+    }
+
+    @Benchmark
+    public byte[] getTodoByIdNotFound() throws IOException {
+        return write(resource.getTodoById("missing", null));
+    }
+
+    @Benchmark
+    public byte[] getInsights() throws IOException {
+        return write(resource.getInsights(null, null, null, false));
+    }
+
+    private byte[] write(Uni<Response> response) throws IOException {
+        return mapper.writeValueAsBytes(response.await().indefinitely().getEntity());
+    }
+}
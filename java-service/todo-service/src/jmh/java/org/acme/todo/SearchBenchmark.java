@@ -0,0 +1,94 @@
+// src/jmh/java/org/acme/todo/SearchBenchmark.java
+package org.acme.todo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of GET /todos/search's SearchIndex for one user's list. The generated titles draw on a
+ * vocabulary of 33 words, so every word is in thousands of items at 100k: a worst case for the
+ * postings walked per query.
+ * - search: the top 20 matches of the query.
+ * - scan: the same matches found by splitting every title, as filtering the full list costs.
+ * - incrementalUpdate: one edit applied to the index, which every update through the cache costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"1000", "100000"})
+    int size;
+
+    // A rare word, a prefix of two common ones, two words, two prefixes
+    @Param({"berlin", "wa", "walk dog", "pa bi"})
+    String query;
+
+    private List<TodoItem> todos;
+    private SearchIndex index;
+    private String[] queryWords;
+    private TodoItem original;
+    private TodoItem edited;
+    private boolean toggled;
+
+    @Setup
+    public void setUp() {
+        todos = BenchmarkData.todos(size);
+        index = SearchIndex.of(todos);
+        queryWords = query.split(" ");
+        original = todos.get(size / 2);
+        edited = new TodoItem(original.getId(), original.getTitle() + " today", !original.isCompleted());
+    }
+
+    @Benchmark
+    public List<TodoItem> search() {
+        return index.search(query, SearchIndex.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public List<TodoItem> scan() {
+        List<TodoItem> found = new ArrayList<>();
+        for (TodoItem todo : todos) {
+            String[] words = todo.getTitle().toLowerCase().split("[^a-z0-9]+");
+            boolean matches = true;
+            for (String queryWord : queryWords) {
+                boolean matched = false;
+                for (String word : words) {
+                    matched |= word.startsWith(queryWord);
+                }
+                matches &= matched;
+            }
+            if (matches) {
+                found.add(todo);
+            }
+        }
+        return found.size() > SearchIndex.DEFAULT_LIMIT ? found.subList(0, SearchIndex.DEFAULT_LIMIT) : found;
+    }
+
+    @Benchmark
+    public int incrementalUpdate() {
+        if (toggled) {
+            index.replace(edited, original);
+        } else {
+            index.replace(original, edited);
+        }
+        toggled = !toggled;
+        return index.size();
+    }
+}
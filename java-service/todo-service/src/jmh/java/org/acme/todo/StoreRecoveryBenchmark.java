@@ -0,0 +1,86 @@
+// src/jmh/java/org/acme/todo/StoreRecoveryBenchmark.java
+package org.acme.todo;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Restart of the MemoryTodoStore with 1M and 10M items spread over 10,000 users, recovered
+ * either from a snapshot or by replaying the write-ahead log that created them. Each invocation
+ * is one recovery, from a store written once per trial. The 10M store takes about 2 GB of heap,
+ * hence the larger heap of the fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StoreRecoveryBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"1000000", "10000000"})
+    int items;
+
+    @Param({"snapshot", "log"})
+    String source;
+
+    private Path directory;
+    private MemoryTodoStore recovered;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        MemoryTodoStore store = BenchmarkData.memoryStore(directory, false);
+        TodoItem item = new TodoItem(null, "Book flight to Berlin", false);
+        for (int i = 0; i < items; i++) {
+            store.createTodo("user" + (i % USERS) + "@example.com", item);
+        }
+        if (source.equals("snapshot")) {
+            store.checkpoint();
+        }
+        store.close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() {
+        if (recovered != null) {
+            recovered.close();
+            recovered = null;
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int recover() {
+        recovered = BenchmarkData.memoryStore(directory, false);
+        return recovered.nextId();
+    }
+}
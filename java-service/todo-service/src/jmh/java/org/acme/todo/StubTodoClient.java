@@ -0,0 +1,77 @@
+// src/jmh/java/org/acme/todo/StubTodoClient.java
+package org.acme.todo;
+
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory TodoClient answering from a fixed list, so benchmarks measure this service and not the network.
+ */
+class StubTodoClient implements TodoClient {
+
+    private final List<TodoItem> todos;
+    private final Map<String, TodoItem> byId = new HashMap<>();
+
+    StubTodoClient(List<TodoItem> todos) {
+        this.todos = todos;
+        for (TodoItem todo : todos) {
+            byId.put(todo.getId(), todo);
+        }
+    }
+
+    @Override
+    public List<TodoItem> getTodos(String userEmail) {
+        return todos;
+    }
+
+    @Override
+    public RestResponse<List<TodoItem>> getTodoPage(String userEmail, Integer limit, String cursor,
+                                                    Boolean completed, String createdAfter) {
+        // The stub's cursor is simply the offset of the next item
+        int from = cursor == null ? 0 : Integer.parseInt(cursor);
+        int pageSize = limit == null ? 50 : limit;
+        List<TodoItem> page = new ArrayList<>(pageSize);
+        int next = from;
+        while (next < todos.size() && page.size() < pageSize) {
+            TodoItem todo = todos.get(next++);
+            if (completed == null || completed == todo.isCompleted()) {
+                page.add(todo);
+            }
+        }
+        RestResponse.ResponseBuilder<List<TodoItem>> response = RestResponse.ResponseBuilder.ok(page);
+        if (next < todos.size()) {
+            response.header(TodoPage.NEXT_CURSOR_HEADER, String.valueOf(next));
+        }
+        return response.build();
+    }
+
+    @Override
+    public TodoItem getTodoById(String userEmail, String id) {
+        TodoItem todo = byId.get(id);
+        if (todo == null) {
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        }
+        return todo;
+    }
+
+    @Override
+    public TodoItem createTodo(String userEmail, TodoItem todoItem) {
+        return todoItem;
+    }
+
+    @Override
+    public TodoItem updateTodo(String userEmail, String id, TodoItem todoItem) {
+        return getTodoById(userEmail, id) == null ? null : todoItem;
+    }
+
+    @Override
+    public void deleteTodo(String userEmail, String id) {
+        getTodoById(userEmail, id);
+    }
+}
@@ -0,0 +1,66 @@
+// src/jmh/java/org/acme/todo/WireFormatBenchmark.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of TodoItem lists in the JSON representation (formatted timestamps)
+ * and the Smile representation of SmileMessageBodyHandler (epoch timestamps).
+ * The payload size of each format is printed when the benchmark is set up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"json", "smile"})
+    String format;
+
+    private ObjectMapper mapper;
+    private List<TodoItem> todos;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = format.equals("smile") ? SmileMessageBodyHandler.MAPPER : BenchmarkData.objectMapper();
+        todos = BenchmarkData.todos(size);
+        payload = mapper.writeValueAsBytes(todos);
+        System.out.printf("%n%s payload of %d items: %d bytes (%d per item)%n",
+                format, size, payload.length, payload.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public List<TodoItem> decode() throws IOException {
+        return mapper.readValue(payload, TODO_LIST);
+    }
+}
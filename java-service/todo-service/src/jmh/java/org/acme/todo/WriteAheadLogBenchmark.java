@@ -0,0 +1,102 @@
+// src/jmh/java/org/acme/todo/WriteAheadLogBenchmark.java
+package org.acme.todo;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Durable writes to the MemoryTodoStore with 1, 16 and 64 concurrent writers, each creating an
+ * item of its own user and waiting until it is in the write-ahead log, with and without fsync.
+ * A batch is complete when every writer's item is durable. 'writes' is the number of items
+ * created per second and 'syncs' the number of log writes per second: writes / syncs is the size
+ * of a group commit, 1 with a single writer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    @Param({"1", "16", "64"})
+    int writers;
+
+    @Param({"true", "false"})
+    boolean fsync;
+
+    private Path directory;
+    private MemoryTodoStore store;
+    private ExecutorService pool;
+    private CompletableFuture<?>[] batch;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Durable {
+        public long writes;
+        public long syncs;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            writes = 0;
+            syncs = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        store = BenchmarkData.memoryStore(directory, fsync);
+        pool = Executors.newFixedThreadPool(writers);
+        batch = new CompletableFuture<?>[writers];
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdownNow();
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void createTodos(Durable durable) {
+        double syncs = syncs();
+        for (int i = 0; i < writers; i++) {
+            String user = "writer" + i + "@example.com";
+            batch[i] = CompletableFuture.runAsync(() -> store.createTodo(user, new TodoItem(null, "Walk the dog", false)), pool);
+        }
+        CompletableFuture.allOf(batch).join();
+        durable.writes += writers;
+        durable.syncs += (long) (syncs() - syncs);
+    }
+
+    private double syncs() {
+        return store.registry.get("todo.store.wal.syncs").functionCounter().count();
+    }
+}
@@ -0,0 +1,63 @@
+// src/main/java/org/acme/todo/AdminResource.java
+package org.acme.todo;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ForbiddenException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.NotAuthorizedException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Endpoints for operations across all users, open to the users listed in 'todo.admin.emails'.
+ * Other users get a 403, requests without a user identity a 401.
+ * The backend API only serves the items of the calling user, so with 'todo.store=rest' the
+ * endpoints answer 404, as if they did not exist; 'jdbc' and 'memory' can read all users.
+ */
+@Path("/admin")
+@Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+public class AdminResource {
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    TodoExecution execution;
+
+    @ConfigProperty(name = "todo.admin.emails")
+    Optional<List<String>> adminEmails;
+
+    /**
+     * Retrieves insights about the todo items of the whole organization.
+     * GET /admin/insights
+     * Computed from the store on every call.
+     * @return An OrgInsights object with statistics.
+     */
+    @GET
+    @Path("/insights")
+    public Uni<OrgInsights> getOrgInsights(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        if (!todoService.hasOrgInsights()) {
+            throw new NotFoundException();
+        }
+        checkAdmin(userEmail);
+        return execution.execute("org-insights", () -> todoService.getOrgInsights());
+    }
+
+    private void checkAdmin(String userEmail) {
+        if (userEmail == null) {
+            throw new NotAuthorizedException("Unauthorized: User email is missing.", "IAP");
+        }
+        boolean admin = adminEmails.orElse(List.of()).stream().anyMatch(email -> email.equalsIgnoreCase(userEmail));
+        if (!admin) {
+            throw new ForbiddenException("Organization-wide endpoints are reserved to administrators.");
+        }
+    }
+}
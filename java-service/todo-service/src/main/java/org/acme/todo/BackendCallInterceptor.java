@@ -0,0 +1,65 @@
+// src/main/java/org/acme/todo/BackendCallInterceptor.java
+package org.acme.todo;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Times every call of a @BackendCall client and counts it as in flight until it completes.
+ * Calls returning a Uni or a Multi are measured per subscription, from subscription to termination,
+ * since nothing is sent before a subscriber shows up.
+ */
+@BackendCall
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_AFTER)
+public class BackendCallInterceptor {
+
+    @Inject
+    BackendMetrics metrics;
+
+    @AroundInvoke
+    Object measure(InvocationContext context) throws Exception {
+        String client = clientName(context.getMethod().getDeclaringClass());
+        String method = context.getMethod().getName();
+        Class<?> returnType = context.getMethod().getReturnType();
+        if (Uni.class.isAssignableFrom(returnType)) {
+            Uni<?> call = (Uni<?>) context.proceed();
+            return Uni.createFrom().deferred(() -> {
+                BackendMetrics.Call measured = metrics.start(client, method);
+                return call.onTermination().invoke((result, failure, cancelled) ->
+                        measured.stop(cancelled ? BackendMetrics.CANCELLED : BackendMetrics.status(result, failure)));
+            });
+        }
+        if (Multi.class.isAssignableFrom(returnType)) {
+            Multi<?> call = (Multi<?>) context.proceed();
+            return Multi.createFrom().deferred(() -> {
+                BackendMetrics.Call measured = metrics.start(client, method);
+                return call.onTermination().invoke((failure, cancelled) ->
+                        measured.stop(cancelled ? BackendMetrics.CANCELLED : BackendMetrics.status(null, failure)));
+            });
+        }
+        BackendMetrics.Call measured = metrics.start(client, method);
+        try {
+            Object result = context.proceed();
+            measured.stop(BackendMetrics.status(result, null));
+            return result;
+        } catch (Exception e) {
+            measured.stop(BackendMetrics.status(null, e));
+            throw e;
+        }
+    }
+
+    /**
+     * Names the client after its interface rather than the class generated for it.
+     */
+    private static String clientName(Class<?> client) {
+        String name = client.getSimpleName();
+        int generated = name.indexOf("$$");
+        return generated > 0 ? name.substring(0, generated) : name;
+    }
+}
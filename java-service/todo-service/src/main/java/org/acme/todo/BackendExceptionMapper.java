@@ -0,0 +1,31 @@
+// src/main/java/org/acme/todo/BackendExceptionMapper.java
+package org.acme.todo;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.ext.ResponseExceptionMapper;
+
+/**
+ * Reports 4xx responses of the backend as ClientErrorException, so the circuit breakers of the
+ * clients can tell a request the backend refused (not its fault) from a backend in trouble.
+ * 5xx responses are left to the default mapping.
+ */
+public class BackendExceptionMapper implements ResponseExceptionMapper<ClientErrorException> {
+
+    @Override
+    public boolean handles(int status, MultivaluedMap<String, Object> headers) {
+        return status >= 400 && status < 500;
+    }
+
+    @Override
+    public ClientErrorException toThrowable(Response response) {
+        return switch (response.getStatus()) {
+            case 400 -> new BadRequestException(response);
+            case 404 -> new NotFoundException(response);
+            default -> new ClientErrorException(response);
+        };
+    }
+}
@@ -0,0 +1,68 @@
+// src/main/java/org/acme/todo/BackendHttpClientOptions.java
+package org.acme.todo;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import jakarta.ws.rs.ext.ContextResolver;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Transport settings of the TodoClient and ReactiveTodoClient that have no 'quarkus.rest-client'
+ * key. The REST client starts from these options and applies its own settings on top, i.e. the
+ * pool size, keep-alive and idle eviction of 'quarkus.rest-client.todo-api'.
+ * 'todo.backend.protocol' selects how requests share connections:
+ * - http1: one request at a time per pooled connection.
+ * - pipelined: up to 'todo.backend.pipelining-limit' requests are written to a connection
+ *   before their responses arrive; responses still come back in order.
+ * - http2: requests are multiplexed on a connection, at most
+ *   'todo.backend.http2-multiplexing-limit' at a time. Plain-text backends are asked to upgrade
+ *   (h2c), and connections stay on HTTP/1.1 when they refuse.
+ */
+public class BackendHttpClientOptions implements ContextResolver<HttpClientOptions> {
+
+    public enum Protocol { HTTP1, PIPELINED, HTTP2 }
+
+    @Override
+    public HttpClientOptions getContext(Class<?> type) {
+        Config config = ConfigProvider.getConfig();
+        return configure(new HttpClientOptions(),
+                protocol(config.getOptionalValue("todo.backend.protocol", String.class).orElse("http1")),
+                config.getOptionalValue("todo.backend.pipelining-limit", Integer.class).orElse(10),
+                config.getOptionalValue("todo.backend.http2-multiplexing-limit", Integer.class).orElse(100),
+                config.getOptionalValue("todo.backend.pool-cleaner-period", Integer.class).orElse(1000));
+    }
+
+    /**
+     * Applies the protocol and its limits to the options. Also used by the benchmarks, which run
+     * the client's transport outside Quarkus.
+     * @param poolCleanerPeriod How often, in milliseconds, connections idle for longer than the
+     *                          keep-alive timeout are closed.
+     */
+    public static HttpClientOptions configure(HttpClientOptions options, Protocol protocol, int pipeliningLimit,
+                                              int http2MultiplexingLimit, int poolCleanerPeriod) {
+        options.setPoolCleanerPeriod(poolCleanerPeriod);
+        switch (protocol) {
+            case HTTP1 -> options.setPipelining(false);
+            case PIPELINED -> options.setPipelining(true).setPipeliningLimit(pipeliningLimit);
+            case HTTP2 -> options.setProtocolVersion(HttpVersion.HTTP_2)
+                    .setHttp2ClearTextUpgrade(true)
+                    .setUseAlpn(true)
+                    .setAlpnVersions(List.of(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1))
+                    .setHttp2MultiplexingLimit(http2MultiplexingLimit);
+        }
+        return options;
+    }
+
+    static Protocol protocol(String value) {
+        try {
+            return Protocol.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown todo.backend.protocol '" + value
+                    + "', expected http1, pipelined or http2", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// src/main/java/org/acme/todo/BackendMetrics.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of the calls to the Node.js backend, published on the management port at /q/metrics:
+ * - todo.client.requests{client, method, status}: latency per TodoClient / ReactiveTodoClient method,
+ *   with p50/p99/p999 (see MetricsConfiguration). The status is the HTTP status where the client
+ *   exposes it, '2xx' for other successful calls, 'error' when no response was received and
+ *   'cancelled' when the caller lost interest.
+ * - todo.backend.in-flight: backend calls sent and not yet completed.
+ * - todo.backend.not-found{operation}: backend 404 responses translated into a NotFoundException.
+ * - todo.backend.stale-responses{operation}: reads answered with the last known list or insights
+ *   because the fault tolerance policies of the client rejected the backend call.
+ * The circuit breakers publish their own ft.circuitbreaker.* metrics (state, opened, calls).
+ */
+@ApplicationScoped
+public class BackendMetrics {
+
+    static final String CANCELLED = "cancelled";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public BackendMetrics() {
+    }
+
+    BackendMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        registry.gauge("todo.backend.in-flight", inFlight);
+    }
+
+    /**
+     * Counts a backend call as in flight and starts its timer.
+     * @param client The simple name of the client interface.
+     * @param method The name of the client method.
+     */
+    public Call start(String client, String method) {
+        inFlight.incrementAndGet();
+        return new Call(client, method, Timer.start(registry));
+    }
+
+    /**
+     * Counts a backend 404 and translates it.
+     * @param operation The TodoResource endpoint the lookup was made for, e.g. "get-by-id".
+     * @param message The message of the exception.
+     * @return The exception to throw.
+     */
+    public NotFoundException notFound(String operation, String message) {
+        registry.counter("todo.backend.not-found", "operation", operation).increment();
+        return new NotFoundException(message);
+    }
+
+    /**
+     * Counts a read answered with stale data.
+     * @param operation The TodoResource endpoint, e.g. "get-all".
+     */
+    public void stale(String operation) {
+        registry.counter("todo.backend.stale-responses", "operation", operation).increment();
+    }
+
+    /**
+     * Finds the fault tolerance rejection (open circuit, timeout, full bulkhead) behind a failure.
+     * @return The rejection, or null if the failure has another cause.
+     */
+    static FaultToleranceException rejection(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FaultToleranceException rejection) {
+                return rejection;
+            }
+        }
+        return null;
+    }
+
+    static String status(Object result, Throwable failure) {
+        if (failure instanceof WebApplicationException e && e.getResponse() != null) {
+            return String.valueOf(e.getResponse().getStatus());
+        }
+        if (failure != null) {
+            return "error";
+        }
+        if (result instanceof RestResponse<?> response) {
+            return String.valueOf(response.getStatus());
+        }
+        return "2xx";
+    }
+
+    /**
+     * A backend call in flight.
+     */
+    public final class Call {
+
+        private final String client;
+        private final String method;
+        private final Timer.Sample sample;
+
+        private Call(String client, String method, Timer.Sample sample) {
+            this.client = client;
+            this.method = method;
+            this.sample = sample;
+        }
+
+        public void stop(String status) {
+            inFlight.decrementAndGet();
+            sample.stop(registry.timer("todo.client.requests", "client", client, "method", method, "status", status));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+// src/main/java/org/acme/todo/BatchOperation.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One operation of a POST /todos/batch request.
+ * - create: 'item' is created, 'id' is ignored (the item's own id is used, or a new one assigned).
+ * - update: the item with 'id' is replaced by 'item'.
+ * - delete: the item with 'id' is deleted, 'item' is ignored.
+ */
+public class BatchOperation {
+
+    public enum Type {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("delete") DELETE
+    }
+
+    private Type op;
+    private String id;
+    private TodoItem item;
+
+    public BatchOperation() {
+    }
+
+    public BatchOperation(Type op, String id, TodoItem item) {
+        this.op = op;
+        this.id = id;
+        this.item = item;
+    }
+
+    public static BatchOperation create(TodoItem item) {
+        return new BatchOperation(Type.CREATE, null, item);
+    }
+
+    public static BatchOperation update(String id, TodoItem item) {
+        return new BatchOperation(Type.UPDATE, id, item);
+    }
+
+    public static BatchOperation delete(String id) {
+        return new BatchOperation(Type.DELETE, id, null);
+    }
+
+    // Getters and Setters
+
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public TodoItem getItem() {
+        return item;
+    }
+
+    public void setItem(TodoItem item) {
+        this.item = item;
+    }
+}
@@ -0,0 +1,65 @@
+// src/main/java/org/acme/todo/BatchResult.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of one operation of a POST /todos/batch request.
+ * 'status' is the HTTP status the single-item endpoint would have answered with,
+ * 'item' is set for successful creates and updates, 'error' for failures.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+
+    private final int index;
+    private final BatchOperation.Type op;
+    private final String id;
+    private final int status;
+    private final TodoItem item;
+    private final String error;
+
+    public BatchResult(int index, BatchOperation.Type op, String id, int status, TodoItem item, String error) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+        this.status = status;
+        this.item = item;
+        this.error = error;
+    }
+
+    static BatchResult success(int index, BatchOperation.Type op, String id, int status, TodoItem item) {
+        return new BatchResult(index, op, id, status, item, null);
+    }
+
+    static BatchResult failure(int index, BatchOperation.Type op, String id, int status, String error) {
+        return new BatchResult(index, op, id, status, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public BatchOperation.Type getOp() {
+        return op;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public TodoItem getItem() {
+        return item;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return status < 400;
+    }
+}
@@ -0,0 +1,299 @@
+// src/main/java/org/acme/todo/ChangeLog.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user log of the changes of todo items, behind GET /todos/changes and the resume of GET /todos/stream.
+ * Every change gets a version, greater than all versions before it; a client keeps the version of
+ * its last sync and asks for the changes since. Only users that synced or subscribed are tracked.
+ * Changes are those handled by this instance, and the differences found between a reloaded list
+ * and the one it replaces, so changes made by other clients show up once the list is reloaded
+ * (see TodoCache and InsightsRefresher).
+ * Compaction, which keeps the memory bounded:
+ * - A user's log holds the latest change of each item only: an item updated ten times is one entry,
+ *   a deleted item is one tombstone.
+ * - At most 'todo.changes.max-entries' items per user; the oldest are dropped first, and the log
+ *   can no longer answer for versions before them.
+ * - At most 'todo.changes.max-users' logs; above, the log used least recently is dropped.
+ * A version the log cannot answer for, or one from another instance, gets a full snapshot instead.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.changes.users: tracked users.
+ * - todo.changes.compactions{reason}: entries dropped for the 'size' bound, logs dropped for the 'users' bound.
+ * - todo.changes.syncs{result}: versions asked for, by GET /todos/changes or a resuming stream,
+ *   answered with a 'delta' or, when the log cannot tell, a 'snapshot'.
+ */
+@ApplicationScoped
+public class ChangeLog {
+
+    /**
+     * One change: the item as it is now, or a tombstone for a deleted item.
+     */
+    public record Change(long version, String todoId, TodoItem item) {
+
+        public boolean isDeletion() {
+            return item == null;
+        }
+    }
+
+    /**
+     * The changes of a user since a version, oldest first, and the version to ask from next time.
+     */
+    public record Delta(long version, List<Change> changes) {
+    }
+
+    @ConfigProperty(name = "todo.changes.max-entries", defaultValue = "1000")
+    int maxEntries = 1000;
+
+    @ConfigProperty(name = "todo.changes.max-users", defaultValue = "10000")
+    int maxUsers = 10000;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Tells the versions of this instance from those of earlier or other instances; random, as two
+    // replicas or a quick restart may start within the same millisecond (see UserTodos)
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    // Shared by all users, so a log created anew never reuses the versions of a dropped one
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, UserLog> logs = new ConcurrentHashMap<>();
+    private final AtomicInteger users = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        registry.gauge("todo.changes.users", users);
+    }
+
+    /**
+     * Starts tracking the changes of a user, if not yet.
+     * @param userEmail The email of the user.
+     * @return The version of the user's latest change; every change after it will be logged.
+     */
+    public long track(String userEmail) {
+        return log(userEmail, true).touch();
+    }
+
+    /**
+     * Logs a created or updated item, or a deleted one if 'item' is null.
+     * @param track Whether to start tracking the user if not yet.
+     * @return The version of the change, or 0 if the user is not tracked.
+     */
+    public long record(String userEmail, String todoId, TodoItem item, boolean track) {
+        UserLog log = log(userEmail, track);
+        return log == null || todoId == null ? 0 : log.record(todoId, item);
+    }
+
+    /**
+     * @return The version of the latest change of any user; pass it to {@link #reconcile} for a
+     *         list loaded after this call.
+     */
+    public long current() {
+        return sequence.get();
+    }
+
+    /**
+     * Logs the differences between the list a user had and the list reloaded in its place.
+     * Items changed through this instance while the list was loading are left alone: the log
+     * knows better than the loaded list. Without a previous list, nothing can be told about what
+     * changed before the load: the log forgets it, and clients that synced earlier get a snapshot.
+     * @param previous The list before the reload, or null if none is known.
+     * @param loaded The reloaded list.
+     * @param loadedAfter The value of {@link #current()} when the load started.
+     * @return The logged changes, oldest first; empty if the user is not tracked.
+     */
+    public List<Change> reconcile(String userEmail, List<TodoItem> previous, List<TodoItem> loaded, long loadedAfter) {
+        UserLog log = log(userEmail, false);
+        if (log == null || loaded == null) {
+            return List.of();
+        }
+        if (previous == null) {
+            log.forget(loadedAfter);
+            return List.of();
+        }
+        Map<String, TodoItem> removed = new HashMap<>();
+        for (TodoItem item : previous) {
+            removed.put(item.getId(), item);
+        }
+        List<Change> changes = new ArrayList<>();
+        for (TodoItem item : loaded) {
+            TodoItem before = removed.remove(item.getId());
+            if (before == null || !sameState(before, item)) {
+                log.reconcile(item.getId(), item, loadedAfter, changes);
+            }
+        }
+        for (String todoId : removed.keySet()) {
+            log.reconcile(todoId, null, loadedAfter, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Returns the changes of a user since a version.
+     * @param userEmail The email of the user.
+     * @param since A version returned by this log.
+     * @return The changes, or null if the log cannot tell them: the user is not tracked, the changes
+     *         after the version were compacted, or the version is not one of this instance.
+     */
+    public Delta since(String userEmail, String since) {
+        long after = sequenceOf(since);
+        UserLog log = after < 0 ? null : log(userEmail, false);
+        Delta delta = null;
+        if (log != null) {
+            log.touch();
+            delta = log.since(after);
+        }
+        registry.counter("todo.changes.syncs", "result", delta == null ? "snapshot" : "delta").increment();
+        return delta;
+    }
+
+    /**
+     * @return The version string of a sequence, as handed out to clients.
+     */
+    public String version(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * @return The sequence of a version of this instance, or -1.
+     */
+    private long sequenceOf(String version) {
+        if (version == null) {
+            return -1;
+        }
+        int separator = version.lastIndexOf('-');
+        if (separator < 0 || !version.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(version.substring(separator + 1));
+            return sequence <= this.sequence.get() ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private UserLog log(String userEmail, boolean create) {
+        if (userEmail == null) {
+            return null;
+        }
+        if (!create) {
+            return logs.get(userEmail);
+        }
+        UserLog log = logs.get(userEmail);
+        if (log != null) {
+            return log;
+        }
+        log = logs.computeIfAbsent(userEmail, key -> {
+            users.incrementAndGet();
+            return new UserLog(sequence.get());
+        });
+        if (users.get() > maxUsers) {
+            dropLeastRecentlyUsed(userEmail);
+        }
+        return log;
+    }
+
+    private void dropLeastRecentlyUsed(String keep) {
+        String oldest = null;
+        long oldestUse = Long.MAX_VALUE;
+        for (Map.Entry<String, UserLog> entry : logs.entrySet()) {
+            if (entry.getValue().lastUsed < oldestUse && !entry.getKey().equals(keep)) {
+                oldest = entry.getKey();
+                oldestUse = entry.getValue().lastUsed;
+            }
+        }
+        if (oldest != null && logs.remove(oldest) != null) {
+            users.decrementAndGet();
+            registry.counter("todo.changes.compactions", "reason", "users").increment();
+        }
+    }
+
+    private static boolean sameState(TodoItem a, TodoItem b) {
+        return a.isCompleted() == b.isCompleted()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getCompletedAt(), b.getCompletedAt());
+    }
+
+    /**
+     * The changes of one user, the latest per item, in the order of their versions.
+     */
+    private final class UserLog {
+
+        private final LinkedHashMap<String, Change> latest = new LinkedHashMap<>();
+        // Version of the latest change no longer (or never) in the log
+        private long floor;
+        volatile long lastUsed = System.nanoTime();
+
+        UserLog(long createdAt) {
+            this.floor = createdAt;
+        }
+
+        synchronized long record(String todoId, TodoItem item) {
+            long version = sequence.incrementAndGet();
+            // Removed first, so the item moves to the end of the iteration order
+            latest.remove(todoId);
+            latest.put(todoId, new Change(version, todoId, item));
+            lastUsed = System.nanoTime();
+            int dropped = 0;
+            for (Iterator<Change> oldest = latest.values().iterator(); latest.size() > maxEntries; dropped++) {
+                floor = oldest.next().version();
+                oldest.remove();
+            }
+            if (dropped > 0) {
+                registry.counter("todo.changes.compactions", "reason", "size").increment(dropped);
+            }
+            return version;
+        }
+
+        synchronized long touch() {
+            lastUsed = System.nanoTime();
+            return latest.isEmpty() ? floor : latest.lastEntry().getValue().version();
+        }
+
+        synchronized void reconcile(String todoId, TodoItem item, long loadedAfter, List<Change> changes) {
+            Change known = latest.get(todoId);
+            if (known == null || known.version() <= loadedAfter) {
+                changes.add(new Change(record(todoId, item), todoId, item));
+            }
+        }
+
+        synchronized void forget(long through) {
+            floor = Math.max(floor, through);
+            latest.values().removeIf(change -> change.version() <= through);
+        }
+
+        synchronized Delta since(long after) {
+            if (after < floor) {
+                return null;
+            }
+            List<Change> changes = new ArrayList<>();
+            for (Change change : latest.sequencedValues().reversed()) {
+                if (change.version() <= after) {
+                    break;
+                }
+                changes.add(change);
+            }
+            Collections.reverse(changes);
+            long current = latest.isEmpty() ? floor : latest.lastEntry().getValue().version();
+            return new Delta(Math.max(current, after), changes);
+        }
+    }
+}
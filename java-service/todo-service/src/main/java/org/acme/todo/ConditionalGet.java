@@ -0,0 +1,145 @@
+// src/main/java/org/acme/todo/ConditionalGet.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Conditional GET support for the list and insights endpoints of TodoResource.
+ * The ETag of a response is the version of the user's TodoCache snapshot it was served from,
+ * so a client polling an unchanged list gets a 304 without the list being loaded or serialized.
+ * Responses not served from the cache (no user, or a snapshot replaced meanwhile) carry no ETag.
+ * The JSON and Smile representations of a snapshot have different ETags, and responses vary by Accept.
+ * So do its content codings: ResponseCompression appends the encoding to the ETag of a compressed
+ * response (e.g. "&lt;version&gt;-gzip"), and If-None-Match matches any coding of the current snapshot.
+ * Insights served from a snapshot also carry the time its list was loaded, in 'X-Insights-As-Of'.
+ * Counted in todo.conditional.responses{endpoint, status}, published on the management port at /q/metrics.
+ */
+@ApplicationScoped
+public class ConditionalGet {
+
+    static final String INSIGHTS_AS_OF_HEADER = "X-Insights-As-Of";
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Answers a conditional request from the cached version alone, if the client's copy is current.
+     * @param endpoint "get-all" or "get-insights".
+     * @param userEmail The email of the user.
+     * @param ifNoneMatch The If-None-Match header, may be null.
+     * @param type The media type the response is served in.
+     * @return A 304 response, or null if the request has to be served.
+     */
+    public Response notModified(String endpoint, String userEmail, String ifNoneMatch, MediaType type) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        String version = todoCache.version(userEmail);
+        if (version == null) {
+            return null;
+        }
+        EntityTag tag = matching(ifNoneMatch, tag(endpoint, version, type));
+        return tag != null ? notModified(endpoint, tag) : null;
+    }
+
+    /**
+     * Builds the response to GET /todos.
+     * @return A 200 with the list and its ETag, or a 304 if the client's copy turned out to be current.
+     */
+    public Response list(String userEmail, String ifNoneMatch, MediaType type, List<TodoItem> todos) {
+        return respond("get-all", ifNoneMatch, type, todos, todoCache.versionOf(userEmail, todos));
+    }
+
+    /**
+     * Builds the response to GET /todos/insights.
+     * @return A 200 with the insights and their ETag, or a 304 if the client's copy turned out to be current.
+     */
+    public Response insights(String userEmail, String ifNoneMatch, MediaType type, TodoInsights insights) {
+        Response response = respond("get-insights", ifNoneMatch, type, insights, todoCache.versionOf(userEmail, insights));
+        Instant loadedAt = todoCache.loadedAt(userEmail, insights);
+        if (loadedAt != null) {
+            response.getHeaders().putSingle(INSIGHTS_AS_OF_HEADER, loadedAt.toString());
+        }
+        return response;
+    }
+
+    private Response respond(String endpoint, String ifNoneMatch, MediaType type, Object entity, String version) {
+        if (version == null) {
+            count(endpoint, 200);
+            return Response.ok(entity, type).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+        }
+        EntityTag tag = tag(endpoint, version, type);
+        EntityTag matched = ifNoneMatch != null ? matching(ifNoneMatch, tag) : null;
+        if (matched != null) {
+            return notModified(endpoint, matched);
+        }
+        count(endpoint, 200);
+        return Response.ok(entity, type).tag(tag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+
+    private Response notModified(String endpoint, EntityTag tag) {
+        count(endpoint, 304);
+        return Response.notModified(tag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT).build();
+    }
+
+    private void count(String endpoint, int status) {
+        registry.counter("todo.conditional.responses", "endpoint", endpoint, "status", String.valueOf(status)).increment();
+    }
+
+    private static EntityTag tag(String endpoint, String version, MediaType type) {
+        // The list and the insights of one snapshot are different representations
+        String value = endpoint.equals("get-insights") ? version + "-insights" : version;
+        return new EntityTag(SmileMessageBodyHandler.APPLICATION_SMILE_TYPE.isCompatible(type) ? value + "-smile" : value);
+    }
+
+    /**
+     * Returns the tag of a representation in another content coding, see ResponseCompression.
+     */
+    static EntityTag encoded(EntityTag tag, String encoding) {
+        return new EntityTag(tag.getValue() + "-" + encoding, tag.isWeak());
+    }
+
+    static boolean matches(String ifNoneMatch, EntityTag tag) {
+        return matching(ifNoneMatch, tag) != null;
+    }
+
+    /**
+     * If-None-Match uses the weak comparison: a W/ prefix on the client's tags is ignored.
+     * @return The tag, or its variant for the content coding the client's copy has, if one of the
+     *         client's tags names it; null otherwise.
+     */
+    static EntityTag matching(String ifNoneMatch, EntityTag tag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(quoted(tag))) {
+                return tag;
+            }
+            for (String encoding : ResponseCompression.ENCODINGS) {
+                EntityTag encoded = encoded(tag, encoding);
+                if (candidate.equals(quoted(encoded))) {
+                    return encoded;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String quoted(EntityTag tag) {
+        return '"' + tag.getValue() + '"';
+    }
+}
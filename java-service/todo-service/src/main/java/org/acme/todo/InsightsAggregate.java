@@ -0,0 +1,118 @@
+// src/main/java/org/acme/todo/InsightsAggregate.java
+package org.acme.todo;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Incrementally maintained insights of one user's todo list.
+ * Creates, updates and deletes are applied as deltas, so reading the insights does not
+ * need the full list. The word ranking is kept sorted (count descending, word ascending),
+ * which is the same order InsightsCalculator produces, so the top words are read off its head.
+ */
+public class InsightsAggregate {
+
+    private static final Comparator<WordCount> RANKING = Comparator
+            .comparingLong(WordCount::count).reversed()
+            .thenComparing(WordCount::word);
+
+    private long totalTasks;
+    private long completedTasks;
+    private final WordCounter wordCounts = new WordCounter();
+    private final TreeSet<WordCount> ranking = new TreeSet<>(RANKING);
+
+    private final TitleTokenizer tokenizer = new TitleTokenizer();
+    private final TitleTokenizer.WordSink addWord = (chars, length) -> adjust(chars, length, 1);
+    private final TitleTokenizer.WordSink removeWord = (chars, length) -> adjust(chars, length, -1);
+
+    // Last snapshot handed out, dropped by every delta.
+    private TodoInsights snapshot;
+
+    /**
+     * Builds the aggregate of a full todo list.
+     * @param todos The todo items of a user.
+     * @return The aggregate of those items.
+     */
+    public static InsightsAggregate of(List<TodoItem> todos) {
+        InsightsAggregate aggregate = new InsightsAggregate();
+        for (TodoItem todo : todos) {
+            aggregate.add(todo);
+        }
+        return aggregate;
+    }
+
+    /**
+     * Accounts for a todo item that was added to the list.
+     */
+    public synchronized void add(TodoItem todo) {
+        totalTasks++;
+        if (todo.isCompleted()) {
+            completedTasks++;
+        }
+        tokenizer.tokenize(todo.getTitle(), addWord);
+        snapshot = null;
+    }
+
+    /**
+     * Accounts for a todo item that was removed from the list.
+     */
+    public synchronized void remove(TodoItem todo) {
+        totalTasks--;
+        if (todo.isCompleted()) {
+            completedTasks--;
+        }
+        tokenizer.tokenize(todo.getTitle(), removeWord);
+        snapshot = null;
+    }
+
+    /**
+     * Accounts for a todo item that was replaced by a new version of itself.
+     */
+    public synchronized void replace(TodoItem previous, TodoItem current) {
+        remove(previous);
+        add(current);
+    }
+
+    /**
+     * Returns the insights in the form TodoService.getInsights has always returned them.
+     * @return A TodoInsights object containing statistics.
+     */
+    public synchronized TodoInsights snapshot() {
+        if (snapshot == null) {
+            snapshot = buildSnapshot();
+        }
+        return snapshot;
+    }
+
+    private TodoInsights buildSnapshot() {
+        if (totalTasks == 0) {
+            return new TodoInsights(0, 0, 0.0, Collections.emptyMap());
+        }
+        Map<String, Long> topWords = new LinkedHashMap<>();
+        Iterator<WordCount> it = ranking.iterator();
+        while (it.hasNext() && topWords.size() < InsightsCalculator.TOP_WORDS) {
+            WordCount wordCount = it.next();
+            topWords.put(wordCount.word(), wordCount.count());
+        }
+        return new TodoInsights(totalTasks, completedTasks, (double) completedTasks / totalTasks, topWords);
+    }
+
+    private void adjust(char[] chars, int length, int delta) {
+        int slot = wordCounts.find(chars, length);
+        if (slot >= 0) {
+            ranking.remove(new WordCount(wordCounts.wordAt(slot), wordCounts.countAt(slot)));
+        }
+        slot = wordCounts.add(chars, length, delta);
+        if (slot >= 0) {
+            ranking.add(new WordCount(wordCounts.wordAt(slot), wordCounts.countAt(slot)));
+        }
+    }
+
+    private record WordCount(String word, long count) {
+    }
+}
@@ -0,0 +1,49 @@
+// src/main/java/org/acme/todo/InsightsCalculator.java
+package org.acme.todo;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes TodoInsights from a full list of todo items.
+ * This is the reference implementation that the incremental InsightsAggregate must agree with.
+ * Titles are scanned by the TitleTokenizer into a WordCounter, and the top words are picked
+ * with a bounded heap instead of sorting every distinct word.
+ */
+public final class InsightsCalculator {
+
+    /** Number of words reported in TodoInsights.mostCommonWords. */
+    static final int TOP_WORDS = 5;
+
+    private InsightsCalculator() {
+    }
+
+    /**
+     * Recomputes the insights of a todo list from scratch.
+     * @param allTodos The todo items of a user.
+     * @return A TodoInsights object containing statistics.
+     */
+    public static TodoInsights compute(List<TodoItem> allTodos) {
+        if (allTodos == null || allTodos.isEmpty()) {
+            return new TodoInsights(0, 0, 0.0, Collections.emptyMap());
+        }
+
+        long totalTasks = allTodos.size();
+        long completedTasks = 0;
+        TitleTokenizer tokenizer = new TitleTokenizer();
+        WordCounter wordCounts = new WordCounter();
+        TitleTokenizer.WordSink counter = wordCounts::increment;
+        for (TodoItem todo : allTodos) {
+            if (todo.isCompleted()) {
+                completedTasks++;
+            }
+            tokenizer.tokenize(todo.getTitle(), counter);
+        }
+        double completionRatio = (double) completedTasks / totalTasks;
+
+        // Ties on the count are ordered by word, as TodoInsights has always reported them
+        Map<String, Long> topWords = wordCounts.top(TOP_WORDS);
+        return new TodoInsights(totalTasks, completedTasks, completionRatio, topWords);
+    }
+}
@@ -0,0 +1,158 @@
+// src/main/java/org/acme/todo/InsightsRefresher.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the insights of recently active users precomputed, enabled with 'todo.insights.refresh.enabled'.
+ * A user is active for 'todo.insights.refresh.active-for' after asking for insights. Every
+ * 'todo.insights.refresh.interval', the cached lists of active users that were loaded longer
+ * than an interval ago are reloaded from the store and their insights rebuilt, with at most
+ * 'todo.insights.refresh.parallelism' reloads at a time, so GET /todos/insights is served from a
+ * recent snapshot instead of loading the list on the request path.
+ * A reload is dropped if the user's cached list changed while it ran; the next run retries it.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.insights.refresh.duration: duration of a run over all due users.
+ * - todo.insights.refresh.backlog: due users of the running run still waiting for a reload slot.
+ * - todo.insights.refresh.active-users: users whose insights are kept fresh.
+ * - todo.insights.refresh.users{result}: reloads per outcome, 'refreshed', 'changed' or 'failed'.
+ */
+@ApplicationScoped
+public class InsightsRefresher {
+
+    private static final Logger LOG = Logger.getLogger(InsightsRefresher.class);
+
+    @ConfigProperty(name = "todo.insights.refresh.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "todo.insights.refresh.interval", defaultValue = "30s")
+    Duration interval = Duration.ofSeconds(30);
+
+    @ConfigProperty(name = "todo.insights.refresh.active-for", defaultValue = "10m")
+    Duration activeFor = Duration.ofMinutes(10);
+
+    @ConfigProperty(name = "todo.insights.refresh.parallelism", defaultValue = "4")
+    int parallelism = 4;
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService refreshExecutor;
+
+    // Users by the time they last asked for insights
+    private final Map<String, Instant> activeUsers = new ConcurrentHashMap<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        registry.gauge("todo.insights.refresh.backlog", backlog);
+        registry.gaugeMapSize("todo.insights.refresh.active-users", List.of(), activeUsers);
+        if (enabled) {
+            ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "todo-insights-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = interval.toMillis();
+            // A run longer than the interval delays the next one rather than overlapping it
+            ticker.scheduleWithFixedDelay(this::refreshDue, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Marks a user as active, so their insights are kept fresh.
+     */
+    public void touch(String userEmail) {
+        if (enabled && userEmail != null) {
+            activeUsers.put(userEmail, Instant.now());
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Reloads the lists of the active users that are due, and waits for the reloads to finish.
+     */
+    void refreshDue() {
+        Timer.Sample run = Timer.start(registry);
+        try {
+            Instant now = Instant.now();
+            activeUsers.values().removeIf(lastSeen -> lastSeen.plus(activeFor).isBefore(now));
+            List<String> due = new ArrayList<>();
+            for (String userEmail : activeUsers.keySet()) {
+                Instant loadedAt = todoCache.loadedAt(userEmail);
+                if (loadedAt == null || loadedAt.plus(interval).isBefore(now)) {
+                    due.add(userEmail);
+                }
+            }
+            backlog.set(due.size());
+            Semaphore slots = new Semaphore(parallelism);
+            List<CompletableFuture<Void>> reloads = new ArrayList<>(due.size());
+            for (String userEmail : due) {
+                slots.acquireUninterruptibly();
+                backlog.decrementAndGet();
+                reloads.add(CompletableFuture.runAsync(() -> {
+                    try {
+                        reload(userEmail);
+                    } finally {
+                        slots.release();
+                    }
+                }, refreshExecutor));
+            }
+            CompletableFuture.allOf(reloads.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            // Keeps the ticker alive, e.g. while the executor shuts down
+            LOG.warn("Could not refresh insights", e);
+        } finally {
+            backlog.set(0);
+            run.stop(registry.timer("todo.insights.refresh.duration"));
+        }
+    }
+
+    private void reload(String userEmail) {
+        String result;
+        try {
+            result = todoService.reload(userEmail) ? "refreshed" : "changed";
+        } catch (RuntimeException e) {
+            result = "failed";
+            LOG.debugf("Could not refresh the insights of %s: %s", userEmail, e.getMessage());
+        }
+        registry.counter("todo.insights.refresh.users", "result", result).increment();
+    }
+}
@@ -0,0 +1,309 @@
+// src/main/java/org/acme/todo/JdbcTodoStore.java
+package org.acme.todo;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TodoStore reading and writing the backend's Postgres database directly ('todo.store=jdbc'),
+ * through the pooled 'quarkus.datasource'. It uses the backend's schema and rules: users are
+ * found or created by email, every statement is scoped to the user, lists are newest first.
+ * Cursors are opaque and only valid against the store that issued them.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "todo.store", stringValue = "jdbc")
+public class JdbcTodoStore implements TodoStore {
+
+    private static final String COLUMNS = "id, title, completed, user_id, created_at, completed_at";
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // PostgreSQL and H2 report a violated unique constraint with this SQLState
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    // User IDs never change, so the lookup is done once per email
+    private final Map<String, Integer> userIds = new ConcurrentHashMap<>();
+
+    @Override
+    public List<TodoItem> getTodos(String userEmail) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT " + COLUMNS + " FROM todos WHERE user_id = ? ORDER BY created_at DESC, id DESC")) {
+            statement.setInt(1, userId(connection, userEmail));
+            return readAll(statement);
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public TodoPage getTodoPage(String userEmail, TodoQuery query) {
+        int limit = query.getLimit() != null ? query.getLimit() : DEFAULT_PAGE_SIZE;
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM todos WHERE user_id = ?");
+        List<Object> parameters = new ArrayList<>();
+        if (query.getCompleted() != null) {
+            sql.append(" AND completed = ?");
+            parameters.add(query.getCompleted());
+        }
+        if (query.getCreatedAfter() != null) {
+            sql.append(" AND created_at > ?");
+            parameters.add(OffsetDateTime.parse(query.getCreatedAfter()));
+        }
+        if (query.getCursor() != null) {
+            Object[] position = decodeCursor(query.getCursor());
+            sql.append(" AND (created_at < ? OR (created_at = ? AND id < ?))");
+            parameters.add(position[0]);
+            parameters.add(position[0]);
+            parameters.add(position[1]);
+        }
+        // One extra row tells whether there is a next page
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        parameters.add(limit + 1);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            statement.setInt(1, userId(connection, userEmail));
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 2, parameters.get(i));
+            }
+            List<TodoItem> items = readAll(statement);
+            if (items.size() <= limit) {
+                return new TodoPage(items, null);
+            }
+            items = new ArrayList<>(items.subList(0, limit));
+            return new TodoPage(items, encodeCursor(items.get(limit - 1)));
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public TodoItem getTodoById(String userEmail, String id) {
+        int todoId = todoId(id);
+        try (Connection connection = dataSource.getConnection()) {
+            return select(connection, userId(connection, userEmail), todoId);
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public TodoItem createTodo(String userEmail, TodoItem todoItem) {
+        String title = todoItem.getTitle() != null ? todoItem.getTitle().trim() : "";
+        if (title.isEmpty()) {
+            throw new BadRequestException("Title is required and must be a non-empty string.");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            int userId = userId(connection, userEmail);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO todos (title, user_id) VALUES (?, ?)", new String[] {"id"})) {
+                statement.setString(1, title);
+                statement.setInt(2, userId);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    return select(connection, userId, keys.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public TodoItem updateTodo(String userEmail, String id, TodoItem todoItem) {
+        int todoId = todoId(id);
+        String title = todoItem.getTitle() != null ? todoItem.getTitle().trim() : null;
+        if (title != null && title.isEmpty()) {
+            throw new BadRequestException("Title must be a non-empty string if provided.");
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            int userId = userId(connection, userEmail);
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE todos SET title = COALESCE(?, title), completed = ?, completed_at = ?"
+                            + " WHERE id = ? AND user_id = ?")) {
+                statement.setString(1, title);
+                statement.setBoolean(2, todoItem.isCompleted());
+                statement.setObject(3, todoItem.isCompleted() ? OffsetDateTime.now() : null);
+                statement.setInt(4, todoId);
+                statement.setInt(5, userId);
+                if (statement.executeUpdate() == 0) {
+                    throw new NotFoundException("Todo not found");
+                }
+            }
+            return select(connection, userId, todoId);
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public void deleteTodo(String userEmail, String id) {
+        int todoId = todoId(id);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "DELETE FROM todos WHERE id = ? AND user_id = ?")) {
+            statement.setInt(1, todoId);
+            statement.setInt(2, userId(connection, userEmail));
+            if (statement.executeUpdate() == 0) {
+                throw new NotFoundException("Todo not found");
+            }
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    @Override
+    public Map<String, List<TodoItem>> getAllTodos() {
+        // One pass over both tables; the left join keeps users without items
+        Map<String, List<TodoItem>> todos = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT u.email, t.id, t.title, t.completed, t.user_id, t.created_at, t.completed_at"
+                             + " FROM users u LEFT JOIN todos t ON t.user_id = u.id"
+                             + " ORDER BY u.id, t.created_at DESC, t.id DESC")) {
+            statement.setFetchSize(1000);
+            try (ResultSet row = statement.executeQuery()) {
+                while (row.next()) {
+                    List<TodoItem> items = todos.computeIfAbsent(row.getString("email"), email -> new ArrayList<>());
+                    if (row.getObject("id") != null) {
+                        items.add(read(row));
+                    }
+                }
+            }
+            return todos;
+        } catch (SQLException e) {
+            throw failure(e);
+        }
+    }
+
+    /**
+     * Finds the user with the given email, creating it on first use like the backend does.
+     */
+    private int userId(Connection connection, String userEmail) throws SQLException {
+        if (userEmail == null) {
+            throw new WebApplicationException("Unauthorized: User email is missing.", 401);
+        }
+        Integer cached = userIds.get(userEmail);
+        if (cached != null) {
+            return cached;
+        }
+        Integer id = findUser(connection, userEmail);
+        if (id == null) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO users (username, email) VALUES (?, ?)", new String[] {"id"})) {
+                statement.setString(1, userEmail.split("@")[0].replaceAll("[^a-zA-Z0-9_]", "_"));
+                statement.setString(2, userEmail);
+                statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    keys.next();
+                    id = keys.getInt(1);
+                }
+            } catch (SQLException e) {
+                // Created concurrently by another request or by the backend
+                if (!UNIQUE_VIOLATION.equals(e.getSQLState()) || (id = findUser(connection, userEmail)) == null) {
+                    throw e;
+                }
+            }
+        }
+        userIds.put(userEmail, id);
+        return id;
+    }
+
+    private static Integer findUser(Connection connection, String userEmail) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT id FROM users WHERE email = ?")) {
+            statement.setString(1, userEmail);
+            try (ResultSet row = statement.executeQuery()) {
+                return row.next() ? row.getInt(1) : null;
+            }
+        }
+    }
+
+    private static TodoItem select(Connection connection, int userId, int todoId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT " + COLUMNS + " FROM todos WHERE id = ? AND user_id = ?")) {
+            statement.setInt(1, todoId);
+            statement.setInt(2, userId);
+            List<TodoItem> items = readAll(statement);
+            if (items.isEmpty()) {
+                throw new NotFoundException("Todo not found");
+            }
+            return items.get(0);
+        }
+    }
+
+    private static List<TodoItem> readAll(PreparedStatement statement) throws SQLException {
+        List<TodoItem> items = new ArrayList<>();
+        try (ResultSet row = statement.executeQuery()) {
+            while (row.next()) {
+                items.add(read(row));
+            }
+        }
+        return items;
+    }
+
+    private static TodoItem read(ResultSet row) throws SQLException {
+        return new TodoItem(
+                String.valueOf(row.getInt("id")),
+                row.getString("title"),
+                row.getBoolean("completed"),
+                row.getInt("user_id"),
+                row.getObject("created_at", OffsetDateTime.class),
+                row.getObject("completed_at", OffsetDateTime.class));
+    }
+
+    /**
+     * IDs are serial integers; anything else cannot name an item of the user.
+     */
+    private static int todoId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new NotFoundException("Todo not found");
+        }
+    }
+
+    private static String encodeCursor(TodoItem last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Object[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new Object[] {
+                OffsetDateTime.parse(position.substring(0, separator)),
+                Integer.parseInt(position.substring(separator + 1))
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+
+    private static RuntimeException failure(SQLException e) {
+        return new IllegalStateException("Todo database request failed: " + e.getMessage(), e);
+    }
+}
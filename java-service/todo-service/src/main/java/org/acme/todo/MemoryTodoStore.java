@@ -0,0 +1,487 @@
+// src/main/java/org/acme/todo/MemoryTodoStore.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.arc.lookup.LookupIfProperty;
+import io.quarkus.runtime.ShutdownEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.Reception;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * TodoStore keeping the todo items in this process ('todo.store=memory'), for single-node
+ * deployments without the Node.js backend and its database. It follows the backend's rules:
+ * serial IDs, users created on first write, lists newest first.
+ * Items are indexed by user, then by ID; every call but getAllTodos is scoped to one user.
+ * Durability, in 'todo.store.memory.directory':
+ * - Every change is appended to a WriteAheadLog, and acknowledged once the log is synced.
+ *   Concurrent writers share one fsync (group commit); with 'todo.store.memory.fsync=false'
+ *   the log is handed to the OS only, which survives a crash of the process but not of the host.
+ * - Every 'todo.store.memory.snapshot-interval', if at least 'snapshot-min-records' changes were
+ *   logged, a TodoSnapshot is written and the log segments it covers are deleted.
+ * - On start, the store is recovered from the latest snapshot and the log after it.
+ * Reads may see a change shortly before it is durable, never one that was rolled back.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.store.wal.records and todo.store.wal.syncs: records made durable and the writes doing
+ *   so; their ratio is the size of a group commit.
+ * - todo.store.snapshots: time taken to write snapshots.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "todo.store", stringValue = "memory")
+public class MemoryTodoStore implements TodoStore {
+
+    private static final Logger LOG = Logger.getLogger(MemoryTodoStore.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+
+    // Kind of a log record
+    private static final byte USER = 'U';
+    private static final byte PUT = 'P';
+    private static final byte DELETE = 'D';
+
+    // Timestamps are kept as nanoseconds since the epoch, this one standing for null
+    static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * One stored item: compact and immutable, turned into a TodoItem when read.
+     */
+    record Entry(int id, int userId, String title, boolean completed, long createdAt, long completedAt) {
+
+        TodoItem toItem() {
+            return new TodoItem(String.valueOf(id), title, completed, userId, time(createdAt), time(completedAt));
+        }
+    }
+
+    /**
+     * A user and its items, newest (highest ID) first.
+     */
+    static final class Owner {
+
+        final int id;
+        volatile String email;
+        final ConcurrentNavigableMap<Integer, Entry> items = new ConcurrentSkipListMap<>(Collections.reverseOrder());
+
+        Owner(int id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+
+    @ConfigProperty(name = "todo.store.memory.directory", defaultValue = "data/todos")
+    Path directory = Path.of("data/todos");
+
+    @ConfigProperty(name = "todo.store.memory.fsync", defaultValue = "true")
+    boolean fsync = true;
+
+    @ConfigProperty(name = "todo.store.memory.snapshot-interval", defaultValue = "5m")
+    Duration snapshotInterval = Duration.ofMinutes(5);
+
+    @ConfigProperty(name = "todo.store.memory.snapshot-min-records", defaultValue = "10000")
+    long snapshotMinRecords = 10000;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, Owner> byEmail = new ConcurrentHashMap<>();
+    private final Map<Integer, Owner> byId = new ConcurrentHashMap<>();
+    // Orders changes: a record is logged and applied under it, so the log and memory agree
+    private final Object writeLock = new Object();
+    // Guarded by the write lock
+    private int nextId = 1;
+    private int nextUserId = 1;
+    private long snapshotLsn;
+
+    private WriteAheadLog log;
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Recovers the store: the latest snapshot, then the log records after it.
+     */
+    @PostConstruct
+    void init() {
+        try {
+            long started = System.nanoTime();
+            Files.createDirectories(directory);
+            Path snapshot = null;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.sorted().toList()) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        // Left by a snapshot interrupted before it was complete
+                        Files.delete(file);
+                    } else if (name.endsWith(TodoSnapshot.SUFFIX)) {
+                        snapshot = file;
+                    }
+                }
+            }
+            long items = 0;
+            if (snapshot != null) {
+                TodoSnapshot.Summary summary = TodoSnapshot.read(snapshot, new TodoSnapshot.Sink() {
+                    @Override
+                    public void item(Entry entry) {
+                        owner(entry.userId()).items.put(entry.id(), entry);
+                    }
+
+                    @Override
+                    public void user(int userId, String email) {
+                        addUser(userId, email);
+                    }
+                });
+                snapshotLsn = summary.lsn();
+                nextId = Math.max(nextId, summary.nextId());
+                items = summary.items();
+            }
+            long lastLsn = WriteAheadLog.replay(directory, snapshotLsn, this::apply);
+            log = new WriteAheadLog(directory, lastLsn, fsync);
+            LOG.infof("Recovered %d users from %s and %d log records in %d ms", byEmail.size(),
+                    snapshot != null ? items + " items of " + snapshot.getFileName() : "no snapshot",
+                    lastLsn - snapshotLsn, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the todo store from " + directory, e);
+        }
+        FunctionCounter.builder("todo.store.wal.records", log, WriteAheadLog::records).register(registry);
+        FunctionCounter.builder("todo.store.wal.syncs", log, WriteAheadLog::syncs).register(registry);
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "todo-store-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = snapshotInterval.toMillis();
+        ticker.scheduleWithFixedDelay(this::checkpoint, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    // Only if the store was selected: the event must not create it
+    void onStop(@Observes(notifyObserver = Reception.IF_EXISTS) ShutdownEvent event) {
+        close();
+    }
+
+    /**
+     * Stops the snapshots and closes the log; the store refuses writes afterwards.
+     */
+    void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (log != null) {
+            synchronized (writeLock) {
+                try {
+                    log.close();
+                } catch (IOException e) {
+                    LOG.warn("Could not close the write-ahead log", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<TodoItem> getTodos(String userEmail) {
+        Owner owner = find(userEmail);
+        if (owner == null) {
+            return new ArrayList<>();
+        }
+        List<TodoItem> items = new ArrayList<>(owner.items.size());
+        for (Entry entry : owner.items.values()) {
+            items.add(entry.toItem());
+        }
+        return items;
+    }
+
+    @Override
+    public TodoPage getTodoPage(String userEmail, TodoQuery query) {
+        int limit = query.getLimit() != null ? query.getLimit() : DEFAULT_PAGE_SIZE;
+        long createdAfter = NONE;
+        if (query.getCreatedAfter() != null) {
+            createdAfter = nanos(OffsetDateTime.parse(query.getCreatedAfter()));
+        }
+        Owner owner = find(userEmail);
+        if (owner == null) {
+            return new TodoPage(new ArrayList<>(), null);
+        }
+        ConcurrentNavigableMap<Integer, Entry> items = owner.items;
+        if (query.getCursor() != null) {
+            items = items.tailMap(decodeCursor(query.getCursor()), false);
+        }
+        List<TodoItem> page = new ArrayList<>();
+        for (Entry entry : items.values()) {
+            if ((query.getCompleted() == null || entry.completed() == query.getCompleted())
+                    && (createdAfter == NONE || entry.createdAt() > createdAfter)) {
+                if (page.size() == limit) {
+                    return new TodoPage(page, encodeCursor(page.get(limit - 1)));
+                }
+                page.add(entry.toItem());
+            }
+        }
+        return new TodoPage(page, null);
+    }
+
+    @Override
+    public TodoItem getTodoById(String userEmail, String id) {
+        Owner owner = find(userEmail);
+        Entry entry = owner == null ? null : owner.items.get(todoId(id));
+        if (entry == null) {
+            throw new NotFoundException("Todo not found");
+        }
+        return entry.toItem();
+    }
+
+    @Override
+    public TodoItem createTodo(String userEmail, TodoItem todoItem) {
+        String title = todoItem.getTitle() != null ? todoItem.getTitle().trim() : "";
+        if (title.isEmpty()) {
+            throw new BadRequestException("Title is required and must be a non-empty string.");
+        }
+        Entry created;
+        long lsn;
+        synchronized (writeLock) {
+            Owner owner = ownerForWrite(userEmail);
+            created = new Entry(nextId, owner.id, title, false, nanos(OffsetDateTime.now()), NONE);
+            lsn = log.append(put(created));
+            nextId++;
+            owner.items.put(created.id(), created);
+        }
+        durable(lsn);
+        return created.toItem();
+    }
+
+    @Override
+    public TodoItem updateTodo(String userEmail, String id, TodoItem todoItem) {
+        int todoId = todoId(id);
+        String title = todoItem.getTitle() != null ? todoItem.getTitle().trim() : null;
+        if (title != null && title.isEmpty()) {
+            throw new BadRequestException("Title must be a non-empty string if provided.");
+        }
+        Entry updated;
+        long lsn;
+        synchronized (writeLock) {
+            Owner owner = find(userEmail);
+            Entry current = owner == null ? null : owner.items.get(todoId);
+            if (current == null) {
+                throw new NotFoundException("Todo not found");
+            }
+            updated = new Entry(todoId, owner.id, title != null ? title : current.title(), todoItem.isCompleted(),
+                    current.createdAt(), todoItem.isCompleted() ? nanos(OffsetDateTime.now()) : NONE);
+            lsn = log.append(put(updated));
+            owner.items.put(todoId, updated);
+        }
+        durable(lsn);
+        return updated.toItem();
+    }
+
+    @Override
+    public void deleteTodo(String userEmail, String id) {
+        int todoId = todoId(id);
+        long lsn;
+        synchronized (writeLock) {
+            Owner owner = find(userEmail);
+            if (owner == null || !owner.items.containsKey(todoId)) {
+                throw new NotFoundException("Todo not found");
+            }
+            lsn = log.append(ByteBuffer.allocate(1 + 4 + 4).put(DELETE).putInt(owner.id).putInt(todoId).array());
+            owner.items.remove(todoId);
+        }
+        durable(lsn);
+    }
+
+    @Override
+    public Map<String, List<TodoItem>> getAllTodos() {
+        Map<String, List<TodoItem>> todos = new HashMap<>();
+        for (Owner owner : byEmail.values()) {
+            List<TodoItem> items = new ArrayList<>(owner.items.size());
+            for (Entry entry : owner.items.values()) {
+                items.add(entry.toItem());
+            }
+            todos.put(owner.email, items);
+        }
+        return todos;
+    }
+
+    /**
+     * Writes a snapshot if enough changes were logged since the last one, then deletes the log
+     * segments it covers. Run by the ticker; a failure is logged, the log keeps everything.
+     */
+    void checkpoint() {
+        try {
+            long lsn;
+            synchronized (writeLock) {
+                if (log.lastLsn() - snapshotLsn < Math.max(1, snapshotMinRecords)) {
+                    return;
+                }
+                // Every record up to lsn is applied; the items are read after, without the lock
+                lsn = log.rotate();
+            }
+            Timer.Sample sample = Timer.start(registry);
+            Path temporary = directory.resolve(TodoSnapshot.fileName(lsn) + ".tmp");
+            TodoSnapshot.Summary summary = TodoSnapshot.write(temporary, lsn, byId.values(), this);
+            Path snapshot = Files.move(temporary, directory.resolve(TodoSnapshot.fileName(lsn)), StandardCopyOption.ATOMIC_MOVE);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    if (file.getFileName().toString().endsWith(TodoSnapshot.SUFFIX) && !file.equals(snapshot)) {
+                        Files.delete(file);
+                    }
+                }
+            }
+            log.deleteThrough(lsn);
+            synchronized (writeLock) {
+                snapshotLsn = lsn;
+            }
+            long nanos = sample.stop(registry.timer("todo.store.snapshots"));
+            LOG.infof("Wrote a snapshot of %d items at log record %d in %d ms", summary.items(), lsn,
+                    TimeUnit.NANOSECONDS.toMillis(nanos));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not write a snapshot of the todo store", e);
+        }
+    }
+
+    int nextId() {
+        synchronized (writeLock) {
+            return nextId;
+        }
+    }
+
+    private void durable(long lsn) {
+        try {
+            log.sync(lsn);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Todo store write failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Applies a log record during recovery.
+     */
+    private void apply(ByteBuffer record) {
+        byte kind = record.get();
+        if (kind == USER) {
+            int userId = record.getInt();
+            addUser(userId, string(record));
+        } else if (kind == PUT) {
+            Entry entry = new Entry(record.getInt(), record.getInt(), string(record), record.get() != 0,
+                    record.getLong(), record.getLong());
+            owner(entry.userId()).items.put(entry.id(), entry);
+            nextId = Math.max(nextId, entry.id() + 1);
+        } else if (kind == DELETE) {
+            int userId = record.getInt();
+            owner(userId).items.remove(record.getInt());
+        } else {
+            throw new IllegalStateException("Unknown todo store log record " + kind);
+        }
+    }
+
+    private static byte[] put(Entry entry) {
+        byte[] title = entry.title().getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(1 + 4 + 4 + 4 + title.length + 1 + 8 + 8)
+                .put(PUT).putInt(entry.id()).putInt(entry.userId()).putInt(title.length).put(title)
+                .put((byte) (entry.completed() ? 1 : 0)).putLong(entry.createdAt()).putLong(entry.completedAt())
+                .array();
+    }
+
+    private static String string(ByteBuffer record) {
+        byte[] bytes = new byte[record.getInt()];
+        record.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Owner find(String userEmail) {
+        if (userEmail == null) {
+            throw new WebApplicationException("Unauthorized: User email is missing.", 401);
+        }
+        return byEmail.get(userEmail);
+    }
+
+    /**
+     * Finds the user with the given email, creating it on first write like the backend does.
+     * Called under the write lock.
+     */
+    private Owner ownerForWrite(String userEmail) {
+        Owner owner = find(userEmail);
+        if (owner != null) {
+            return owner;
+        }
+        int userId = nextUserId;
+        byte[] email = userEmail.getBytes(StandardCharsets.UTF_8);
+        log.append(ByteBuffer.allocate(1 + 4 + 4 + email.length).put(USER).putInt(userId).putInt(email.length).put(email).array());
+        return addUser(userId, userEmail);
+    }
+
+    private Owner addUser(int userId, String email) {
+        Owner owner = owner(userId);
+        owner.email = email;
+        byEmail.put(email, owner);
+        nextUserId = Math.max(nextUserId, userId + 1);
+        return owner;
+    }
+
+    // Items may be read before their user: snapshots list the users last
+    private Owner owner(int userId) {
+        return byId.computeIfAbsent(userId, id -> new Owner(id, null));
+    }
+
+    /**
+     * IDs are serial integers; anything else cannot name an item of the user.
+     */
+    private static int todoId(String id) {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new NotFoundException("Todo not found");
+        }
+    }
+
+    static long nanos(OffsetDateTime time) {
+        return time == null ? NONE : time.toEpochSecond() * 1_000_000_000L + time.getNano();
+    }
+
+    static OffsetDateTime time(long nanos) {
+        if (nanos == NONE) {
+            return null;
+        }
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                Math.floorMod(nanos, 1_000_000_000L)), ZoneOffset.UTC);
+    }
+
+    private static String encodeCursor(TodoItem last) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(last.getId().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor.");
+        }
+    }
+}
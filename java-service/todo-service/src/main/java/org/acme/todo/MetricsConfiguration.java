@@ -0,0 +1,42 @@
+// src/main/java/org/acme/todo/MetricsConfiguration.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+
+/**
+ * Latency distributions of the HTTP server, the HTTP client and the backend calls.
+ * Each timer publishes its p50/p99/p999 as computed by this instance, and histogram buckets
+ * so that percentiles can also be aggregated across instances in Prometheus.
+ * The server timer is tagged by endpoint (uri, method) and status by Quarkus.
+ */
+@Singleton
+public class MetricsConfiguration {
+
+    static final List<String> LATENCY_TIMERS = List.of("http.server.requests", "http.client.requests", "todo.client.requests");
+
+    static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    @Produces
+    @Singleton
+    MeterFilter latencyPercentiles() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!LATENCY_TIMERS.contains(id.getName())) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentiles(PERCENTILES)
+                        .percentilesHistogram(true)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+// src/main/java/org/acme/todo/OrgInsights.java
+package org.acme.todo;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A DTO holding statistical insights about the todo items of all users of the organization.
+ */
+public class OrgInsights {
+
+    private final long users;
+    private final long totalTasks;
+    private final long completedTasks;
+    private final double completionRatio;
+    private final Map<String, Long> mostCommonWords;
+    private final TimeToComplete timeToComplete;
+
+    public OrgInsights(long users, long totalTasks, long completedTasks, double completionRatio,
+                       Map<String, Long> mostCommonWords, TimeToComplete timeToComplete) {
+        this.users = users;
+        this.totalTasks = totalTasks;
+        this.completedTasks = completedTasks;
+        this.completionRatio = completionRatio;
+        this.mostCommonWords = mostCommonWords;
+        this.timeToComplete = timeToComplete;
+    }
+
+    public long getUsers() {
+        return users;
+    }
+
+    public long getTotalTasks() {
+        return totalTasks;
+    }
+
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public double getCompletionRatio() {
+        return completionRatio;
+    }
+
+    public Map<String, Long> getMostCommonWords() {
+        return mostCommonWords;
+    }
+
+    public TimeToComplete getTimeToComplete() {
+        return timeToComplete;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OrgInsights)) {
+            return false;
+        }
+        OrgInsights that = (OrgInsights) o;
+        return users == that.users
+                && totalTasks == that.totalTasks
+                && completedTasks == that.completedTasks
+                && Double.compare(completionRatio, that.completionRatio) == 0
+                && Objects.equals(mostCommonWords, that.mostCommonWords)
+                && Objects.equals(timeToComplete, that.timeToComplete);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(users, totalTasks, completedTasks, completionRatio, mostCommonWords, timeToComplete);
+    }
+
+    /**
+     * Seconds from createdAt to completedAt of the completed items that have both.
+     * Percentiles are upper bounds of histogram buckets, at most 12.5% above the exact value.
+     */
+    public static class TimeToComplete {
+
+        private final long count;
+        private final double meanSeconds;
+        private final long minSeconds;
+        private final long maxSeconds;
+        private final long p50Seconds;
+        private final long p90Seconds;
+        private final long p99Seconds;
+
+        public TimeToComplete(long count, double meanSeconds, long minSeconds, long maxSeconds,
+                              long p50Seconds, long p90Seconds, long p99Seconds) {
+            this.count = count;
+            this.meanSeconds = meanSeconds;
+            this.minSeconds = minSeconds;
+            this.maxSeconds = maxSeconds;
+            this.p50Seconds = p50Seconds;
+            this.p90Seconds = p90Seconds;
+            this.p99Seconds = p99Seconds;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMeanSeconds() {
+            return meanSeconds;
+        }
+
+        public long getMinSeconds() {
+            return minSeconds;
+        }
+
+        public long getMaxSeconds() {
+            return maxSeconds;
+        }
+
+        public long getP50Seconds() {
+            return p50Seconds;
+        }
+
+        public long getP90Seconds() {
+            return p90Seconds;
+        }
+
+        public long getP99Seconds() {
+            return p99Seconds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimeToComplete)) {
+                return false;
+            }
+            TimeToComplete that = (TimeToComplete) o;
+            return count == that.count
+                    && Double.compare(meanSeconds, that.meanSeconds) == 0
+                    && minSeconds == that.minSeconds
+                    && maxSeconds == that.maxSeconds
+                    && p50Seconds == that.p50Seconds
+                    && p90Seconds == that.p90Seconds
+                    && p99Seconds == that.p99Seconds;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(count, meanSeconds, minSeconds, maxSeconds, p50Seconds, p90Seconds, p99Seconds);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+// src/main/java/org/acme/todo/OrgInsightsAggregate.java
+package org.acme.todo;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Partial OrgInsights over some of the users of the organization.
+ * Partials are built per user and combined with merge, which is associative and commutative:
+ * counts and sums add up, minimum and maximum carry over, word counts and the time-to-complete
+ * histogram are added slot by slot. So the users can be split up any way and aggregated in
+ * parallel (see compute), and the result is the same as a single pass over all of them.
+ * Instances are not thread-safe; a partial belongs to one task until it is merged.
+ */
+public final class OrgInsightsAggregate {
+
+    /** Number of words reported in OrgInsights.mostCommonWords. */
+    static final int TOP_WORDS = 10;
+
+    /** A fork-join task aggregates its users sequentially once they hold at most this many items. */
+    static final int LEAF_ITEMS = 8192;
+
+    // Time-to-complete histogram: exact below 2^SUB_BITS seconds, then 2^SUB_BITS buckets per power of two
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private long users;
+    private long totalTasks;
+    private long completedTasks;
+    private WordCounter wordCounts = new WordCounter();
+
+    private long completions;
+    private long completionSeconds;
+    private long fastestCompletion = Long.MAX_VALUE;
+    private long slowestCompletion;
+    private final long[] completionHistogram = new long[BUCKETS];
+
+    private final TitleTokenizer tokenizer = new TitleTokenizer();
+    private final TitleTokenizer.WordSink countWord = (chars, length) -> wordCounts.increment(chars, length);
+
+    /**
+     * Builds the partial of a single user.
+     * @param todos The todo items of the user.
+     * @return The partial of that user.
+     */
+    public static OrgInsightsAggregate of(List<TodoItem> todos) {
+        OrgInsightsAggregate aggregate = new OrgInsightsAggregate();
+        aggregate.addUser(todos);
+        return aggregate;
+    }
+
+    /**
+     * Aggregates the todo lists of all users in parallel: the users are split into two halves of
+     * about the same number of items until a half holds at most LEAF_ITEMS items or a single user,
+     * each half is aggregated as its own task, and the partials of both halves are merged.
+     * @param todosPerUser The todo items of every user, one list per user.
+     * @param pool The pool running the tasks.
+     * @return The insights of the whole organization.
+     */
+    public static OrgInsights compute(List<List<TodoItem>> todosPerUser, ForkJoinPool pool) {
+        // offsets[i] is the number of items of the users before user i, so a range is sized in O(1)
+        long[] offsets = new long[todosPerUser.size() + 1];
+        for (int i = 0; i < todosPerUser.size(); i++) {
+            offsets[i + 1] = offsets[i] + todosPerUser.get(i).size();
+        }
+        return pool.invoke(new Task(todosPerUser, offsets, 0, todosPerUser.size())).snapshot();
+    }
+
+    /**
+     * Accounts for one more user and all of their todo items.
+     */
+    public void addUser(List<TodoItem> todos) {
+        users++;
+        for (TodoItem todo : todos) {
+            add(todo);
+        }
+    }
+
+    private void add(TodoItem todo) {
+        totalTasks++;
+        tokenizer.tokenize(todo.getTitle(), countWord);
+        if (!todo.isCompleted()) {
+            return;
+        }
+        completedTasks++;
+        if (todo.getCreatedAt() != null && todo.getCompletedAt() != null) {
+            // Clock skew between writers can put completedAt a little before createdAt
+            long seconds = Math.max(0, Duration.between(todo.getCreatedAt(), todo.getCompletedAt()).getSeconds());
+            completions++;
+            completionSeconds += seconds;
+            fastestCompletion = Math.min(fastestCompletion, seconds);
+            slowestCompletion = Math.max(slowestCompletion, seconds);
+            completionHistogram[bucket(seconds)]++;
+        }
+    }
+
+    /**
+     * Adds another partial to this one. The other partial must not be used afterwards.
+     * @return This partial, now covering the users of both.
+     */
+    public OrgInsightsAggregate merge(OrgInsightsAggregate other) {
+        users += other.users;
+        totalTasks += other.totalTasks;
+        completedTasks += other.completedTasks;
+        // Probe the larger table with the words of the smaller one
+        if (other.wordCounts.size() > wordCounts.size()) {
+            other.wordCounts.addAll(wordCounts);
+            wordCounts = other.wordCounts;
+        } else {
+            wordCounts.addAll(other.wordCounts);
+        }
+        completions += other.completions;
+        completionSeconds += other.completionSeconds;
+        fastestCompletion = Math.min(fastestCompletion, other.fastestCompletion);
+        slowestCompletion = Math.max(slowestCompletion, other.slowestCompletion);
+        for (int i = 0; i < BUCKETS; i++) {
+            completionHistogram[i] += other.completionHistogram[i];
+        }
+        return this;
+    }
+
+    /**
+     * @return The insights of the users aggregated so far.
+     */
+    public OrgInsights snapshot() {
+        double completionRatio = totalTasks == 0 ? 0.0 : (double) completedTasks / totalTasks;
+        Map<String, Long> topWords = wordCounts.top(TOP_WORDS);
+        return new OrgInsights(users, totalTasks, completedTasks, completionRatio, topWords, timeToComplete());
+    }
+
+    private OrgInsights.TimeToComplete timeToComplete() {
+        if (completions == 0) {
+            return new OrgInsights.TimeToComplete(0, 0.0, 0, 0, 0, 0, 0);
+        }
+        return new OrgInsights.TimeToComplete(completions, (double) completionSeconds / completions,
+                fastestCompletion, slowestCompletion, percentile(0.5), percentile(0.9), percentile(0.99));
+    }
+
+    /**
+     * The upper bound of the histogram bucket holding the given percentile, within the observed range.
+     */
+    private long percentile(double quantile) {
+        long rank = (long) Math.ceil(quantile * completions);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += completionHistogram[i];
+            if (seen >= rank && completionHistogram[i] > 0) {
+                return Math.max(fastestCompletion, Math.min(slowestCompletion, upperBound(i)));
+            }
+        }
+        return slowestCompletion;
+    }
+
+    static int bucket(long seconds) {
+        if (seconds < SUB_BUCKETS) {
+            return (int) seconds;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(seconds);
+        int sub = (int) (seconds >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long next = (long) (SUB_BUCKETS + sub + 1) << shift;
+        // The last bucket ends at Long.MAX_VALUE, where 'next' wraps around
+        return next > 0 ? next - 1 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Aggregates the users in [from, to) of the list, splitting the range while it is large.
+     */
+    private static final class Task extends RecursiveTask<OrgInsightsAggregate> {
+
+        private final List<List<TodoItem>> todosPerUser;
+        private final long[] offsets;
+        private final int from;
+        private final int to;
+
+        Task(List<List<TodoItem>> todosPerUser, long[] offsets, int from, int to) {
+            this.todosPerUser = todosPerUser;
+            this.offsets = offsets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected OrgInsightsAggregate compute() {
+            if (to - from <= 1 || offsets[to] - offsets[from] <= LEAF_ITEMS) {
+                OrgInsightsAggregate aggregate = new OrgInsightsAggregate();
+                for (int i = from; i < to; i++) {
+                    aggregate.addUser(todosPerUser.get(i));
+                }
+                return aggregate;
+            }
+            // Split where the items, not the users, are halved, so one large user does not unbalance the tree
+            int middle = Arrays.binarySearch(offsets, from + 1, to, (offsets[from] + offsets[to]) >>> 1);
+            middle = Math.min(Math.max(middle < 0 ? -middle - 1 : middle, from + 1), to - 1);
+            Task left = new Task(todosPerUser, offsets, from, middle);
+            left.fork();
+            OrgInsightsAggregate right = new Task(todosPerUser, offsets, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
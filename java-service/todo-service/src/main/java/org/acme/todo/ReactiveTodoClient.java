@@ -0,0 +1,144 @@
+// src/main/java/org/acme/todo/ReactiveTodoClient.java
+package org.acme.todo;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
+import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+
+import java.util.List;
+
+/**
+ * Non-blocking variant of the TodoClient, used when 'todo.pipeline=reactive'.
+ * It talks to the same external Todo API (same 'todo-api' configKey), but every call
+ * returns a Uni that completes on the event loop instead of holding a worker thread.
+ * Its Uni methods have the same fault tolerance policies as the TodoClient, with their own state.
+ * The policies are declared per method as they do not apply to exportTodos: SmallRye Fault
+ * Tolerance does not treat a Multi as asynchronous, so they would only guard building it.
+ * The export stream is guarded by ReactiveTodoService instead, see 'todo.export.idle-timeout'.
+ */
+@RegisterRestClient(configKey = "todo-api")
+@BackendCall
+@RegisterProvider(BackendExceptionMapper.class)
+@RegisterProvider(BackendHttpClientOptions.class)
+@Path("/todos")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public interface ReactiveTodoClient {
+
+    /**
+     * Fetches all todo items of a user from the external API.
+     * @param userEmail The email of the user.
+     * @return A Uni emitting the list of TodoItem objects.
+     */
+    @GET
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(3000)
+    Uni<List<TodoItem>> getTodos(@HeaderParam("X-User-Email") String userEmail);
+
+    /**
+     * Fetches one page of a user's todo items, filtered and ordered by the backend's keyset query.
+     * Parameters left null are not sent.
+     * @param userEmail The email of the user.
+     * @return The page, with the cursor of the next page in the 'X-Next-Cursor' header.
+     */
+    @GET
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(3000)
+    Uni<RestResponse<List<TodoItem>>> getTodoPage(@HeaderParam("X-User-Email") String userEmail,
+                                                  @QueryParam("limit") Integer limit,
+                                                  @QueryParam("cursor") String cursor,
+                                                  @QueryParam("completed") Boolean completed,
+                                                  @QueryParam("createdAfter") String createdAfter);
+
+    /**
+     * Streams all todo items of a user from the external API's NDJSON export.
+     * Each line is deserialized and emitted as it arrives, so the list is never held in memory.
+     * No fault tolerance policy applies; the caller bounds how long the stream may stall.
+     * @param userEmail The email of the user.
+     * @return A Multi emitting the TodoItem objects, newest first.
+     */
+    @GET
+    @Path("/export")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    Multi<TodoItem> exportTodos(@HeaderParam("X-User-Email") String userEmail);
+
+    /**
+     * Fetches a single todo item by its ID from the external API.
+     * @param userEmail The email of the user.
+     * @param id The ID of the todo item.
+     * @return A Uni emitting the TodoItem object.
+     */
+    @GET
+    @Path("/{id}")
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(2000)
+    Uni<TodoItem> getTodoById(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id);
+
+    /**
+     * Creates a new todo item on the external API.
+     * @param userEmail The email of the user.
+     * @param todoItem The TodoItem object to create.
+     * @return A Uni emitting the created TodoItem object.
+     */
+    @POST
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(5000)
+    Uni<TodoItem> createTodo(@HeaderParam("X-User-Email") String userEmail, TodoItem todoItem);
+
+    /**
+     * Updates an existing todo item on the external API.
+     * @param userEmail The email of the user.
+     * @param id The ID of the todo item to update.
+     * @param todoItem The updated TodoItem object.
+     * @return A Uni emitting the updated TodoItem object.
+     */
+    @PUT
+    @Path("/{id}")
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(5000)
+    Uni<TodoItem> updateTodo(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id, TodoItem todoItem);
+
+    /**
+     * Deletes a todo item by its ID from the external API.
+     * @param userEmail The email of the user.
+     * @param id The ID of the todo item to delete.
+     * @return A Uni completing once the item is deleted.
+     */
+    @DELETE
+    @Path("/{id}")
+    @Bulkhead(64)
+    @CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+            skipOn = ClientErrorException.class)
+    @Timeout(5000)
+    Uni<Void> deleteTodo(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id);
+}
@@ -0,0 +1,283 @@
+// src/main/java/org/acme/todo/ReactiveTodoService.java
+package org.acme.todo;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of the TodoService, used when 'todo.pipeline=reactive'.
+ * It shares the TodoCache with the blocking service and reports missing items with the same
+ * NotFoundException messages, so both pipelines behave identically from the outside.
+ * Backend reads go through the same SingleFlight, so they also coalesce across pipelines.
+ * Updates buffered by the WriteBehindBuffer of the blocking pipeline are flushed before any call
+ * but a create reaches the backend, as the TodoService does.
+ * With 'todo.store=rest' the backend is called with the ReactiveTodoClient. Any other store is
+ * called like the TodoService calls it, on the worker pool as its calls block, so both pipelines
+ * always read and write the same items.
+ */
+@ApplicationScoped
+public class ReactiveTodoService {
+
+    @Inject
+    @RestClient
+    ReactiveTodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    TodoEvents events;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    BackendMetrics metrics;
+
+    @Inject
+    InsightsRefresher insightsRefresher;
+
+    @Inject
+    ChangeLog changeLog;
+
+    @Inject
+    WriteBehindBuffer writeBehind;
+
+    @Inject
+    Instance<TodoStore> stores;
+
+    // Longest wait for the next item of the backend's export before the stream fails
+    @ConfigProperty(name = "todo.export.idle-timeout", defaultValue = "3s")
+    Duration exportIdleTimeout = Duration.ofSeconds(3);
+
+    @ConfigProperty(name = "todo.store", defaultValue = "rest")
+    String storeName = "rest";
+
+    // The blocking store, or null when the backend is reached with the ReactiveTodoClient
+    TodoStore todoStore;
+
+    @PostConstruct
+    void selectStore() {
+        if (todoStore == null && !"rest".equals(storeName)) {
+            todoStore = stores.get();
+        }
+    }
+
+    /**
+     * Retrieves all todo items for a specific user.
+     * Falls back to the last known list while the backend is unavailable.
+     * @param userEmail The email of the user provided by the IAP header.
+     * @return A Uni emitting the list of TodoItem objects.
+     */
+    public Uni<List<TodoItem>> findAllTodos(String userEmail) {
+        return todoCache.getAsync(userEmail, this::loadTodos)
+                .onFailure().recoverWithUni(e -> lastKnown("get-all", todoCache.lastKnown(userEmail), e));
+    }
+
+    /**
+     * Retrieves one page of a user's todo items, filtered by the store.
+     * @param userEmail The email of the user.
+     * @param query The pagination and filters; must not ask for the full list.
+     * @return A Uni emitting the page, or failing with BadRequestException if the store rejects the cursor.
+     */
+    public Uni<TodoPage> findTodos(String userEmail, TodoQuery query) {
+        return writeBehind.flushAsync(userEmail)
+                .chain(() -> todoStore != null
+                        ? blocking(() -> todoStore.getTodoPage(userEmail, query))
+                        : todoClient.getTodoPage(userEmail, query.getLimit(), query.getCursor(), query.getCompleted(), query.getCreatedAfter())
+                                .map(page -> new TodoPage(page.getEntity(), page.getHeaderString(TodoPage.NEXT_CURSOR_HEADER))))
+                .onFailure(ReactiveTodoService::isBadRequest)
+                .transform(e -> new BadRequestException("Invalid cursor."));
+    }
+
+    /**
+     * Streams all todo items of a specific user straight from the backend's export.
+     * Bypasses the TodoCache: the point is to never hold the full list in memory. Other stores
+     * have no export, so their list is read at once and then streamed.
+     * The backend's export is not covered by the ReactiveTodoClient's fault tolerance policies; it
+     * fails with a TimeoutException once no item arrived for 'todo.export.idle-timeout'.
+     * @param userEmail The email of the user.
+     * @return A Multi emitting the TodoItem objects, newest first.
+     */
+    public Multi<TodoItem> exportTodos(String userEmail) {
+        return writeBehind.flushAsync(userEmail).onItem().transformToMulti(ignored -> todoStore != null
+                ? blocking(() -> todoStore.getTodos(userEmail)).onItem().transformToMulti(Multi.createFrom()::iterable)
+                : todoClient.exportTodos(userEmail).ifNoItem().after(exportIdleTimeout).fail());
+    }
+
+    /**
+     * Returns the changes of a user's todo items since a version, see {@link TodoService#findChanges}.
+     * @param userEmail The email of the user.
+     * @param since The version of the client's last sync, or null.
+     * @return A Uni emitting a TodoChanges object.
+     */
+    public Uni<TodoChanges> findChanges(String userEmail, String since) {
+        insightsRefresher.touch(userEmail);
+        return findAllTodos(userEmail).chain(() -> {
+            ChangeLog.Delta delta = changeLog.since(userEmail, since);
+            if (delta != null) {
+                return Uni.createFrom().item(TodoChanges.delta(changeLog.version(delta.version()), delta.changes()));
+            }
+            String version = changeLog.version(changeLog.track(userEmail));
+            return findAllTodos(userEmail).map(all -> TodoChanges.snapshot(version, all));
+        });
+    }
+
+    /**
+     * Searches the titles of a user's todo items, see {@link TodoService#searchTodos}.
+     * @param userEmail The email of the user.
+     * @param query The words to look for.
+     * @param limit The most items to return.
+     * @return A Uni emitting the matching items, best first.
+     */
+    public Uni<List<TodoItem>> searchTodos(String userEmail, String query, int limit) {
+        return todoCache.searchAsync(userEmail, query, limit, this::loadTodos)
+                .onFailure().recoverWithUni(e -> lastKnown("search", todoCache.lastKnownSearch(userEmail, query, limit), e));
+    }
+
+    /**
+     * Retrieves a single todo item by its ID for a specific user.
+     * @param userEmail The email of the user.
+     * @param todoId The ID of the todo item.
+     * @return A Uni emitting the TodoItem object, or failing with NotFoundException.
+     */
+    public Uni<TodoItem> findTodoById(String userEmail, String todoId) {
+        return writeBehind.flushAsync(userEmail)
+                .chain(() -> singleFlight.executeAsync(SingleFlight.GET_TODO_BY_ID, userEmail, todoId,
+                        () -> todoStore != null
+                                ? blocking(() -> todoStore.getTodoById(userEmail, todoId))
+                                : todoClient.getTodoById(userEmail, todoId)))
+                .onFailure(TodoService::isNotFound)
+                .transform(e -> metrics.notFound("get-by-id", "Todo item with ID " + todoId + " not found."));
+    }
+
+    /**
+     * Creates a new todo item for a specific user.
+     * @param userEmail The email of the user creating the todo.
+     * @param todoItem The TodoItem object to create.
+     * @return A Uni emitting the created TodoItem object.
+     */
+    public Uni<TodoItem> createTodo(String userEmail, TodoItem todoItem) {
+        if (todoItem.getId() == null || todoItem.getId().isEmpty()) {
+            todoItem.setId(UUID.randomUUID().toString()); // Assign a unique ID if not provided
+        }
+        Uni<TodoItem> created = todoStore != null
+                ? blocking(() -> todoStore.createTodo(userEmail, todoItem))
+                : todoClient.createTodo(userEmail, todoItem);
+        return created
+                .invoke(createdTodo -> {
+                    singleFlight.forget(userEmail);
+                    todoCache.itemCreated(userEmail, createdTodo);
+                    events.created(userEmail, createdTodo);
+                });
+    }
+
+    /**
+     * Updates an existing todo item.
+     * @param userEmail The email of the user.
+     * @param todoId The ID of the todo item to update.
+     * @param todoItem The updated TodoItem object.
+     * @return A Uni emitting the updated TodoItem object, or failing with NotFoundException.
+     */
+    public Uni<TodoItem> updateTodo(String userEmail, String todoId, TodoItem todoItem) {
+        todoItem.setId(todoId); // The path ID always wins, as in the blocking service
+        return writeBehind.flushAsync(userEmail)
+                .chain(() -> todoStore != null
+                        ? blocking(() -> todoStore.updateTodo(userEmail, todoId, todoItem))
+                        : todoClient.updateTodo(userEmail, todoId, todoItem))
+                .invoke(updatedTodo -> {
+                    singleFlight.forget(userEmail);
+                    todoCache.itemUpdated(userEmail, updatedTodo);
+                    events.updated(userEmail, updatedTodo);
+                })
+                .onFailure(TodoService::isNotFound)
+                .transform(e -> metrics.notFound("update", "Todo item with ID " + todoId + " not found for update."));
+    }
+
+    /**
+     * Deletes a todo item by its ID.
+     * @param userEmail The email of the user.
+     * @param todoId The ID of the todo item to delete.
+     * @return A Uni completing once deleted, or failing with NotFoundException.
+     */
+    public Uni<Void> deleteTodo(String userEmail, String todoId) {
+        return writeBehind.flushAsync(userEmail)
+                .chain(() -> todoStore != null
+                        ? blocking(() -> {
+                            todoStore.deleteTodo(userEmail, todoId);
+                            return null;
+                        })
+                        : todoClient.deleteTodo(userEmail, todoId))
+                .invoke(() -> {
+                    singleFlight.forget(userEmail);
+                    todoCache.itemDeleted(userEmail, todoId);
+                    events.deleted(userEmail, todoId);
+                })
+                .onFailure(TodoService::isNotFound)
+                .transform(e -> metrics.notFound("delete", "Todo item with ID " + todoId + " not found for deletion."));
+    }
+
+    /**
+     * Returns insights about the todo list of a specific user, from the maintained aggregate.
+     * The user's list is then kept fresh in the background by the InsightsRefresher.
+     * Falls back to the last known insights while the backend is unavailable.
+     * @param userEmail The email of the user.
+     * @return A Uni emitting a TodoInsights object containing statistics.
+     */
+    public Uni<TodoInsights> getInsights(String userEmail) {
+        insightsRefresher.touch(userEmail);
+        return todoCache.insightsAsync(userEmail, this::loadTodos)
+                .onFailure().recoverWithUni(e -> lastKnown("get-insights", todoCache.lastKnownInsights(userEmail), e));
+    }
+
+    /**
+     * Answers a read with the last known data if the backend call was rejected by the
+     * ReactiveTodoClient's fault tolerance policies, e.g. while its circuit breaker is open.
+     */
+    private <T> Uni<T> lastKnown(String operation, T lastKnown, Throwable failure) {
+        if (lastKnown == null || BackendMetrics.rejection(failure) == null) {
+            return Uni.createFrom().failure(failure);
+        }
+        metrics.stale(operation);
+        return Uni.createFrom().item(lastKnown);
+    }
+
+    private Uni<List<TodoItem>> loadTodos(String userEmail) {
+        return writeBehind.flushAsync(userEmail).chain(() -> singleFlight.executeAsync(SingleFlight.GET_TODOS, userEmail, null, () -> {
+            long loadedAfter = changeLog.current();
+            Uni<List<TodoItem>> load = todoStore != null
+                    ? blocking(() -> todoStore.getTodos(userEmail))
+                    : todoClient.getTodos(userEmail);
+            return load
+                    .invoke(loaded -> events.reloaded(userEmail, todoCache.lastKnown(userEmail), loaded, loadedAfter));
+        }));
+    }
+
+    /**
+     * Calls the blocking store on the worker pool, keeping the event loop free.
+     */
+    private static <T> Uni<T> blocking(Supplier<T> call) {
+        return Uni.createFrom().item(call).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static boolean isBadRequest(Throwable failure) {
+        return failure instanceof WebApplicationException e
+                && e.getResponse() != null
+                && e.getResponse().getStatus() == 400;
+    }
+}
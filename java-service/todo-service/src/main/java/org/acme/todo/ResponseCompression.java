@@ -0,0 +1,259 @@
+// src/main/java/org/acme/todo/ResponseCompression.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.core.Context;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NameBinding;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.resteasy.reactive.server.ServerResponseFilter;
+import org.reactivestreams.Publisher;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses the JSON and Smile entities of TodoResource responses with gzip or deflate, as
+ * negotiated by Accept-Encoding, once they are at least 'todo.compression.threshold' bytes.
+ * Only resources annotated with {@link Compressible} are filtered. Smaller entities, responses
+ * without entity (e.g. 304) and streamed responses are sent as they are.
+ * When the client accepts neither encoding the entity is left to its MessageBodyWriter untouched.
+ * Otherwise it is serialized here, once and with the same mapper, so its size is known, and the
+ * bytes are sent in its place. Compression itself never runs on the event loop: responses of the
+ * reactive pipeline are handed to the worker pool for it.
+ * Quarkus' own compression ('quarkus.http.enable-compression') is not used, as it has no size
+ * threshold and compresses on the event loop.
+ * A compressed response's ETag gets the encoding appended, so each content coding has its own
+ * strong validator (see ConditionalGet).
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.compression.size: serialized size of the entities that could be compressed, for choosing the threshold.
+ * - todo.compression.responses{encoding}: responses sent per encoding, 'identity' when not compressed.
+ * - todo.compression.ratio{encoding}: compressed size divided by the serialized size.
+ * - todo.compression.cpu-time{encoding}: CPU time spent compressing a response.
+ */
+@ApplicationScoped
+public class ResponseCompression {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final Uni<Void> DONE = Uni.createFrom().voidItem();
+
+    /** The content codings this filter produces. */
+    static final List<String> ENCODINGS = List.of("gzip", "deflate");
+
+    @ConfigProperty(name = "todo.compression.enabled", defaultValue = "true")
+    boolean enabled = true;
+
+    @ConfigProperty(name = "todo.compression.threshold", defaultValue = "1024")
+    int threshold = 1024;
+
+    @ConfigProperty(name = "todo.compression.level", defaultValue = "6")
+    int level = 6;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    MeterRegistry registry;
+
+    /**
+     * Binds the filter to the resources whose responses it compresses.
+     */
+    @NameBinding
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    public @interface Compressible {
+    }
+
+    @ServerResponseFilter
+    @Compressible
+    public Uni<Void> compress(ContainerRequestContext request, ContainerResponseContext response) {
+        if (!enabled || !response.hasEntity() || response.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return DONE;
+        }
+        Object body = response.getEntity();
+        if (body instanceof String || body instanceof byte[] || body instanceof Publisher<?>) {
+            return DONE;
+        }
+        MediaType type = response.getMediaType();
+        if (type == null) {
+            // Entities returned as such are negotiated when written, the way TodoResource does for its ETags
+            type = TodoResource.responseType(request.getHeaderString(HttpHeaders.ACCEPT));
+        }
+        ObjectMapper mapper = mapper(type);
+        if (mapper == null) {
+            return DONE;
+        }
+        // Large entities are sent compressed to the clients accepting it
+        String vary = response.getHeaderString(HttpHeaders.VARY);
+        response.getHeaders().putSingle(HttpHeaders.VARY,
+                vary == null ? HttpHeaders.ACCEPT_ENCODING : vary + ", " + HttpHeaders.ACCEPT_ENCODING);
+        String encoding = encoding(request.getHeaderString(HttpHeaders.ACCEPT_ENCODING));
+        if (encoding == null) {
+            registry.counter("todo.compression.responses", "encoding", "identity").increment();
+            return DONE;
+        }
+        byte[] entity;
+        try {
+            entity = mapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size().record(entity.length);
+        if (entity.length < threshold) {
+            send(response, entity, type, "identity");
+            return DONE;
+        }
+        MediaType serialized = type;
+        if (Context.isOnEventLoopThread()) {
+            return Uni.createFrom().item(() -> compress(response, entity, serialized, encoding))
+                    .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                    .replaceWithVoid();
+        }
+        compress(response, entity, type, encoding);
+        return DONE;
+    }
+
+    private ContainerResponseContext compress(ContainerResponseContext response, byte[] entity, MediaType type, String encoding) {
+        long cpu = cpuTime();
+        long wall = System.nanoTime();
+        byte[] compressed = encode(entity, encoding);
+        long elapsed = cpu >= 0 ? cpuTime() - cpu : System.nanoTime() - wall;
+        registry.timer("todo.compression.cpu-time", "encoding", encoding).record(elapsed, TimeUnit.NANOSECONDS);
+        registry.summary("todo.compression.ratio", "encoding", encoding).record((double) compressed.length / entity.length);
+        response.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+        EntityTag tag = response.getEntityTag();
+        if (tag != null) {
+            // A strong validator differs between content codings, see ConditionalGet
+            response.getHeaders().putSingle(HttpHeaders.ETAG, ConditionalGet.encoded(tag, encoding));
+        }
+        return send(response, compressed, type, encoding);
+    }
+
+    private ContainerResponseContext send(ContainerResponseContext response, byte[] entity, MediaType type, String encoding) {
+        registry.counter("todo.compression.responses", "encoding", encoding).increment();
+        response.setEntity(entity, response.getEntityAnnotations(), type);
+        return response;
+    }
+
+    private byte[] encode(byte[] entity, String encoding) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(entity.length / 4);
+        try (OutputStream out = encoding.equals("gzip") ? new LeveledGzip(buffer, level) : new LeveledDeflate(buffer, level)) {
+            out.write(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private ObjectMapper mapper(MediaType type) {
+        if (type.isCompatible(MediaType.APPLICATION_JSON_TYPE)) {
+            return objectMapper;
+        }
+        return type.isCompatible(SmileMessageBodyHandler.APPLICATION_SMILE_TYPE) ? SmileMessageBodyHandler.MAPPER : null;
+    }
+
+    private DistributionSummary size() {
+        return DistributionSummary.builder("todo.compression.size")
+                .baseUnit("bytes")
+                .publishPercentiles(0.5, 0.9, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * The preferred of gzip and deflate in an Accept-Encoding header, gzip on a tie.
+     * @return The encoding, or null if the client accepts neither.
+     */
+    static String encoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        double gzip = 0;
+        double deflate = 0;
+        double any = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            switch (name) {
+                case "gzip", "x-gzip" -> gzip = quality;
+                case "deflate" -> deflate = quality;
+                case "*" -> any = quality;
+                default -> {
+                }
+            }
+        }
+        if (!acceptEncoding.toLowerCase().contains("gzip")) {
+            gzip = any;
+        }
+        if (gzip > 0 && gzip >= deflate) {
+            return "gzip";
+        }
+        return deflate > 0 ? "deflate" : null;
+    }
+
+    private static long cpuTime() {
+        // -1 on virtual threads, where the wall clock is used instead
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static final class LeveledGzip extends GZIPOutputStream {
+
+        LeveledGzip(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+
+    /**
+     * The zlib format, which is what HTTP calls deflate.
+     */
+    private static final class LeveledDeflate extends DeflaterOutputStream {
+
+        LeveledDeflate(OutputStream out, int level) {
+            super(out, new Deflater(level));
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+}
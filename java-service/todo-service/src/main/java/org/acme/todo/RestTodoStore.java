@@ -0,0 +1,75 @@
+// src/main/java/org/acme/todo/RestTodoStore.java
+package org.acme.todo;
+
+import io.quarkus.arc.lookup.LookupIfProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TodoStore backed by the Node.js backend, reached through the TodoClient.
+ * This is the default store ('todo.store=rest').
+ * The backend only serves the items of the calling user, so getAllTodos is not supported.
+ */
+@ApplicationScoped
+@LookupIfProperty(name = "todo.store", stringValue = "rest", lookupIfMissing = true)
+public class RestTodoStore implements TodoStore {
+
+    @Inject
+    @RestClient
+    TodoClient todoClient;
+
+    public RestTodoStore() {
+    }
+
+    RestTodoStore(TodoClient todoClient) {
+        this.todoClient = todoClient;
+    }
+
+    @Override
+    public List<TodoItem> getTodos(String userEmail) {
+        return todoClient.getTodos(userEmail);
+    }
+
+    @Override
+    public TodoPage getTodoPage(String userEmail, TodoQuery query) {
+        RestResponse<List<TodoItem>> page = todoClient.getTodoPage(userEmail,
+                query.getLimit(), query.getCursor(), query.getCompleted(), query.getCreatedAfter());
+        return new TodoPage(page.getEntity(), page.getHeaderString(TodoPage.NEXT_CURSOR_HEADER));
+    }
+
+    @Override
+    public TodoItem getTodoById(String userEmail, String id) {
+        return todoClient.getTodoById(userEmail, id);
+    }
+
+    @Override
+    public TodoItem createTodo(String userEmail, TodoItem todoItem) {
+        return todoClient.createTodo(userEmail, todoItem);
+    }
+
+    @Override
+    public TodoItem updateTodo(String userEmail, String id, TodoItem todoItem) {
+        return todoClient.updateTodo(userEmail, id, todoItem);
+    }
+
+    @Override
+    public void deleteTodo(String userEmail, String id) {
+        todoClient.deleteTodo(userEmail, id);
+    }
+
+    @Override
+    public boolean readsAllTodos() {
+        return false;
+    }
+
+    @Override
+    public Map<String, List<TodoItem>> getAllTodos() {
+        throw new WebApplicationException("Reading the todos of all users needs todo.store=jdbc or memory.", 501);
+    }
+}
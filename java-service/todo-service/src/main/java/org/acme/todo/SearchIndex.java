@@ -0,0 +1,390 @@
+// src/main/java/org/acme/todo/SearchIndex.java
+package org.acme.todo;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Incrementally maintained inverted index over the titles of one user's todo list, behind
+ * GET /todos/search. Titles are split by the TitleTokenizer, so the indexed words are the ones
+ * the insights count, stop words excluded.
+ * A query matches the items holding every one of its words, each word also matching the indexed
+ * words it is a prefix of ("wat" finds "water"). Matches are ranked with BM25's idf of each query
+ * word and the frequency of the word in the title (without length normalization, titles are
+ * short), a prefix match weighing half an exact one; ties keep the list's order, newest first.
+ * Like InsightsAggregate, creates, updates and deletes are applied as deltas. A removed item
+ * only leaves a tombstone in the postings, which are compacted once tombstones outnumber the
+ * items, so an edit does not walk the postings of its words.
+ */
+public class SearchIndex {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final float K1 = 1.2f;
+    private static final float PREFIX_WEIGHT = 0.5f;
+    private static final int MIN_COMPACTION = 1024;
+
+    // Sorted, so the words starting with a prefix are a range
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> docsById = new HashMap<>();
+
+    // Per document number, in order of addition; null once removed
+    private TodoItem[] docs = new TodoItem[16];
+    private long[] order = new long[16];
+    private int nextDoc;
+    private int size;
+    private long clock;
+
+    // Scratch of the query being run: the last query word each document matched, and its scores
+    private int[] seen = new int[16];
+    private float[] best = new float[16];
+    private float[] scores = new float[16];
+    private int[] candidates = new int[16];
+    private int[] heap = new int[DEFAULT_LIMIT];
+    private int marks;
+
+    private final TitleTokenizer tokenizer = new TitleTokenizer();
+
+    /**
+     * Builds the index of a full todo list.
+     * @param todos The todo items of a user, newest first.
+     * @return The index of those items.
+     */
+    public static SearchIndex of(List<TodoItem> todos) {
+        SearchIndex index = new SearchIndex();
+        // Added oldest first, so the list's order is the order of addition
+        for (int i = todos.size() - 1; i >= 0; i--) {
+            index.add(todos.get(i));
+        }
+        return index;
+    }
+
+    /**
+     * Parses the 'limit' query parameter of GET /todos/search.
+     * @throws BadRequestException if it is not an integer between 1 and MAX_LIMIT.
+     */
+    static int limit(String limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            parsed = -1;
+        }
+        if (parsed < 1 || parsed > MAX_LIMIT) {
+            throw new BadRequestException("limit must be an integer between 1 and " + MAX_LIMIT + ".");
+        }
+        return parsed;
+    }
+
+    /**
+     * Indexes a todo item that was added to the list, in front of the others.
+     * Items without an ID cannot be told apart, and are not indexed.
+     */
+    public synchronized void add(TodoItem todo) {
+        if (todo.getId() == null) {
+            return;
+        }
+        remove(todo);
+        index(todo, ++clock);
+    }
+
+    /**
+     * Drops a todo item that was removed from the list.
+     */
+    public synchronized void remove(TodoItem todo) {
+        Integer doc = todo.getId() == null ? null : docsById.remove(todo.getId());
+        if (doc == null) {
+            return;
+        }
+        for (String word : words(docs[doc]).keySet()) {
+            terms.get(word).live--;
+        }
+        docs[doc] = null;
+        size--;
+        int tombstones = nextDoc - size;
+        if (tombstones > MIN_COMPACTION && tombstones > size) {
+            compact();
+        }
+    }
+
+    /**
+     * Re-indexes a todo item that was replaced by a new version of itself, keeping its position.
+     */
+    public synchronized void replace(TodoItem previous, TodoItem current) {
+        Integer doc = previous.getId() == null ? null : docsById.get(previous.getId());
+        if (doc == null || !previous.getId().equals(current.getId())) {
+            remove(previous);
+            add(current);
+            return;
+        }
+        long position = order[doc];
+        remove(previous);
+        index(current, position);
+    }
+
+    /**
+     * @return The number of items indexed.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Finds the items matching a query, best first.
+     * @param query Words to look for, split like titles; stop words are ignored.
+     * @param limit The most items to return.
+     * @return The matching items, empty if the query holds no word besides stop words.
+     */
+    public synchronized List<TodoItem> search(String query, int limit) {
+        List<String> words = new ArrayList<>(words(new TodoItem(null, query, false)).keySet());
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        // The indexed words matching each query word; the rarest query word narrows the candidates first
+        List<Match> matches = new ArrayList<>(words.size());
+        for (String word : words) {
+            Collection<Postings> matching = terms.subMap(word, true, word + Character.MAX_VALUE, false).values();
+            long live = 0;
+            for (Postings postings : matching) {
+                live += postings.live;
+            }
+            if (live == 0) {
+                return List.of();
+            }
+            matches.add(new Match(word, matching, live));
+        }
+        matches.sort(Comparator.comparingLong(Match::live));
+
+        if (marks > Integer.MAX_VALUE - words.size() - 1) {
+            Arrays.fill(seen, 0);
+            marks = 0;
+        }
+        int candidateCount = 0;
+        for (int w = 0; w < matches.size(); w++) {
+            int mark = ++marks;
+            boolean last = w == matches.size() - 1;
+            Match match = matches.get(w);
+            // The rarity of the query word, not of each indexed word, so an exact match outweighs a prefix match
+            float idf = idf((int) Math.min(match.live(), size));
+            for (Postings postings : match.terms()) {
+                float weight = idf * (postings.term.equals(match.word()) ? 1 : PREFIX_WEIGHT);
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    int previous = seen[doc];
+                    if (previous == mark) {
+                        // Another indexed word matching the same query word: only the best one counts
+                        float score = weight * tf(postings.counts[i]);
+                        if (score > best[doc]) {
+                            scores[doc] += score - best[doc];
+                            best[doc] = score;
+                        }
+                        continue;
+                    }
+                    if ((w > 0 && previous != mark - 1) || docs[doc] == null) {
+                        // Did not match an earlier query word, or was removed
+                        continue;
+                    }
+                    float score = weight * tf(postings.counts[i]);
+                    seen[doc] = mark;
+                    best[doc] = score;
+                    scores[doc] = w == 0 ? score : scores[doc] + score;
+                    if (last) {
+                        if (candidateCount == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                        }
+                        candidates[candidateCount++] = doc;
+                    }
+                }
+            }
+        }
+        return top(candidateCount, limit);
+    }
+
+    /**
+     * Selects the best candidates with a min-heap of the best so far, its root the first to go.
+     */
+    private List<TodoItem> top(int candidateCount, int limit) {
+        if (heap.length < limit) {
+            heap = new int[limit];
+        }
+        int heapSize = 0;
+        // Newest first: postings are in order of addition, so most ties are then rejected at the root
+        for (int i = candidateCount - 1; i >= 0; i--) {
+            int doc = candidates[i];
+            if (heapSize < limit) {
+                heap[heapSize] = doc;
+                siftUp(heapSize++);
+            } else if (better(doc, heap[0])) {
+                heap[0] = doc;
+                siftDown(0, heapSize);
+            }
+        }
+        TodoItem[] found = new TodoItem[heapSize];
+        while (heapSize > 0) {
+            found[heapSize - 1] = docs[heap[0]];
+            heap[0] = heap[--heapSize];
+            siftDown(0, heapSize);
+        }
+        return Arrays.asList(found);
+    }
+
+    private boolean better(int doc, int than) {
+        return scores[doc] != scores[than] ? scores[doc] > scores[than] : order[doc] > order[than];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i, int heapSize) {
+        while (true) {
+            int worst = i;
+            for (int child = 2 * i + 1; child <= 2 * i + 2 && child < heapSize; child++) {
+                if (better(heap[worst], heap[child])) {
+                    worst = child;
+                }
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int doc = heap[i];
+        heap[i] = heap[j];
+        heap[j] = doc;
+    }
+
+    private void index(TodoItem todo, long position) {
+        if (nextDoc == docs.length) {
+            grow(docs.length * 2);
+        }
+        int doc = nextDoc++;
+        docs[doc] = todo;
+        order[doc] = position;
+        docsById.put(todo.getId(), doc);
+        size++;
+        words(todo).forEach((word, count) -> terms.computeIfAbsent(word, Postings::new).add(doc, count));
+    }
+
+    /**
+     * Renumbers the items left, in the same order, and drops the tombstones from the postings.
+     */
+    private void compact() {
+        int[] renumbered = new int[nextDoc];
+        int live = 0;
+        for (int doc = 0; doc < nextDoc; doc++) {
+            if (docs[doc] == null) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = live;
+            docs[live] = docs[doc];
+            order[live] = order[doc];
+            docsById.put(docs[live].getId(), live);
+            live++;
+        }
+        Arrays.fill(docs, live, nextDoc, null);
+        nextDoc = live;
+        for (Iterator<Postings> it = terms.values().iterator(); it.hasNext(); ) {
+            Postings postings = it.next();
+            if (postings.live == 0) {
+                it.remove();
+                continue;
+            }
+            int kept = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int doc = renumbered[postings.docs[i]];
+                if (doc >= 0) {
+                    postings.docs[kept] = doc;
+                    postings.counts[kept] = postings.counts[i];
+                    kept++;
+                }
+            }
+            postings.size = kept;
+        }
+    }
+
+    private float idf(int documentFrequency) {
+        return (float) Math.log(1 + (size - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float tf(int count) {
+        return count * (K1 + 1) / (count + K1);
+    }
+
+    /**
+     * The words of a title, with the number of times each appears.
+     */
+    private Map<String, Integer> words(TodoItem todo) {
+        Map<String, Integer> words = new LinkedHashMap<>();
+        tokenizer.tokenize(todo.getTitle(), (chars, length) -> words.merge(new String(chars, 0, length), 1, Integer::sum));
+        return words;
+    }
+
+    private void grow(int capacity) {
+        docs = Arrays.copyOf(docs, capacity);
+        order = Arrays.copyOf(order, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        best = Arrays.copyOf(best, capacity);
+        scores = Arrays.copyOf(scores, capacity);
+    }
+
+    /**
+     * The indexed words a query word is a prefix of, and how many items hold them in total.
+     */
+    private record Match(String word, Collection<Postings> terms, long live) {
+    }
+
+    /**
+     * The items holding one word, in order of addition, with the times the word appears in each.
+     * Entries of removed items stay until the next compaction; 'live' does not count them.
+     */
+    private static final class Postings {
+
+        final String term;
+        int[] docs = new int[4];
+        int[] counts = new int[4];
+        int size;
+        int live;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int doc, int count) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            docs[size] = doc;
+            counts[size] = count;
+            size++;
+            live++;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+// src/main/java/org/acme/todo/SingleFlight.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads against the backend.
+ * The first caller for a (call, user, id) key makes the backend call, callers arriving while it is
+ * in flight wait for that call and get its result or failure. Nothing is kept once the call completes,
+ * so this is not a cache: it only removes duplicate round trips, e.g. the frontend loading the list
+ * and the insights at the same moment, or several open tabs.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.backend.calls{call}: backend calls actually made.
+ * - todo.backend.coalesced{call}: reads served by a call that was already in flight.
+ */
+@ApplicationScoped
+public class SingleFlight {
+
+    static final String GET_TODOS = "getTodos";
+    static final String GET_TODO_BY_ID = "getTodoById";
+
+    @Inject
+    MeterRegistry registry;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Makes a blocking backend call, or joins the identical call already in flight.
+     * @param call The name of the backend call, used as metric tag.
+     * @param userEmail The user the call is made for.
+     * @param id The id of the item read, or null for list reads.
+     * @param backendCall The backend call.
+     * @return The result of the backend call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String call, String userEmail, String id, Supplier<T> backendCall) {
+        Key key = new Key(call, userEmail, id);
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            recordCoalesced(call);
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw rethrow(e.getCause());
+            }
+        }
+        registry.counter("todo.backend.calls", "call", call).increment();
+        try {
+            T result = backendCall.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(String, String, String, Supplier)}, used by the reactive pipeline.
+     * Blocking and reactive callers share in-flight calls with each other.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Uni<T> executeAsync(String call, String userEmail, String id, Supplier<Uni<T>> backendCall) {
+        return Uni.createFrom().deferred(() -> {
+            Key key = new Key(call, userEmail, id);
+            CompletableFuture<Object> mine = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                recordCoalesced(call);
+                return Uni.createFrom().completionStage(existing).map(result -> (T) result);
+            }
+            registry.counter("todo.backend.calls", "call", call).increment();
+            return backendCall.get()
+                    .onItemOrFailure().invoke((result, failure) -> {
+                        inFlight.remove(key, mine);
+                        if (failure != null) {
+                            mine.completeExceptionally(failure);
+                        } else {
+                            mine.complete(result);
+                        }
+                    })
+                    .onCancellation().invoke(() -> {
+                        // Callers that joined this call must not wait forever for it
+                        inFlight.remove(key, mine);
+                        mine.cancel(false);
+                    });
+        });
+    }
+
+    /**
+     * Stops handing out the in-flight calls of a user, so reads starting after a mutation
+     * make a fresh backend call instead of joining one that may predate the mutation.
+     * @param userEmail The user whose data changed.
+     */
+    public void forget(String userEmail) {
+        inFlight.keySet().removeIf(key -> Objects.equals(key.userEmail(), userEmail));
+    }
+
+    /**
+     * Counts a read that was served by a backend call already in flight elsewhere,
+     * e.g. a load of the TodoCache.
+     * @param call The name of the backend call.
+     */
+    public void recordCoalesced(String call) {
+        registry.counter("todo.backend.coalesced", "call", call).increment();
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException e) {
+            throw e;
+        }
+        if (failure instanceof Error e) {
+            throw e;
+        }
+        throw new CompletionException(failure);
+    }
+
+    private record Key(String call, String userEmail, String id) {
+    }
+}
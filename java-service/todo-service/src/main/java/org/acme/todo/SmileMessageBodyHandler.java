@@ -0,0 +1,119 @@
+// src/main/java/org/acme/todo/SmileMessageBodyHandler.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.time.OffsetDateTime;
+
+/**
+ * Binary representation of the TodoResource's entities for service-to-service callers:
+ * Smile, Jackson's binary JSON, with the same properties as the JSON representation, except
+ * that createdAt and completedAt are epoch milliseconds instead of formatted strings (read
+ * back in UTC). Callers opt in with 'Accept: application/x-jackson-smile' and send Smile
+ * bodies with the same Content-Type; browsers never ask for it and keep getting JSON.
+ */
+@Provider
+@Produces(SmileMessageBodyHandler.APPLICATION_SMILE)
+@Consumes(SmileMessageBodyHandler.APPLICATION_SMILE)
+public class SmileMessageBodyHandler implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE_TYPE = MediaType.valueOf(APPLICATION_SMILE);
+
+    static final ObjectMapper MAPPER = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .addMixIn(TodoItem.class, EpochTimestamps.class)
+            .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS)
+            .disable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    /**
+     * Whether the caller prefers Smile over JSON, i.e. names the Smile type in its Accept header
+     * with a quality no lower than that of any type JSON would satisfy.
+     */
+    public static boolean preferred(String accept) {
+        if (accept == null || !accept.contains(APPLICATION_SMILE)) {
+            return false;
+        }
+        double smile = 0;
+        double json = 0;
+        for (String range : accept.split(",")) {
+            String[] parts = range.split(";");
+            String type = parts[0].trim();
+            double quality = quality(parts);
+            if (type.equals(APPLICATION_SMILE)) {
+                smile = Math.max(smile, quality);
+            } else if (type.equals(MediaType.APPLICATION_JSON) || type.equals("application/*") || type.equals("*/*")) {
+                json = Math.max(json, quality);
+            }
+        }
+        return smile > 0 && smile >= json;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                           MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        return MAPPER.readValue(entityStream, MAPPER.constructType(genericType != null ? genericType : type));
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return true;
+    }
+
+    @Override
+    public void writeTo(Object entity, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        MAPPER.writeValue(entityStream, entity);
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Replaces the '@JsonFormat' patterns of TodoItem's timestamps.
+     */
+    abstract static class EpochTimestamps {
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT)
+        OffsetDateTime createdAt;
+
+        @JsonFormat(shape = JsonFormat.Shape.NUMBER_INT)
+        OffsetDateTime completedAt;
+    }
+}
@@ -0,0 +1,125 @@
+// src/main/java/org/acme/todo/TitleTokenizer.java
+package org.acme.todo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits todo titles into the lowercase words counted by the insights.
+ * It produces the same words as {@code title.toLowerCase().split("[^a-zA-Z0-9]+")} with stop words
+ * removed, but scans the title's chars directly into a reusable buffer instead of allocating a
+ * lowercased copy and an array of Strings per title.
+ * Instances are not thread-safe; each caller keeps its own.
+ */
+public final class TitleTokenizer {
+
+    /**
+     * Receives each word of a title. The chars are only valid for the duration of the call.
+     */
+    @FunctionalInterface
+    public interface WordSink {
+        void word(char[] chars, int length);
+    }
+
+    // A simple list of common English "stop words" to exclude from keyword analysis.
+    static final List<String> STOP_WORDS = Arrays.asList(
+        "a", "an", "the", "to", "in", "on", "for", "with", "is", "of", "and", "buy", "get", "it", "me", "my", "i"
+    );
+
+    private static final WordCounter STOP_WORD_SET = new WordCounter(STOP_WORDS.size());
+
+    // Lowercase ASCII letter or digit for every ASCII char, or 0 for a word separator.
+    private static final char[] ASCII_LOWER = new char[128];
+    // Non-ASCII chars whose lowercase form contains ASCII letters (e.g. the Kelvin sign), sorted.
+    private static final char[] SPECIAL_CHARS;
+    private static final String[] SPECIAL_LOWER;
+
+    static {
+        for (String stopWord : STOP_WORDS) {
+            STOP_WORD_SET.add(stopWord.toCharArray(), stopWord.length(), 1);
+        }
+
+        // String.toLowerCase() uses the default locale, so the mapping is derived from it once.
+        Locale locale = Locale.getDefault();
+        List<Character> specialChars = new ArrayList<>();
+        List<String> specialLower = new ArrayList<>();
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (Character.isSurrogate((char) c)) {
+                continue;
+            }
+            String lower = String.valueOf((char) c).toLowerCase(locale);
+            if (c < 128 && lower.length() == 1) {
+                ASCII_LOWER[c] = isWordChar(lower.charAt(0)) ? lower.charAt(0) : 0;
+            } else if (lower.chars().anyMatch(ch -> isWordChar((char) ch))) {
+                specialChars.add((char) c);
+                specialLower.add(lower);
+            }
+        }
+        SPECIAL_CHARS = new char[specialChars.size()];
+        for (int i = 0; i < SPECIAL_CHARS.length; i++) {
+            SPECIAL_CHARS[i] = specialChars.get(i);
+        }
+        SPECIAL_LOWER = specialLower.toArray(new String[0]);
+    }
+
+    private char[] buffer = new char[32];
+    private int length;
+
+    /**
+     * Passes every non-stop word of a title to the sink, in order of appearance.
+     * @param title The title of a todo item, may be null.
+     * @param sink Receives the words.
+     */
+    public void tokenize(String title, WordSink sink) {
+        if (title == null) {
+            return;
+        }
+        length = 0;
+        for (int i = 0, n = title.length(); i < n; i++) {
+            char c = title.charAt(i);
+            if (c < 128) {
+                char lower = ASCII_LOWER[c];
+                if (lower != 0) {
+                    append(lower);
+                } else {
+                    flush(sink);
+                }
+            } else {
+                int special = SPECIAL_CHARS.length == 0 ? -1 : Arrays.binarySearch(SPECIAL_CHARS, c);
+                if (special < 0) {
+                    flush(sink);
+                    continue;
+                }
+                String lower = SPECIAL_LOWER[special];
+                for (int j = 0; j < lower.length(); j++) {
+                    if (isWordChar(lower.charAt(j))) {
+                        append(lower.charAt(j));
+                    } else {
+                        flush(sink);
+                    }
+                }
+            }
+        }
+        flush(sink);
+    }
+
+    private void append(char c) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, length * 2);
+        }
+        buffer[length++] = c;
+    }
+
+    private void flush(WordSink sink) {
+        if (length > 0 && STOP_WORD_SET.find(buffer, length) < 0) {
+            sink.word(buffer, length);
+        }
+        length = 0;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,597 @@
+// src/main/java/org/acme/todo/TodoCache.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.smallrye.mutiny.Uni;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Per-user read-through cache of todo lists, sitting in front of the TodoClient.
+ * Entries are keyed by the user's email and hold an immutable snapshot of the list,
+ * together with the incrementally maintained insights and search index of that list.
+ * Size and TTL eviction as well as hit/miss/eviction metrics are configured through
+ * the 'quarkus.cache.caffeine."user-todos".*' properties in application.properties.
+ * Mutations patch the cached snapshot in place so the next read does not need a backend call.
+ * Concurrent misses for the same user share one load; such reads are counted as coalesced
+ * getTodos calls by the SingleFlight.
+ * The last snapshot of every user is also kept in the longer-lived "user-todos-stale" cache,
+ * as fallback for when the backend cannot be asked (see {@link #lastKnown(String)}).
+ * InsightsRefresher keeps the lists of active users fresh with {@link #refresh(String, Function)}.
+ * A sample of the patches and reloads, 'todo.insights.verify-rate', compares the insights
+ * aggregate with a full recompute by InsightsCalculator; an aggregate that drifted is logged,
+ * counted as todo.insights.drift on /q/metrics, and rebuilt from the list.
+ */
+@ApplicationScoped
+public class TodoCache {
+
+    static final String CACHE_NAME = "user-todos";
+    static final String STALE_CACHE_NAME = "user-todos-stale";
+
+    private static final Logger LOG = Logger.getLogger(TodoCache.class);
+
+    // Patches copy the snapshot, so they are serialized per user to avoid lost updates.
+    private static final int LOCK_STRIPES = 64;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    @CacheName(CACHE_NAME)
+    Cache cache;
+
+    @CacheName(STALE_CACHE_NAME)
+    Cache staleCache;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    MeterRegistry registry;
+
+    // Share of patches and reloads after which the insights aggregate is checked, 0 to never check
+    @ConfigProperty(name = "todo.insights.verify-rate", defaultValue = "0.01")
+    double verifyRate = 0.01;
+
+    public TodoCache() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the cached list of a user, loading it on a miss.
+     * Requests without a user identity are never cached.
+     * @param userEmail The email of the user.
+     * @param loader Loads the list from the backend on a miss.
+     * @return An immutable list of TodoItem objects.
+     */
+    public List<TodoItem> get(String userEmail, Function<String, List<TodoItem>> loader) {
+        if (userEmail == null) {
+            return snapshot(loader.apply(null));
+        }
+        return entry(userEmail, loader).items();
+    }
+
+    /**
+     * Returns the insights of a user's list from the maintained aggregate, loading the list on a miss.
+     * @param userEmail The email of the user.
+     * @param loader Loads the list from the backend on a miss.
+     * @return A TodoInsights object containing statistics.
+     */
+    public TodoInsights insights(String userEmail, Function<String, List<TodoItem>> loader) {
+        if (userEmail == null) {
+            return InsightsCalculator.compute(loader.apply(null));
+        }
+        return entry(userEmail, loader).insights().snapshot();
+    }
+
+    /**
+     * Non-blocking variant of {@link #get(String, Function)}, used by the reactive pipeline.
+     * @param userEmail The email of the user.
+     * @param loader Loads the list from the backend on a miss, without blocking.
+     * @return A Uni emitting an immutable list of TodoItem objects.
+     */
+    public Uni<List<TodoItem>> getAsync(String userEmail, Function<String, Uni<List<TodoItem>>> loader) {
+        if (userEmail == null) {
+            return loader.apply(null).map(TodoCache::snapshot);
+        }
+        return entryAsync(userEmail, loader).map(UserTodos::items);
+    }
+
+    /**
+     * Non-blocking variant of {@link #insights(String, Function)}, used by the reactive pipeline.
+     * @param userEmail The email of the user.
+     * @param loader Loads the list from the backend on a miss, without blocking.
+     * @return A Uni emitting a TodoInsights object containing statistics.
+     */
+    public Uni<TodoInsights> insightsAsync(String userEmail, Function<String, Uni<List<TodoItem>>> loader) {
+        if (userEmail == null) {
+            return loader.apply(null).map(InsightsCalculator::compute);
+        }
+        return entryAsync(userEmail, loader).map(entry -> entry.insights().snapshot());
+    }
+
+    /**
+     * Searches the titles of a user's list with its maintained index, loading the list on a miss.
+     * @param userEmail The email of the user.
+     * @param query The words to look for, see {@link SearchIndex#search}.
+     * @param limit The most items to return.
+     * @param loader Loads the list from the backend on a miss.
+     * @return The matching items, best first.
+     */
+    public List<TodoItem> search(String userEmail, String query, int limit, Function<String, List<TodoItem>> loader) {
+        if (userEmail == null) {
+            return SearchIndex.of(loader.apply(null)).search(query, limit);
+        }
+        return entry(userEmail, loader).search().search(query, limit);
+    }
+
+    /**
+     * Non-blocking variant of {@link #search(String, String, int, Function)}, used by the reactive pipeline.
+     * @param userEmail The email of the user.
+     * @param query The words to look for, see {@link SearchIndex#search}.
+     * @param limit The most items to return.
+     * @param loader Loads the list from the backend on a miss, without blocking.
+     * @return A Uni emitting the matching items, best first.
+     */
+    public Uni<List<TodoItem>> searchAsync(String userEmail, String query, int limit,
+                                           Function<String, Uni<List<TodoItem>>> loader) {
+        if (userEmail == null) {
+            return loader.apply(null).map(todos -> SearchIndex.of(todos).search(query, limit));
+        }
+        return entryAsync(userEmail, loader).map(entry -> entry.search().search(query, limit));
+    }
+
+    /**
+     * Returns the last list the cache held for a user, even if it has been evicted or invalidated since.
+     * @param userEmail The email of the user.
+     * @return An immutable list of TodoItem objects, or null if none is known.
+     */
+    public List<TodoItem> lastKnown(String userEmail) {
+        UserTodos entry = lastKnownEntry(userEmail);
+        return entry == null ? null : entry.items();
+    }
+
+    /**
+     * Returns the insights of the last list the cache held for a user.
+     * @param userEmail The email of the user.
+     * @return A TodoInsights object, or null if no list is known.
+     */
+    public TodoInsights lastKnownInsights(String userEmail) {
+        UserTodos entry = lastKnownEntry(userEmail);
+        return entry == null ? null : entry.insights().snapshot();
+    }
+
+    /**
+     * Searches the last list the cache held for a user.
+     * @param userEmail The email of the user.
+     * @return The matching items, or null if no list is known.
+     */
+    public List<TodoItem> lastKnownSearch(String userEmail, String query, int limit) {
+        UserTodos entry = lastKnownEntry(userEmail);
+        return entry == null ? null : entry.search().search(query, limit);
+    }
+
+    /**
+     * Replaces the cached list of a user with a freshly loaded one and builds its insights.
+     * The list is only replaced if the cached entry did not change while loading, since a
+     * mutation patched into it meanwhile may be missing from the loaded list.
+     * A loaded list equal to the cached one keeps the cached snapshot and its version (the ETag),
+     * only moving its load time forward. Otherwise the insights aggregate and search index of the
+     * cached snapshot are carried over, with the differences applied to them.
+     * @param userEmail The email of the user.
+     * @param loader Loads the list from the backend.
+     * @return The insights of the new list, or null if the cached entry changed meanwhile.
+     */
+    public TodoInsights refresh(String userEmail, Function<String, List<TodoItem>> loader) {
+        if (userEmail == null) {
+            return InsightsCalculator.compute(loader.apply(null));
+        }
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        CompletableFuture<Object> current = caffeineCache.getIfPresent(userEmail);
+        if (current != null && !current.isDone()) {
+            // A load is already under way
+            return null;
+        }
+        UserTodos before = loadedEntry(userEmail);
+        List<TodoItem> todos = snapshot(loader.apply(userEmail));
+        UserTodos loaded;
+        synchronized (lockFor(userEmail)) {
+            current = caffeineCache.getIfPresent(userEmail);
+            boolean loading = current != null && !current.isDone();
+            if (loading || loadedEntry(userEmail) != before) {
+                return null;
+            }
+            // Under the lock, as patches change the aggregate and index of the cached entry too
+            loaded = before == null ? new UserTodos(todos, null, null, Instant.now()) : reloaded(userEmail, before, todos);
+            caffeineCache.put(userEmail, CompletableFuture.completedFuture(remember(userEmail, loaded)));
+        }
+        return loaded.insights().snapshot();
+    }
+
+    /**
+     * Builds the entry replacing a cached one on reload, reusing what is still valid of it.
+     */
+    private UserTodos reloaded(String userEmail, UserTodos before, List<TodoItem> todos) {
+        List<TodoItem> previous = before.items();
+        boolean same = previous.size() == todos.size();
+        for (int i = 0; same && i < todos.size(); i++) {
+            same = sameItem(previous.get(i), todos.get(i));
+        }
+        if (same) {
+            return before.reloaded(Instant.now());
+        }
+        InsightsAggregate insights = before.builtInsights();
+        SearchIndex search = before.builtSearch();
+        if (insights != null || search != null) {
+            Map<String, TodoItem> removed = new HashMap<>();
+            for (TodoItem todo : previous) {
+                removed.put(todo.getId(), todo);
+            }
+            for (TodoItem todo : todos) {
+                TodoItem was = removed.remove(todo.getId());
+                if (was == null) {
+                    if (insights != null) {
+                        insights.add(todo);
+                    }
+                    if (search != null) {
+                        search.add(todo);
+                    }
+                } else if (!sameItem(was, todo)) {
+                    if (insights != null) {
+                        insights.replace(was, todo);
+                    }
+                    if (search != null) {
+                        search.replace(was, todo);
+                    }
+                }
+            }
+            for (TodoItem todo : removed.values()) {
+                if (insights != null) {
+                    insights.remove(todo);
+                }
+                if (search != null) {
+                    search.remove(todo);
+                }
+            }
+            if (insights != null && sampled()) {
+                insights = verified(userEmail, todos, insights);
+            }
+        }
+        return new UserTodos(todos, insights, search, Instant.now());
+    }
+
+    /**
+     * Returns when the cached list of a user was loaded from the store, without loading it.
+     * @param userEmail The email of the user.
+     * @return The time, or null if the list is not cached (or still loading).
+     */
+    public Instant loadedAt(String userEmail) {
+        UserTodos entry = loadedEntry(userEmail);
+        return entry == null ? null : entry.loadedAt();
+    }
+
+    /**
+     * Returns when the list behind insights previously returned by this cache was loaded from the store.
+     * Also knows the insights of the last known list, see {@link #lastKnownInsights(String)}.
+     * @param userEmail The email of the user.
+     * @param insights The insights as returned by insights, insightsAsync, refresh or lastKnownInsights.
+     * @return The time, or null if the insights are not those of a snapshot held by the cache.
+     */
+    public Instant loadedAt(String userEmail, TodoInsights insights) {
+        Instant loadedAt = loadedAt(loadedEntry(userEmail), insights);
+        return loadedAt != null ? loadedAt : loadedAt(lastKnownEntry(userEmail), insights);
+    }
+
+    /**
+     * Returns the insights of a user's cached list, without loading the list or building its insights.
+     * @param userEmail The email of the user.
+     * @return The insights, or null if the list is not cached or its insights were never asked for.
+     */
+    public TodoInsights builtInsights(String userEmail) {
+        UserTodos entry = loadedEntry(userEmail);
+        InsightsAggregate aggregate = entry == null ? null : entry.builtInsights();
+        return aggregate == null ? null : aggregate.snapshot();
+    }
+
+    /**
+     * Returns the version of a user's cached list, without loading it.
+     * @param userEmail The email of the user.
+     * @return The version, or null if the list is not cached (or still loading).
+     */
+    public String version(String userEmail) {
+        UserTodos entry = loadedEntry(userEmail);
+        return entry == null ? null : entry.version();
+    }
+
+    /**
+     * Returns the version of a list previously returned by {@link #get}, if it is still the current one.
+     * @param userEmail The email of the user.
+     * @param todos The list as returned by get or getAsync.
+     * @return The version, or null if the list is not the cached snapshot (anymore).
+     */
+    public String versionOf(String userEmail, List<TodoItem> todos) {
+        UserTodos entry = loadedEntry(userEmail);
+        return entry != null && entry.items() == todos ? entry.version() : null;
+    }
+
+    /**
+     * Returns the version of insights previously returned by {@link #insights}, if they are still the current ones.
+     * @param userEmail The email of the user.
+     * @param insights The insights as returned by insights or insightsAsync.
+     * @return The version, or null if the insights are not those of the cached snapshot (anymore).
+     */
+    public String versionOf(String userEmail, TodoInsights insights) {
+        UserTodos entry = loadedEntry(userEmail);
+        if (entry == null) {
+            return null;
+        }
+        InsightsAggregate aggregate = entry.builtInsights();
+        return aggregate != null && aggregate.snapshot() == insights ? entry.version() : null;
+    }
+
+    /**
+     * @return The cached copy of an item, or null if the user's list is not loaded or lacks the item.
+     */
+    public TodoItem item(String userEmail, String todoId) {
+        UserTodos entry = loadedEntry(userEmail);
+        if (entry == null) {
+            return null;
+        }
+        for (TodoItem todo : entry.items()) {
+            if (sameId(todo, todoId)) {
+                return todo;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds a newly created item to the front of the cached list, matching the backend's
+     * 'ORDER BY created_at DESC'.
+     */
+    public void itemCreated(String userEmail, TodoItem created) {
+        if (created == null) {
+            invalidate(userEmail);
+            return;
+        }
+        patch(userEmail, (todos, insights, search) -> {
+            List<TodoItem> patched = new ArrayList<>(todos.size() + 1);
+            patched.add(created);
+            for (TodoItem todo : todos) {
+                if (!sameId(todo, created.getId())) {
+                    patched.add(todo);
+                } else if (insights != null) {
+                    insights.remove(todo);
+                }
+            }
+            if (insights != null) {
+                insights.add(created);
+            }
+            if (search != null) {
+                search.add(created);
+            }
+            return patched;
+        });
+    }
+
+    /**
+     * Replaces the cached copy of an updated item, keeping its position in the list.
+     */
+    public void itemUpdated(String userEmail, TodoItem updated) {
+        if (updated == null) {
+            invalidate(userEmail);
+            return;
+        }
+        patch(userEmail, (todos, insights, search) -> {
+            List<TodoItem> patched = new ArrayList<>(todos.size());
+            TodoItem previous = null;
+            for (TodoItem todo : todos) {
+                if (sameId(todo, updated.getId())) {
+                    patched.add(updated);
+                    previous = todo;
+                } else {
+                    patched.add(todo);
+                }
+            }
+            if (previous == null) {
+                // The cached list did not know this item, so it cannot be trusted anymore.
+                return null;
+            }
+            if (insights != null) {
+                insights.replace(previous, updated);
+            }
+            if (search != null) {
+                search.replace(previous, updated);
+            }
+            return patched;
+        });
+    }
+
+    /**
+     * Removes a deleted item from the cached list.
+     */
+    public void itemDeleted(String userEmail, String todoId) {
+        patch(userEmail, (todos, insights, search) -> {
+            List<TodoItem> patched = new ArrayList<>(todos.size());
+            for (TodoItem todo : todos) {
+                if (!sameId(todo, todoId)) {
+                    patched.add(todo);
+                } else {
+                    if (insights != null) {
+                        insights.remove(todo);
+                    }
+                    if (search != null) {
+                        search.remove(todo);
+                    }
+                }
+            }
+            return patched;
+        });
+    }
+
+    /**
+     * Drops the cached list of a user.
+     * Caffeine invalidates synchronously on subscription, so this is safe on the event loop.
+     */
+    public void invalidate(String userEmail) {
+        if (userEmail != null) {
+            cache.invalidate(userEmail).subscribe().asCompletionStage();
+        }
+    }
+
+    /**
+     * Drops every cached list.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll().await().indefinitely();
+        staleCache.invalidateAll().await().indefinitely();
+    }
+
+    private UserTodos entry(String userEmail, Function<String, List<TodoItem>> loader) {
+        recordIfLoading(userEmail);
+        return cache.get(userEmail, key -> remember(key, new UserTodos(snapshot(loader.apply(key)), null, null, Instant.now())))
+                .await().indefinitely();
+    }
+
+    private Uni<UserTodos> entryAsync(String userEmail, Function<String, Uni<List<TodoItem>>> loader) {
+        recordIfLoading(userEmail);
+        return cache.getAsync(userEmail, key -> loader.apply(key)
+                .map(todos -> remember(key, new UserTodos(snapshot(todos), null, null, Instant.now()))));
+    }
+
+    /**
+     * Applies a patch to the cached entry of a user, if one is present and loaded.
+     * The patch receives the current list, the insights aggregate and the search index (each null
+     * if never built), applies its delta to them and returns the new list.
+     * A patch returning null, or an entry still being loaded, invalidates the entry instead:
+     * an in-flight load may or may not include the mutation.
+     */
+    private void patch(String userEmail, Patch patch) {
+        if (userEmail == null) {
+            return;
+        }
+        CaffeineCache caffeineCache = cache.as(CaffeineCache.class);
+        synchronized (lockFor(userEmail)) {
+            CompletableFuture<Object> current = caffeineCache.getIfPresent(userEmail);
+            if (current == null) {
+                return;
+            }
+            if (!current.isDone() || current.isCompletedExceptionally()) {
+                invalidate(userEmail);
+                return;
+            }
+            UserTodos entry = (UserTodos) current.join();
+            InsightsAggregate insights = entry.builtInsights();
+            SearchIndex search = entry.builtSearch();
+            List<TodoItem> patched = patch.apply(entry.items(), insights, search);
+            if (patched == null) {
+                invalidate(userEmail);
+            } else {
+                if (insights != null && sampled()) {
+                    insights = verified(userEmail, patched, insights);
+                }
+                UserTodos next = new UserTodos(Collections.unmodifiableList(patched), insights, search, entry.loadedAt());
+                caffeineCache.put(userEmail, CompletableFuture.completedFuture(remember(userEmail, next)));
+            }
+        }
+    }
+
+    /**
+     * Compares an insights aggregate with a full recompute of the list it describes.
+     * @return The aggregate, or a new one built from the list if it drifted.
+     */
+    InsightsAggregate verified(String userEmail, List<TodoItem> todos, InsightsAggregate insights) {
+        TodoInsights expected = InsightsCalculator.compute(todos);
+        TodoInsights actual = insights.snapshot();
+        if (expected.equals(actual)) {
+            return insights;
+        }
+        LOG.warnf("Rebuilt the drifted insights of %s: maintained %d/%d tasks completed and words %s, recomputed %d/%d and %s",
+                userEmail, actual.getCompletedTasks(), actual.getTotalTasks(), actual.getMostCommonWords(),
+                expected.getCompletedTasks(), expected.getTotalTasks(), expected.getMostCommonWords());
+        registry.counter("todo.insights.drift").increment();
+        return InsightsAggregate.of(todos);
+    }
+
+    private boolean sampled() {
+        return verifyRate > 0 && ThreadLocalRandom.current().nextDouble() < verifyRate;
+    }
+
+    private UserTodos loadedEntry(String userEmail) {
+        if (userEmail == null) {
+            return null;
+        }
+        CompletableFuture<Object> current = cache.as(CaffeineCache.class).getIfPresent(userEmail);
+        if (current == null || !current.isDone() || current.isCompletedExceptionally()) {
+            return null;
+        }
+        return (UserTodos) current.join();
+    }
+
+    private UserTodos remember(String userEmail, UserTodos entry) {
+        staleCache.as(CaffeineCache.class).put(userEmail, CompletableFuture.completedFuture(entry));
+        return entry;
+    }
+
+    private UserTodos lastKnownEntry(String userEmail) {
+        if (userEmail == null) {
+            return null;
+        }
+        CompletableFuture<Object> last = staleCache.as(CaffeineCache.class).getIfPresent(userEmail);
+        return last == null ? null : (UserTodos) last.join();
+    }
+
+    private void recordIfLoading(String userEmail) {
+        CompletableFuture<Object> current = cache.as(CaffeineCache.class).getIfPresent(userEmail);
+        if (current != null && !current.isDone()) {
+            singleFlight.recordCoalesced(SingleFlight.GET_TODOS);
+        }
+    }
+
+    private static Instant loadedAt(UserTodos entry, TodoInsights insights) {
+        InsightsAggregate aggregate = entry == null ? null : entry.builtInsights();
+        return aggregate != null && aggregate.snapshot() == insights ? entry.loadedAt() : null;
+    }
+
+    private Object lockFor(String userEmail) {
+        return locks[(userEmail.hashCode() & 0x7fffffff) % LOCK_STRIPES];
+    }
+
+    private static List<TodoItem> snapshot(List<TodoItem> todos) {
+        return todos == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(todos));
+    }
+
+    // Every field that is serialized, so an equal item gives an equal response
+    private static boolean sameItem(TodoItem a, TodoItem b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && a.isCompleted() == b.isCompleted()
+                && Objects.equals(a.getUserId(), b.getUserId())
+                && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+                && Objects.equals(a.getCompletedAt(), b.getCompletedAt());
+    }
+
+    private static boolean sameId(TodoItem todo, String id) {
+        return id != null && id.equals(todo.getId());
+    }
+
+    @FunctionalInterface
+    private interface Patch {
+        List<TodoItem> apply(List<TodoItem> todos, InsightsAggregate insights, SearchIndex search);
+    }
+}
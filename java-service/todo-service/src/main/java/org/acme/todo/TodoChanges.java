@@ -0,0 +1,59 @@
+// src/main/java/org/acme/todo/TodoChanges.java
+package org.acme.todo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Answer of GET /todos/changes: what changed in a user's todo list since the client's last sync.
+ * If 'full' is true, 'items' is the whole list and replaces the client's copy; otherwise 'items'
+ * are the created or updated items, as they are now, and 'deleted' the IDs of deleted ones.
+ * 'version' is the value of 'since' for the next sync.
+ */
+public class TodoChanges {
+
+    private final String version;
+    private final boolean full;
+    private final List<TodoItem> items;
+    private final List<String> deleted;
+
+    public TodoChanges(String version, boolean full, List<TodoItem> items, List<String> deleted) {
+        this.version = version;
+        this.full = full;
+        this.items = items;
+        this.deleted = deleted;
+    }
+
+    static TodoChanges snapshot(String version, List<TodoItem> all) {
+        return new TodoChanges(version, true, all, List.of());
+    }
+
+    static TodoChanges delta(String version, List<ChangeLog.Change> changes) {
+        List<TodoItem> items = new ArrayList<>();
+        List<String> deleted = new ArrayList<>();
+        for (ChangeLog.Change change : changes) {
+            if (change.isDeletion()) {
+                deleted.add(change.todoId());
+            } else {
+                items.add(change.item());
+            }
+        }
+        return new TodoChanges(version, false, items, deleted);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public List<TodoItem> getItems() {
+        return items;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+}
@@ -1,16 +1,24 @@
 // src/main/java/org/acme/todo/TodoClient.java
 package org.acme.todo;
 
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import org.eclipse.microprofile.faulttolerance.Bulkhead;
+import org.eclipse.microprofile.faulttolerance.CircuitBreaker;
+import org.eclipse.microprofile.faulttolerance.Timeout;
+import org.eclipse.microprofile.rest.client.annotation.RegisterProvider;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
+import org.jboss.resteasy.reactive.RestResponse;
 
 import java.util.List;
 
@@ -19,52 +27,90 @@ import java.util.List;
  * Uses MicroProfile Rest Client, which is similar in concept to Spring Boot's RestClient.
  * The base URL for this client will be configured in application.properties, e.g.,
  * org.acme.todo.TodoClient/mp-rest/url=http://localhost:8081
+ * Every call forwards the user's email in the 'X-User-Email' header, which the Node.js
+ * backend uses to scope the query to that user.
+ * Every method is guarded by its own timeout, bulkhead and circuit breaker (SmallRye Fault
+ * Tolerance), so a slow backend fails calls fast instead of tying up threads. 4xx responses
+ * arrive as ClientErrorException and do not count as failures. The limits can be overridden
+ * in application.properties.
+ * Connection pooling and the HTTP protocol used towards the backend are configured in
+ * application.properties too (see BackendHttpClientOptions).
  */
 @RegisterRestClient(configKey = "todo-api") // Use a configKey for easier configuration
+@BackendCall
+@RegisterProvider(BackendExceptionMapper.class)
+@RegisterProvider(BackendHttpClientOptions.class)
+@Bulkhead(64)
+@CircuitBreaker(requestVolumeThreshold = 20, failureRatio = 0.5, delay = 5000, successThreshold = 2,
+        skipOn = ClientErrorException.class)
 @Path("/todos") // Base path for the external API
 @Produces(MediaType.APPLICATION_JSON) // Specifies that the client produces JSON
 @Consumes(MediaType.APPLICATION_JSON) // Specifies that the client consumes JSON
 public interface TodoClient {
 
     /**
-     * Fetches all todo items from the external API.
+     * Fetches all todo items of a user from the external API.
+     * @param userEmail The email of the user.
      * @return A list of TodoItem objects.
      */
     @GET
-    List<TodoItem> getAllTodos();
+    @Timeout(3000)
+    List<TodoItem> getTodos(@HeaderParam("X-User-Email") String userEmail);
+
+    /**
+     * Fetches one page of a user's todo items, filtered and ordered by the backend's keyset query.
+     * Parameters left null are not sent.
+     * @param userEmail The email of the user.
+     * @return The page, with the cursor of the next page in the 'X-Next-Cursor' header.
+     */
+    @GET
+    @Timeout(3000)
+    RestResponse<List<TodoItem>> getTodoPage(@HeaderParam("X-User-Email") String userEmail,
+                                             @QueryParam("limit") Integer limit,
+                                             @QueryParam("cursor") String cursor,
+                                             @QueryParam("completed") Boolean completed,
+                                             @QueryParam("createdAfter") String createdAfter);
 
     /**
      * Fetches a single todo item by its ID from the external API.
+     * @param userEmail The email of the user.
      * @param id The ID of the todo item.
      * @return The TodoItem object.
      */
     @GET
     @Path("/{id}")
-    TodoItem getTodoById(@PathParam("id") String id);
+    @Timeout(2000)
+    TodoItem getTodoById(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id);
 
     /**
      * Creates a new todo item on the external API.
+     * @param userEmail The email of the user.
      * @param todoItem The TodoItem object to create.
      * @return The created TodoItem object (often with an ID assigned by the server).
      */
     @POST
-    TodoItem createTodo(TodoItem todoItem);
+    @Timeout(5000)
+    TodoItem createTodo(@HeaderParam("X-User-Email") String userEmail, TodoItem todoItem);
 
     /**
      * Updates an existing todo item on the external API.
+     * @param userEmail The email of the user.
      * @param id The ID of the todo item to update.
      * @param todoItem The updated TodoItem object.
      * @return The updated TodoItem object.
      */
     @PUT
     @Path("/{id}")
-    TodoItem updateTodo(@PathParam("id") String id, TodoItem todoItem);
+    @Timeout(5000)
+    TodoItem updateTodo(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id, TodoItem todoItem);
 
     /**
      * Deletes a todo item by its ID from the external API.
+     * @param userEmail The email of the user.
      * @param id The ID of the todo item to delete.
      */
     @DELETE
     @Path("/{id}")
-    void deleteTodo(@PathParam("id") String id);
+    @Timeout(5000)
+    void deleteTodo(@HeaderParam("X-User-Email") String userEmail, @PathParam("id") String id);
 }
@@ -0,0 +1,72 @@
+// src/main/java/org/acme/todo/TodoEvent.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One event of GET /todos/stream, the data of a server-sent event named after its type.
+ * 'item' is set for created and updated items, 'todoId' for every item event, 'insights'
+ * for insights events. A reset event carries nothing: the client missed events and should
+ * fetch GET /todos and GET /todos/insights again.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoEvent {
+
+    public enum Type {
+        @JsonProperty("created") CREATED,
+        @JsonProperty("updated") UPDATED,
+        @JsonProperty("deleted") DELETED,
+        @JsonProperty("insights") INSIGHTS,
+        @JsonProperty("reset") RESET,
+        // Keeps idle connections open; sent as an SSE comment, never replayed
+        @JsonProperty("heartbeat") HEARTBEAT;
+
+        /** The SSE event name. */
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+
+    static final TodoEvent HEARTBEAT = new TodoEvent(0, Type.HEARTBEAT, null, null, null);
+
+    private final long sequence;
+    private final Type type;
+    private final String todoId;
+    private final TodoItem item;
+    private final TodoInsights insights;
+
+    public TodoEvent(long sequence, Type type, String todoId, TodoItem item, TodoInsights insights) {
+        this.sequence = sequence;
+        this.type = type;
+        this.todoId = todoId;
+        this.item = item;
+        this.insights = insights;
+    }
+
+    /**
+     * Version of the change in the ChangeLog; insights follow the version of the change they
+     * reflect, a reset that of the user's latest change. 0 for events outside the log.
+     */
+    @JsonIgnore
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getTodoId() {
+        return todoId;
+    }
+
+    public TodoItem getItem() {
+        return item;
+    }
+
+    public TodoInsights getInsights() {
+        return insights;
+    }
+}
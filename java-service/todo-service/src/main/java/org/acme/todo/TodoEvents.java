@@ -0,0 +1,325 @@
+// src/main/java/org/acme/todo/TodoEvents.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.BackPressureStrategy;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-user change feed behind GET /todos/stream, and the entry point of changes into the ChangeLog.
+ * Every mutation that reaches the TodoCache, on any pipeline, is logged and published as a created,
+ * updated or deleted event, followed by the user's refreshed insights when the cache holds them.
+ * Differences found when a list is reloaded are published as updated or deleted events, and
+ * insights recomputed by a reload (see InsightsRefresher) when they changed; subscribed users
+ * count as active for the refresher.
+ * - Backpressure: each subscriber has a buffer of 'todo.stream.buffer-size' events, drained as
+ *   the connection asks for more. A subscriber whose buffer is full is evicted: its stream is
+ *   completed and the buffered events are dropped.
+ * - Resume: events of changes carry their ChangeLog version as SSE id. A client reconnecting with
+ *   Last-Event-ID gets what it missed from the ChangeLog: the latest state of each changed item,
+ *   as updated or deleted events, then the current insights. If the log cannot tell, or the id
+ *   is from another instance, it gets a reset event and should fetch its data again.
+ * - Every 'todo.stream.heartbeat', subscribers get a comment, so proxies keep the connection open.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.stream.subscribers: connected subscribers.
+ * - todo.stream.evictions: subscribers evicted for not keeping up.
+ * - todo.stream.dropped: events dropped from the buffers of evicted subscribers.
+ * - todo.stream.resumes{result}: reconnects with a token, 'replayed' or 'reset'.
+ */
+@ApplicationScoped
+public class TodoEvents {
+
+    private static final Logger LOG = Logger.getLogger(TodoEvents.class);
+
+    @ConfigProperty(name = "todo.stream.buffer-size", defaultValue = "64")
+    int bufferSize = 64;
+
+    @ConfigProperty(name = "todo.stream.heartbeat", defaultValue = "15s")
+    Duration heartbeat = Duration.ofSeconds(15);
+
+    @Inject
+    ChangeLog changeLog;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    InsightsRefresher insightsRefresher;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final Map<String, List<Subscriber>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        registry.gauge("todo.stream.subscribers", subscribers);
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "todo-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = heartbeat.toMillis();
+        ticker.scheduleWithFixedDelay(this::tick, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Subscribes to the events of a user.
+     * @param userEmail The email of the user.
+     * @param lastEventId The token of the last event the client received, or null.
+     * @return The events, starting with the missed ones or a reset event when resuming.
+     */
+    public Multi<TodoEvent> subscribe(String userEmail, String lastEventId) {
+        return Multi.createFrom().emitter(emitter -> attach(userEmail, lastEventId, emitter), BackPressureStrategy.IGNORE);
+    }
+
+    /**
+     * @return The resume token of an event, or null for events outside the ChangeLog.
+     */
+    public String token(TodoEvent event) {
+        return event.getSequence() > 0 ? changeLog.version(event.getSequence()) : null;
+    }
+
+    public void created(String userEmail, TodoItem created) {
+        if (created != null) {
+            itemChanged(userEmail, TodoEvent.Type.CREATED, created.getId(), created);
+        }
+    }
+
+    public void updated(String userEmail, TodoItem updated) {
+        if (updated != null) {
+            itemChanged(userEmail, TodoEvent.Type.UPDATED, updated.getId(), updated);
+        }
+    }
+
+    public void deleted(String userEmail, String todoId) {
+        itemChanged(userEmail, TodoEvent.Type.DELETED, todoId, null);
+    }
+
+    /**
+     * Logs and publishes the differences between a user's list and the one reloaded in its place,
+     * see {@link ChangeLog#reconcile}.
+     */
+    public void reloaded(String userEmail, List<TodoItem> previous, List<TodoItem> loaded, long loadedAfter) {
+        for (ChangeLog.Change change : changeLog.reconcile(userEmail, previous, loaded, loadedAfter)) {
+            publish(userEmail, changeEvent(change));
+        }
+    }
+
+    /**
+     * Publishes insights recomputed from a reloaded list.
+     */
+    public void insightsChanged(String userEmail, TodoInsights insights) {
+        if (insights != null && isStreamed(userEmail)) {
+            publish(userEmail, new TodoEvent(0, TodoEvent.Type.INSIGHTS, null, null, insights));
+        }
+    }
+
+    /**
+     * Tells the user's subscribers that events were lost, e.g. a buffered update that could not be written.
+     */
+    public void reset(String userEmail) {
+        if (isStreamed(userEmail)) {
+            publish(userEmail, new TodoEvent(changeLog.track(userEmail), TodoEvent.Type.RESET, null, null, null));
+        }
+    }
+
+    /**
+     * Sends heartbeats and keeps subscribed users active for the InsightsRefresher.
+     */
+    void tick() {
+        try {
+            for (Map.Entry<String, List<Subscriber>> entry : streams.entrySet()) {
+                insightsRefresher.touch(entry.getKey());
+                for (Subscriber subscriber : entry.getValue()) {
+                    subscriber.offer(TodoEvent.HEARTBEAT);
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Could not send stream heartbeats", e);
+        }
+    }
+
+    private boolean isStreamed(String userEmail) {
+        return userEmail != null && streams.containsKey(userEmail);
+    }
+
+    private void itemChanged(String userEmail, TodoEvent.Type type, String todoId, TodoItem item) {
+        boolean streamed = isStreamed(userEmail);
+        // Subscribed users are tracked, even if the ChangeLog dropped them for being idle
+        long version = changeLog.record(userEmail, todoId, item, streamed);
+        if (!streamed) {
+            return;
+        }
+        publish(userEmail, new TodoEvent(version, type, todoId, item, null));
+        TodoInsights insights = todoCache.builtInsights(userEmail);
+        if (insights != null) {
+            publish(userEmail, new TodoEvent(version, TodoEvent.Type.INSIGHTS, null, null, insights));
+        }
+    }
+
+    private void publish(String userEmail, TodoEvent event) {
+        List<Subscriber> stream = streams.get(userEmail);
+        if (stream != null) {
+            for (Subscriber subscriber : stream) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private static TodoEvent changeEvent(ChangeLog.Change change) {
+        return change.isDeletion()
+                ? new TodoEvent(change.version(), TodoEvent.Type.DELETED, change.todoId(), null, null)
+                : new TodoEvent(change.version(), TodoEvent.Type.UPDATED, change.todoId(), change.item(), null);
+    }
+
+    private void attach(String userEmail, String lastEventId, MultiEmitter<? super TodoEvent> emitter) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null);
+        // Tracked before subscribing, so every change after the subscription is logged
+        long latest = changeLog.track(userEmail);
+        streams.compute(userEmail, (key, current) -> {
+            List<Subscriber> stream = current != null ? current : new CopyOnWriteArrayList<>();
+            stream.add(subscriber);
+            return stream;
+        });
+        subscribers.incrementAndGet();
+        emitter.onTermination(() -> {
+            subscribers.decrementAndGet();
+            detach(userEmail, subscriber);
+        });
+        emitter.onRequest(requested -> subscriber.drain());
+        insightsRefresher.touch(userEmail);
+        if (lastEventId != null) {
+            resume(userEmail, subscriber, lastEventId, latest);
+        }
+        subscriber.drain();
+    }
+
+    // Not under the subscriber's lock: it may run on the connection's thread while an event is published
+    private void detach(String userEmail, Subscriber subscriber) {
+        streams.computeIfPresent(userEmail, (key, stream) -> {
+            stream.remove(subscriber);
+            return stream.isEmpty() ? null : stream;
+        });
+    }
+
+    /**
+     * Queues the latest state of what a reconnecting subscriber missed, or a reset if the ChangeLog cannot tell.
+     */
+    private void resume(String userEmail, Subscriber subscriber, String lastEventId, long latest) {
+        ChangeLog.Delta delta = changeLog.since(userEmail, lastEventId);
+        List<TodoEvent> missed = new ArrayList<>();
+        long through;
+        if (delta != null) {
+            through = delta.version();
+            for (ChangeLog.Change change : delta.changes()) {
+                missed.add(changeEvent(change));
+            }
+            TodoInsights insights = todoCache.builtInsights(userEmail);
+            if (!missed.isEmpty() && insights != null) {
+                missed.add(new TodoEvent(through, TodoEvent.Type.INSIGHTS, null, null, insights));
+            }
+            registry.counter("todo.stream.resumes", "result", "replayed").increment();
+        } else {
+            // Resuming after the reset is safe: every change since it is logged
+            through = latest;
+            missed.add(new TodoEvent(latest, TodoEvent.Type.RESET, null, null, null));
+            registry.counter("todo.stream.resumes", "result", "reset").increment();
+        }
+        subscriber.resume(missed, through);
+    }
+
+    private static boolean isRecorded(TodoEvent event) {
+        return event.getType() != TodoEvent.Type.HEARTBEAT;
+    }
+
+    /**
+     * One connection: a bounded buffer in front of the emitter, emitting only what was requested.
+     */
+    private final class Subscriber {
+
+        final MultiEmitter<? super TodoEvent> emitter;
+        final ArrayDeque<TodoEvent> queue = new ArrayDeque<>();
+        // While resuming, events published before the missed ones are queued; null otherwise
+        List<TodoEvent> held;
+        boolean evicted;
+
+        Subscriber(MultiEmitter<? super TodoEvent> emitter, boolean resuming) {
+            this.emitter = emitter;
+            this.held = resuming ? new ArrayList<>() : null;
+        }
+
+        synchronized void offer(TodoEvent event) {
+            if (evicted) {
+                return;
+            }
+            if (held != null) {
+                held.add(event);
+                return;
+            }
+            if (queue.size() >= bufferSize) {
+                evicted = true;
+                registry.counter("todo.stream.evictions").increment();
+                long dropped = queue.stream().filter(TodoEvents::isRecorded).count() + (isRecorded(event) ? 1 : 0);
+                registry.counter("todo.stream.dropped").increment(dropped);
+                queue.clear();
+                // Completing lets the client reconnect with its last token and catch up from the ChangeLog
+                emitter.complete();
+                return;
+            }
+            queue.addLast(event);
+            drain();
+        }
+
+        /**
+         * Queues the missed events, then the held ones they do not already cover: an older state
+         * of an item must never follow a newer one.
+         */
+        synchronized void resume(List<TodoEvent> missed, long through) {
+            queue.addAll(missed);
+            for (TodoEvent event : held) {
+                // Insights of a reload are not in the ChangeLog, and heartbeats are of no use any more
+                boolean unlogged = event.getSequence() == 0 && event.getType() == TodoEvent.Type.INSIGHTS;
+                if (event.getSequence() > through || unlogged) {
+                    queue.addLast(event);
+                }
+            }
+            held = null;
+            drain();
+        }
+
+        synchronized void drain() {
+            while (!evicted && !queue.isEmpty() && emitter.requested() > 0 && !emitter.isCancelled()) {
+                emitter.emit(queue.removeFirst());
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+// src/main/java/org/acme/todo/TodoExecution.java
+package org.acme.todo;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Decides how TodoResource requests are executed, based on 'todo.pipeline':
+ * - blocking (default): the request is handed to the worker pool and runs the blocking TodoService.
+ * - virtual: the blocking TodoService runs on a Java virtual thread, so requests waiting on the
+ *   backend do not hold a platform thread and are not capped by the worker pool size.
+ * - reactive: the request stays on the event loop end to end, using the ReactiveTodoService.
+ * The pipeline can be overridden per endpoint with 'todo.pipeline.&lt;endpoint&gt;', e.g.
+ * 'todo.pipeline.get-by-id=virtual'. All pipelines produce the same responses, so they can be
+ * A/B tested under load.
+ */
+@ApplicationScoped
+public class TodoExecution {
+
+    public enum Pipeline {
+        BLOCKING, VIRTUAL, REACTIVE
+    }
+
+    /** Endpoint names accepted in 'todo.pipeline.&lt;endpoint&gt;'. */
+    static final List<String> ENDPOINTS = List.of("get-all", "get-insights", "get-by-id", "create", "update", "delete", "batch",
+            "org-insights", "get-changes", "search");
+
+    @ConfigProperty(name = "todo.pipeline", defaultValue = "blocking")
+    Pipeline pipeline = Pipeline.BLOCKING;
+
+    @Inject
+    Config config;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService virtualThreads;
+
+    private final Map<String, Pipeline> overrides = new HashMap<>();
+
+    @PostConstruct
+    void readOverrides() {
+        for (String endpoint : ENDPOINTS) {
+            config.getOptionalValue("todo.pipeline." + endpoint, Pipeline.class)
+                  .ifPresent(override -> overrides.put(endpoint, override));
+        }
+    }
+
+    /**
+     * @param endpoint The endpoint name, see {@link #ENDPOINTS}.
+     * @return The pipeline configured for the endpoint.
+     */
+    public Pipeline pipeline(String endpoint) {
+        return overrides.getOrDefault(endpoint, pipeline);
+    }
+
+    /**
+     * Runs an endpoint on its configured pipeline.
+     * @param endpoint The endpoint name, see {@link #ENDPOINTS}.
+     * @param blocking The call into the blocking TodoService.
+     * @param reactive The call into the ReactiveTodoService.
+     * @return A Uni emitting the result.
+     */
+    public <T> Uni<T> execute(String endpoint, Supplier<T> blocking, Supplier<Uni<T>> reactive) {
+        return switch (pipeline(endpoint)) {
+            case REACTIVE -> reactive.get();
+            case VIRTUAL -> Uni.createFrom().item(blocking).runSubscriptionOn(virtualThreads());
+            case BLOCKING -> blocking(blocking);
+        };
+    }
+
+    /**
+     * Runs an endpoint that only has a blocking implementation: on a virtual thread if configured
+     * so, and on the worker pool otherwise (including the reactive pipeline).
+     * @param endpoint The endpoint name.
+     * @param blocking The call into the blocking TodoService.
+     * @return A Uni emitting the result.
+     */
+    public <T> Uni<T> execute(String endpoint, Supplier<T> blocking) {
+        if (pipeline(endpoint) == Pipeline.VIRTUAL) {
+            return Uni.createFrom().item(blocking).runSubscriptionOn(virtualThreads());
+        }
+        return blocking(blocking);
+    }
+
+    /**
+     * Runs blocking work off the event loop.
+     * @param work The blocking call, e.g. into the TodoService.
+     * @return A Uni emitting the result of the work on a worker thread.
+     */
+    public <T> Uni<T> blocking(Supplier<T> work) {
+        return Uni.createFrom().item(work).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private Executor virtualThreads() {
+        if (virtualThreads == null) {
+            // Outside of CDI, e.g. in benchmarks
+            virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return virtualThreads;
+    }
+}
@@ -2,6 +2,7 @@
 package org.acme.todo;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * A DTO (Data Transfer Object) to hold statistical insights about Todo items.
@@ -35,4 +36,24 @@ public class TodoInsights {
     public Map<String, Long> getMostCommonWords() {
         return mostCommonWords;
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TodoInsights)) {
+            return false;
+        }
+        TodoInsights that = (TodoInsights) o;
+        return totalTasks == that.totalTasks
+                && completedTasks == that.completedTasks
+                && Double.compare(completionRatio, that.completionRatio) == 0
+                && Objects.equals(mostCommonWords, that.mostCommonWords);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(totalTasks, completedTasks, completionRatio, mostCommonWords);
+    }
+}
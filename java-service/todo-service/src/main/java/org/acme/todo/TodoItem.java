@@ -20,6 +20,10 @@ public class TodoItem {
     public TodoItem() {
     }
 
+    public TodoItem(String id, String title, boolean completed) {
+        this(id, title, completed, null, null, null);
+    }
+
     public TodoItem(String id, String title, boolean completed, Integer userId, OffsetDateTime createdAt, OffsetDateTime completedAt) {
         this.id = id;
         this.title = title;
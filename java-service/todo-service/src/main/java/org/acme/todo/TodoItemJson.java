@@ -0,0 +1,288 @@
+// src/main/java/org/acme/todo/TodoItemJson.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streaming JSON serializer and deserializer of TodoItem, registered on the application's
+ * ObjectMapper (so for the REST endpoints and the REST clients). Jackson's bean serializer walks
+ * the item's properties through reflective accessors and formats createdAt and completedAt with
+ * the '@JsonFormat' pattern's DateTimeFormatter; these write the fields straight to the
+ * JsonGenerator in the same order, and format the timestamps by hand into a reused buffer.
+ * The output is byte for byte the bean serializer's, including for the null fields. Timestamps
+ * the hand-written path does not cover (years beyond 9999, offsets with seconds, a configured
+ * time zone) go through the pattern's formatter, as before.
+ * Lists of items need nothing more: Jackson's list serializer looks the item serializer up once.
+ * The Smile representation keeps the bean serializer, see SmileMessageBodyHandler.
+ */
+@Singleton
+public class TodoItemJson implements ObjectMapperCustomizer {
+
+    // The pattern of TodoItem's '@JsonFormat'
+    static final String TIMESTAMP_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+    static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern(TIMESTAMP_PATTERN);
+
+    // "yyyy-MM-ddTHH:mm:ss.SSS" followed by "Z" or "+HH:MM"
+    private static final int LOCAL_LENGTH = 23;
+    private static final int MAX_LENGTH = LOCAL_LENGTH + 6;
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString COMPLETED = new SerializedString("completed");
+    private static final SerializableString USER_ID = new SerializedString("userId");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString COMPLETED_AT = new SerializedString("completedAt");
+
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[MAX_LENGTH]);
+
+    /**
+     * A module with the TodoItem serializer and deserializer, for mappers built outside Quarkus.
+     */
+    public static SimpleModule module() {
+        SimpleModule module = new SimpleModule("TodoItemJson");
+        module.addSerializer(TodoItem.class, new Serializer());
+        module.addDeserializer(TodoItem.class, new Deserializer());
+        return module;
+    }
+
+    @Override
+    public void customize(ObjectMapper objectMapper) {
+        objectMapper.registerModule(module());
+    }
+
+    static final class Serializer extends StdSerializer<TodoItem> {
+
+        Serializer() {
+            super(TodoItem.class);
+        }
+
+        @Override
+        public void serialize(TodoItem item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(item);
+            gen.writeFieldName(ID);
+            gen.writeString(item.getId());
+            gen.writeFieldName(TITLE);
+            gen.writeString(item.getTitle());
+            gen.writeFieldName(COMPLETED);
+            gen.writeBoolean(item.isCompleted());
+            gen.writeFieldName(USER_ID);
+            if (item.getUserId() == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(item.getUserId());
+            }
+            gen.writeFieldName(CREATED_AT);
+            writeTimestamp(item.getCreatedAt(), gen, provider);
+            gen.writeFieldName(COMPLETED_AT);
+            writeTimestamp(item.getCompletedAt(), gen, provider);
+            gen.writeEndObject();
+        }
+
+        private static void writeTimestamp(OffsetDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            if (provider.getConfig().hasExplicitTimeZone() && provider.isEnabled(SerializationFeature.WRITE_DATES_WITH_CONTEXT_TIME_ZONE)) {
+                // Converted to the configured zone, like the bean serializer does
+                gen.writeString(TIMESTAMP_FORMAT.withZone(provider.getTimeZone().toZoneId()).format(value));
+                return;
+            }
+            char[] buffer = BUFFERS.get();
+            int length = format(value, buffer);
+            if (length < 0) {
+                gen.writeString(TIMESTAMP_FORMAT.format(value));
+            } else {
+                gen.writeString(buffer, 0, length);
+            }
+        }
+    }
+
+    static final class Deserializer extends StdDeserializer<TodoItem> {
+
+        Deserializer() {
+            super(TodoItem.class);
+        }
+
+        @Override
+        public TodoItem deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = p.nextToken();
+            } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+                return (TodoItem) ctxt.handleUnexpectedToken(TodoItem.class, p);
+            }
+            TodoItem item = new TodoItem();
+            for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+                String name = p.currentName();
+                JsonToken value = p.nextToken();
+                switch (name) {
+                    case "id" -> item.setId(string(p, ctxt, value));
+                    case "title" -> item.setTitle(string(p, ctxt, value));
+                    case "completed" -> item.setCompleted(value == JsonToken.VALUE_TRUE
+                            || (value != JsonToken.VALUE_FALSE && value != JsonToken.VALUE_NULL && ctxt.readValue(p, boolean.class)));
+                    case "userId" -> item.setUserId(value == JsonToken.VALUE_NUMBER_INT ? Integer.valueOf(p.getIntValue())
+                            : value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, Integer.class));
+                    case "createdAt" -> item.setCreatedAt(timestamp(p, ctxt, value));
+                    case "completedAt" -> item.setCompletedAt(timestamp(p, ctxt, value));
+                    default -> handleUnknownProperty(p, ctxt, item, name);
+                }
+            }
+            return item;
+        }
+
+        private static String string(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+            return value == JsonToken.VALUE_STRING ? p.getText()
+                    : value == JsonToken.VALUE_NULL ? null : ctxt.readValue(p, String.class);
+        }
+
+        private static OffsetDateTime timestamp(JsonParser p, DeserializationContext ctxt, JsonToken value) throws IOException {
+            if (value == JsonToken.VALUE_NULL) {
+                return null;
+            }
+            if (value != JsonToken.VALUE_STRING) {
+                // Epoch numbers and the like, which the pattern does not apply to
+                return ctxt.readValue(p, OffsetDateTime.class);
+            }
+            String text = p.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            OffsetDateTime parsed = parse(text);
+            if (parsed == null) {
+                try {
+                    parsed = OffsetDateTime.parse(text, TIMESTAMP_FORMAT);
+                } catch (DateTimeException e) {
+                    return (OffsetDateTime) ctxt.handleWeirdStringValue(OffsetDateTime.class, text,
+                            "Failed to deserialize java.time.OffsetDateTime: (%s) %s", e.getClass().getName(), e.getMessage());
+                }
+            }
+            if (ctxt.isEnabled(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)) {
+                // Moved to the configured zone (UTC by default), like the bean deserializer does
+                ZoneOffset zone = ctxt.getTimeZone().toZoneId().getRules().getOffset(parsed.toLocalDateTime());
+                parsed = parsed.withOffsetSameInstant(zone);
+            }
+            return parsed;
+        }
+    }
+
+    /**
+     * Formats a timestamp like the pattern into the buffer.
+     * @return The length written, or -1 if the timestamp needs the formatter.
+     */
+    static int format(OffsetDateTime value, char[] buffer) {
+        int year = value.getYear();
+        int offset = value.getOffset().getTotalSeconds();
+        if (year < 1 || year > 9999 || offset % 60 != 0) {
+            return -1;
+        }
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, value.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, value.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, value.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, value.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, value.getSecond(), 2);
+        buffer[19] = '.';
+        digits(buffer, 20, value.getNano() / 1_000_000, 3);
+        if (offset == 0) {
+            buffer[LOCAL_LENGTH] = 'Z';
+            return LOCAL_LENGTH + 1;
+        }
+        buffer[LOCAL_LENGTH] = offset < 0 ? '-' : '+';
+        int minutes = Math.abs(offset) / 60;
+        digits(buffer, LOCAL_LENGTH + 1, minutes / 60, 2);
+        buffer[LOCAL_LENGTH + 3] = ':';
+        digits(buffer, LOCAL_LENGTH + 4, minutes % 60, 2);
+        return MAX_LENGTH;
+    }
+
+    /**
+     * Parses a timestamp written like the pattern, with an offset of "Z" or "+HH:MM".
+     * @return The timestamp, or null if the text takes the formatter (which also reports errors).
+     */
+    static OffsetDateTime parse(String text) {
+        int length = text.length();
+        if ((length != LOCAL_LENGTH + 1 && length != MAX_LENGTH)
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':' || text.charAt(19) != '.') {
+            return null;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 2);
+        int day = number(text, 8, 2);
+        int hour = number(text, 11, 2);
+        int minute = number(text, 14, 2);
+        int second = number(text, 17, 2);
+        int millis = number(text, 20, 3);
+        if (year < 1 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0 || millis < 0) {
+            return null;
+        }
+        int offset = 0;
+        char sign = text.charAt(LOCAL_LENGTH);
+        if (length == LOCAL_LENGTH + 1) {
+            if (sign != 'Z') {
+                return null;
+            }
+        } else {
+            int hours = number(text, LOCAL_LENGTH + 1, 2);
+            int minutes = number(text, LOCAL_LENGTH + 4, 2);
+            if ((sign != '+' && sign != '-') || text.charAt(LOCAL_LENGTH + 3) != ':' || hours < 0 || minutes < 0 || minutes > 59) {
+                return null;
+            }
+            offset = (sign == '-' ? -60 : 60) * (hours * 60 + minutes);
+        }
+        try {
+            return OffsetDateTime.of(year, month, day, hour, minute, second, millis * 1_000_000, ZoneOffset.ofTotalSeconds(offset));
+        } catch (DateTimeException e) {
+            // Out of range, or resolved differently by the formatter (e.g. 24:00)
+            return null;
+        }
+    }
+
+    private static void digits(char[] buffer, int at, int value, int count) {
+        for (int i = at + count - 1; i >= at; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * @return The decimal number in text[at, at + count), or -1 if it holds a non-digit.
+     */
+    private static int number(String text, int at, int count) {
+        int value = 0;
+        for (int i = at; i < at + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,32 @@
+// src/main/java/org/acme/todo/TodoPage.java
+package org.acme.todo;
+
+import java.util.List;
+
+/**
+ * One page of a user's todo items, newest first, with the cursor of the next page.
+ */
+public class TodoPage {
+
+    /** Response header carrying the cursor of the next page, as the backend names it. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<TodoItem> items;
+    private final String nextCursor;
+
+    public TodoPage(List<TodoItem> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TodoItem> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor of the next page, or null on the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,93 @@
+// src/main/java/org/acme/todo/TodoQuery.java
+package org.acme.todo;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Pagination and filters of GET /todos, passed through to the backend's keyset query.
+ * - limit: page size, 1 to 500. Defaults to the backend's page size when only filters are given.
+ * - cursor: the opaque 'X-Next-Cursor' of the previous page.
+ * - completed: only completed (true) or active (false) items.
+ * - createdAfter: only items created after this ISO-8601 timestamp.
+ * A query without any of them asks for the full list.
+ */
+public final class TodoQuery {
+
+    static final int MAX_LIMIT = 500;
+
+    private static final TodoQuery ALL = new TodoQuery(null, null, null, null);
+
+    private final Integer limit;
+    private final String cursor;
+    private final Boolean completed;
+    private final String createdAfter;
+
+    public TodoQuery(Integer limit, String cursor, Boolean completed, String createdAfter) {
+        this.limit = limit;
+        this.cursor = cursor;
+        this.completed = completed;
+        this.createdAfter = createdAfter;
+    }
+
+    /**
+     * Parses the query parameters of GET /todos.
+     * @throws BadRequestException if a parameter is malformed.
+     */
+    public static TodoQuery parse(String limit, String cursor, String completed, String createdAfter) {
+        if (limit == null && cursor == null && completed == null && createdAfter == null) {
+            return ALL;
+        }
+        Integer pageSize = null;
+        if (limit != null) {
+            try {
+                pageSize = Integer.valueOf(limit);
+            } catch (NumberFormatException e) {
+                pageSize = -1;
+            }
+            if (pageSize < 1 || pageSize > MAX_LIMIT) {
+                throw new BadRequestException("limit must be an integer between 1 and " + MAX_LIMIT + ".");
+            }
+        }
+        Boolean completedFilter = null;
+        if (completed != null) {
+            if (!completed.equals("true") && !completed.equals("false")) {
+                throw new BadRequestException("completed must be true or false.");
+            }
+            completedFilter = Boolean.valueOf(completed);
+        }
+        if (createdAfter != null) {
+            try {
+                OffsetDateTime.parse(createdAfter);
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("createdAfter must be an ISO-8601 timestamp with offset.");
+            }
+        }
+        return new TodoQuery(pageSize, cursor, completedFilter, createdAfter);
+    }
+
+    /**
+     * @return true if this query asks for the full, unfiltered list.
+     */
+    public boolean isAll() {
+        return limit == null && cursor == null && completed == null && createdAfter == null;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public String getCreatedAfter() {
+        return createdAfter;
+    }
+}
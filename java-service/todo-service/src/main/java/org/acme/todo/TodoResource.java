@@ -1,52 +1,217 @@
 // src/main/java/org/acme/todo/TodoResource.java
 package org.acme.todo;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.sse.OutboundSseEvent;
+import jakarta.ws.rs.sse.Sse;
 import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.faulttolerance.exceptions.FaultToleranceException;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.server.ServerExceptionMapper;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
+
 import java.net.URI;
 import java.util.List;
 
 /**
  * RESTful API endpoints for the Todo Service.
  * This resource exposes endpoints for CRUD operations on Todo items.
+ * Every endpoint returns a Uni and is run by TodoExecution on the pipeline configured for it:
+ * the blocking TodoService on a worker or virtual thread, or the ReactiveTodoService on the event loop.
+ * Entities are JSON, or Smile for service-to-service callers that ask for it (see SmileMessageBodyHandler),
+ * compressed when large (see ResponseCompression).
  */
 @Path("/todos") // Base path for this service's endpoints
-@Produces(MediaType.APPLICATION_JSON) // Specifies that this resource produces JSON responses
-@Consumes(MediaType.APPLICATION_JSON) // Specifies that this resource consumes JSON requests
+@Produces({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE}) // JSON, or Smile for callers asking for it
+@Consumes({MediaType.APPLICATION_JSON, SmileMessageBodyHandler.APPLICATION_SMILE})
+@ResponseCompression.Compressible
 public class TodoResource {
 
     @Inject
     TodoService todoService; // Injects the TodoService
 
+    @Inject
+    ReactiveTodoService reactiveTodoService;
+
+    @Inject
+    TodoExecution execution;
+
+    @Inject
+    ConditionalGet conditionalGet;
+
+    @Inject
+    TodoEvents events;
+
+    /**
+     * Retrieves all todo items, or one page of them.
+     * GET /todos?limit=&cursor=&completed=&createdAfter=
+     * Without query parameters the full list is returned, with an ETag; a matching If-None-Match
+     * gets a 304. With any of them, a page of at most 'limit' items is returned, newest first,
+     * and the 'X-Next-Cursor' header holds the cursor of the next page.
+     * @return A list of TodoItem objects.
+     */
+    @GET
+    public Uni<Response> getAll(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail,
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                @HeaderParam(HttpHeaders.ACCEPT) String accept,
+                                @QueryParam("limit") String limit,
+                                @QueryParam("cursor") String cursor,
+                                @QueryParam("completed") String completed,
+                                @QueryParam("createdAfter") String createdAfter) {
+        TodoQuery query = TodoQuery.parse(limit, cursor, completed, createdAfter);
+        if (query.isAll()) {
+            MediaType type = responseType(accept);
+            Response notModified = conditionalGet.notModified("get-all", userEmail, ifNoneMatch, type);
+            if (notModified != null) {
+                return Uni.createFrom().item(notModified);
+            }
+            // The service uses the email to find the user's todos
+            Uni<List<TodoItem>> todos = execution.execute("get-all",
+                    () -> todoService.findAllTodos(userEmail),
+                    () -> reactiveTodoService.findAllTodos(userEmail));
+            return todos.map(all -> conditionalGet.list(userEmail, ifNoneMatch, type, all));
+        }
+        Uni<TodoPage> page = execution.execute("get-all",
+                () -> todoService.findTodos(userEmail, query),
+                () -> reactiveTodoService.findTodos(userEmail, query));
+        return page.map(found -> Response.ok(found.getItems())
+                                         .header(TodoPage.NEXT_CURSOR_HEADER, found.getNextCursor())
+                                         .build());
+    }
+
+    /**
+     * Exports all todo items as newline-delimited JSON, one item per line, newest first.
+     * GET /todos/export
+     * Items are streamed from the backend as they are read, so memory use does not grow with the list;
+     * other stores are read at once, see {@link ReactiveTodoService#exportTodos}.
+     * @return A stream of TodoItem objects.
+     */
+    @GET
+    @Path("/export")
+    @Produces(RestMediaType.APPLICATION_NDJSON)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<TodoItem> export(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        return reactiveTodoService.exportTodos(userEmail);
+    }
+
+    /**
+     * Streams the changes of the todo list as server-sent events, instead of polling GET /todos.
+     * GET /todos/stream
+     * Events are named created, updated, deleted, insights or reset, with a TodoEvent as JSON data
+     * (see TodoEvents). Their id is a resume token: an EventSource reconnecting with Last-Event-ID
+     * gets the changes it missed, or a reset event telling it to fetch the list again.
+     * @return A stream of server-sent events.
+     */
+    @GET
+    @Path("/stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public Multi<OutboundSseEvent> stream(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail,
+                                          @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String lastEventId,
+                                          @Context Sse sse) {
+        if (userEmail == null) {
+            throw new WebApplicationException("Unauthorized: User email is missing.", 401);
+        }
+        return events.subscribe(userEmail, lastEventId).map(event -> event.getType() == TodoEvent.Type.HEARTBEAT
+                ? sse.newEventBuilder().comment(event.getType().eventName()).build()
+                : sse.newEventBuilder()
+                      .id(events.token(event))
+                      .name(event.getType().eventName())
+                      .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                      .data(TodoEvent.class, event)
+                      .build());
+    }
+
+    /**
+     * Retrieves what changed in the todo list since the client's last sync, instead of the full list.
+     * GET /todos/changes?since=
+     * Returns the created or updated items and the IDs of the deleted ones since the version 'since',
+     * or the full list when 'since' is missing or too old to be answered (see ChangeLog), marked
+     * with full=true. The version to pass next time is in the answer.
+     * @return A TodoChanges object.
+     */
+    @GET
+    @Path("/changes")
+    public Uni<TodoChanges> getChanges(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail,
+                                       @QueryParam("since") String since) {
+        if (userEmail == null) {
+            throw new WebApplicationException("Unauthorized: User email is missing.", 401);
+        }
+        return execution.execute("get-changes",
+                () -> todoService.findChanges(userEmail, since),
+                () -> reactiveTodoService.findChanges(userEmail, since));
+    }
+
     /**
-     * Retrieves all todo items.
-     * GET /todos
+     * Searches the titles of the todo items.
+     * GET /todos/search?q=&limit=
+     * Returns at most 'limit' items (default 20, at most 100) holding every word of 'q', best
+     * match first. Words are split and stop words dropped like for the insights, and each word
+     * also matches the words it is a prefix of (see SearchIndex).
      * @return A list of TodoItem objects.
      */
     @GET
-    public List<TodoItem> getAll(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
-        // The service now uses the email to find the user's todos
-        return todoService.findAllTodos(userEmail);
+    @Path("/search")
+    public Uni<List<TodoItem>> search(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail,
+                                      @QueryParam("q") String query,
+                                      @QueryParam("limit") String limit) {
+        if (userEmail == null) {
+            throw new WebApplicationException("Unauthorized: User email is missing.", 401);
+        }
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q must not be empty.");
+        }
+        int maxItems = SearchIndex.limit(limit);
+        return execution.execute("search",
+                () -> todoService.searchTodos(userEmail, query, maxItems),
+                () -> reactiveTodoService.searchTodos(userEmail, query, maxItems));
     }
+
     /**
      * Retrieves insights about the todo list.
-     * GET /todos/insights
+     * GET /todos/insights?refresh=
+     * Served from the user's latest snapshot, which is kept fresh in the background; the
+     * 'X-Insights-As-Of' header tells when its list was loaded from the backend.
+     * With refresh=true, the list is reloaded and the insights recomputed before answering.
+     * Carries an ETag like GET /todos; a matching If-None-Match gets a 304.
      * @return A TodoInsights object with statistics.
      */
     @GET
     @Path("/insights")
-    public Response getInsights() {
-        return Response.ok(todoService.getInsights()).build();
+    public Uni<Response> getInsights(@HeaderParam("X-Goog-Authenticated-User-Email") String userEmail,
+                                     @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                     @HeaderParam(HttpHeaders.ACCEPT) String accept,
+                                     @QueryParam("refresh") boolean refresh) {
+        MediaType type = responseType(accept);
+        if (refresh) {
+            Uni<TodoInsights> refreshed = execution.execute("get-insights", () -> todoService.refreshInsights(userEmail));
+            return refreshed.map(result -> conditionalGet.insights(userEmail, ifNoneMatch, type, result));
+        }
+        Response notModified = conditionalGet.notModified("get-insights", userEmail, ifNoneMatch, type);
+        if (notModified != null) {
+            return Uni.createFrom().item(notModified);
+        }
+        Uni<TodoInsights> insights = execution.execute("get-insights",
+                () -> todoService.getInsights(userEmail),
+                () -> reactiveTodoService.getInsights(userEmail));
+        return insights.map(result -> conditionalGet.insights(userEmail, ifNoneMatch, type, result));
     }
 
     /**
@@ -57,13 +222,12 @@ public class TodoResource {
      */
     @GET
     @Path("/{id}")
-    public Response getTodoById(@PathParam("id") String id) {
-        try {
-            TodoItem todoItem = todoService.findTodoById(id);
-            return Response.ok(todoItem).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    public Uni<Response> getTodoById(@PathParam("id") String id, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        Uni<TodoItem> todoItem = execution.execute("get-by-id",
+                () -> todoService.findTodoById(userEmail, id),
+                () -> reactiveTodoService.findTodoById(userEmail, id));
+        return todoItem.map(found -> Response.ok(found).build())
+                .onFailure(NotFoundException.class).recoverWithItem(TodoResource::notFound);
     }
 
     /**
@@ -73,12 +237,14 @@ public class TodoResource {
      * @return A Response with status 201 Created and the location of the new resource.
      */
     @POST
-    public Response createTodo(TodoItem todoItem, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
-        TodoItem createdTodo = todoService.createTodo(todoItem);
+    public Uni<Response> createTodo(TodoItem todoItem, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        Uni<TodoItem> createdTodo = execution.execute("create",
+                () -> todoService.createTodo(userEmail, todoItem),
+                () -> reactiveTodoService.createTodo(userEmail, todoItem));
         // Return 201 Created with the location header
-        return Response.created(URI.create("/todos/" + createdTodo.getId()))
-                       .entity(createdTodo)
-                       .build();
+        return createdTodo.map(created -> Response.created(URI.create("/todos/" + created.getId()))
+                                                  .entity(created)
+                                                  .build());
     }
 
     /**
@@ -90,13 +256,12 @@ public class TodoResource {
      */
     @PUT
     @Path("/{id}")
-    public Response updateTodo(@PathParam("id") String id, TodoItem todoItem) {
-        try {
-            TodoItem updatedTodo = todoService.updateTodo(id, todoItem);
-            return Response.ok(updatedTodo).build();
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    public Uni<Response> updateTodo(@PathParam("id") String id, TodoItem todoItem, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        Uni<TodoItem> updatedTodo = execution.execute("update",
+                () -> todoService.updateTodo(userEmail, id, todoItem),
+                () -> reactiveTodoService.updateTodo(userEmail, id, todoItem));
+        return updatedTodo.map(updated -> Response.ok(updated).build())
+                .onFailure(NotFoundException.class).recoverWithItem(TodoResource::notFound);
     }
 
     /**
@@ -107,12 +272,51 @@ public class TodoResource {
      */
     @DELETE
     @Path("/{id}")
-    public Response deleteTodo(@PathParam("id") String id) {
-        try {
-            todoService.deleteTodo(id);
-            return Response.noContent().build(); // 204 No Content for successful deletion
-        } catch (NotFoundException e) {
-            return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
-        }
+    public Uni<Response> deleteTodo(@PathParam("id") String id, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        Uni<Void> deleted = execution.execute("delete",
+                () -> {
+                    todoService.deleteTodo(userEmail, id);
+                    return null;
+                },
+                () -> reactiveTodoService.deleteTodo(userEmail, id));
+        return deleted.map(ignored -> Response.noContent().build()) // 204 No Content for successful deletion
+                .onFailure(NotFoundException.class).recoverWithItem(TodoResource::notFound);
+    }
+
+    /**
+     * Applies a list of mixed create, update and delete operations.
+     * POST /todos/batch
+     * @param operations The operations to apply.
+     * @return One BatchResult per operation, in request order; failed operations do not fail the batch.
+     */
+    @POST
+    @Path("/batch")
+    public Uni<List<BatchResult>> batch(List<BatchOperation> operations, @HeaderParam("X-Goog-Authenticated-User-Email") String userEmail) {
+        return execution.execute("batch", () -> todoService.executeBatch(userEmail, operations));
+    }
+
+    /**
+     * The representation of a cacheable response, decided up front since its ETag depends on it.
+     * Also the one the writers pick for entities returned as such, given TodoResource's @Produces.
+     */
+    static MediaType responseType(String accept) {
+        return SmileMessageBodyHandler.preferred(accept) ? SmileMessageBodyHandler.APPLICATION_SMILE_TYPE
+                : MediaType.APPLICATION_JSON_TYPE;
+    }
+
+    private static Response notFound(Throwable e) {
+        return Response.status(Response.Status.NOT_FOUND).entity(e.getMessage()).build();
+    }
+
+    /**
+     * A backend call rejected by the client's fault tolerance policies (open circuit, timeout,
+     * full bulkhead) with no last known data to fall back to.
+     */
+    @ServerExceptionMapper
+    public Response backendUnavailable(FaultToleranceException e) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, 5)
+                .entity("The todo backend is unavailable, please retry later.")
+                .build();
     }
 }
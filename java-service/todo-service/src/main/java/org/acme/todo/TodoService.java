@@ -1,39 +1,155 @@
 // src/main/java/org/acme/todo/TodoService.java
 package org.acme.todo;
 
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
-import org.eclipse.microprofile.rest.client.inject.RestClient;
+import jakarta.ws.rs.WebApplicationException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
 
 /**
  * Service layer for managing Todo items.
- * This service interacts with the external Todo API via the TodoClient.
+ * Items are kept in the TodoStore selected by 'todo.store': the external Todo API via the
+ * TodoClient by default, the backend's database directly, or in this process.
+ * Lists are served from the per-user TodoCache, which mutations keep up to date.
+ * Concurrent identical reads share one backend call through the SingleFlight.
+ * Updates may be buffered and written behind (see WriteBehindBuffer); every other call that
+ * reaches the store first flushes the user's buffered updates.
  */
 @ApplicationScoped
 public class TodoService {
 
     @Inject
-    @RestClient // Injects the MicroProfile Rest Client
-    TodoClient todoClient;
+    Instance<TodoStore> stores;
+
+    TodoStore todoStore;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    BackendMetrics metrics;
+
+    @Inject
+    WriteBehindBuffer writeBehind;
+
+    @Inject
+    InsightsRefresher insightsRefresher;
+
+    @Inject
+    TodoEvents events;
+
+    @Inject
+    ChangeLog changeLog;
+
+    // Backend calls a single batch may have in flight at once
+    @ConfigProperty(name = "todo.batch.concurrency", defaultValue = "8")
+    int batchConcurrency = 8;
+
+    @ConfigProperty(name = "todo.batch.max-size", defaultValue = "500")
+    int batchMaxSize = 500;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService batchExecutor;
+
+    // Runs the aggregation of organization-wide insights, one task per core
+    ForkJoinPool insightsPool = ForkJoinPool.commonPool();
+
+    @PostConstruct
+    void selectStore() {
+        if (todoStore == null) {
+            todoStore = stores.get();
+        }
+    }
 
     /**
      * Retrieves all todo items for a specific user, identified by their email from IAP.
+     * Falls back to the last known list while the backend is unavailable.
      * @param userEmail The email of the user provided by the IAP header.
      * @return A list of TodoItem objects.
      */
     public List<TodoItem> findAllTodos(String userEmail) {
-        // Assumes TodoClient is updated to pass the user's email, e.g., in a header.
-        return todoClient.getTodos(userEmail);
+        try {
+            return todoCache.get(userEmail, this::loadTodos);
+        } catch (RuntimeException e) {
+            return lastKnown("get-all", todoCache.lastKnown(userEmail), e);
+        }
+    }
+
+    /**
+     * Retrieves one page of a user's todo items, filtered by the store.
+     * Pages are read from the store rather than the cache, so their cost scales with the page size.
+     * @param userEmail The email of the user.
+     * @param query The pagination and filters; must not ask for the full list.
+     * @return The page and the cursor of the next one.
+     * @throws BadRequestException if the store rejects the cursor.
+     */
+    public TodoPage findTodos(String userEmail, TodoQuery query) {
+        writeBehind.flush(userEmail);
+        try {
+            return todoStore.getTodoPage(userEmail, query);
+        } catch (WebApplicationException e) {
+            if (e.getResponse().getStatus() == 400) {
+                throw new BadRequestException("Invalid cursor.");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the changes of a user's todo items since a version the client got earlier, for delta sync.
+     * Without a version, or when the ChangeLog cannot answer for it, the full list is returned instead.
+     * The cached list is revalidated first, as for a full read: reloading an expired list logs the
+     * changes made straight in the store. The user's list is then kept fresh by the InsightsRefresher.
+     * @param userEmail The email of the user.
+     * @param since The version of the client's last sync, or null.
+     * @return A TodoChanges object with the version to ask from next time.
+     */
+    public TodoChanges findChanges(String userEmail, String since) {
+        insightsRefresher.touch(userEmail);
+        findAllTodos(userEmail);
+        ChangeLog.Delta delta = changeLog.since(userEmail, since);
+        if (delta != null) {
+            return TodoChanges.delta(changeLog.version(delta.version()), delta.changes());
+        }
+        // Tracked before reading, so the changes the snapshot misses are all logged after its version
+        String version = changeLog.version(changeLog.track(userEmail));
+        return TodoChanges.snapshot(version, findAllTodos(userEmail));
+    }
+
+    /**
+     * Searches the titles of a user's todo items with the per-user SearchIndex of the cached list.
+     * Falls back to the last known list while the backend is unavailable.
+     * @param userEmail The email of the user.
+     * @param query The words to look for; each also matches the words it is a prefix of.
+     * @param limit The most items to return.
+     * @return The matching items, best first.
+     */
+    public List<TodoItem> searchTodos(String userEmail, String query, int limit) {
+        try {
+            return todoCache.search(userEmail, query, limit, this::loadTodos);
+        } catch (RuntimeException e) {
+            return lastKnown("search", todoCache.lastKnownSearch(userEmail, query, limit), e);
+        }
     }
 
     /**
@@ -44,12 +160,13 @@ public class TodoService {
      * @throws NotFoundException if the todo item with the given ID is not found.
      */
     public TodoItem findTodoById(String userEmail, String todoId) {
+        writeBehind.flush(userEmail);
         try {
-            // The client would be updated to pass the userEmail and todoId.
-            return todoClient.getTodoById(userEmail, todoId);
+            return singleFlight.execute(SingleFlight.GET_TODO_BY_ID, userEmail, todoId,
+                    () -> todoStore.getTodoById(userEmail, todoId));
         } catch (jakarta.ws.rs.WebApplicationException e) {
             if (e.getResponse().getStatus() == 404) {
-                throw new NotFoundException("Todo item with ID " + todoId + " not found for user " + userEmail);
+                throw metrics.notFound("get-by-id", "Todo item with ID " + todoId + " not found.");
             }
             throw e; // Re-throw other exceptions
         }
@@ -65,8 +182,11 @@ public class TodoService {
         if (todoItem.getId() == null || todoItem.getId().isEmpty()) {
             todoItem.setId(UUID.randomUUID().toString()); // Assign a unique ID if not provided
         }
-        // The client would be updated to pass the userEmail.
-        return todoClient.createTodo(userEmail, todoItem);
+        TodoItem createdTodo = todoStore.createTodo(userEmail, todoItem);
+        singleFlight.forget(userEmail);
+        todoCache.itemCreated(userEmail, createdTodo);
+        events.created(userEmail, createdTodo);
+        return createdTodo;
     }
 
     /**
@@ -84,12 +204,22 @@ public class TodoService {
             // or simply use the path ID. For this example, we'll ensure they match.
             todoItem.setId(todoId);
         }
+        if (writeBehind.isEnabled()) {
+            // Acknowledged before the store sees it, so a missing item is looked for in the user's list
+            if (todoCache.get(userEmail, this::loadTodos).stream().noneMatch(todo -> todoId.equals(todo.getId()))) {
+                throw metrics.notFound("update", "Todo item with ID " + todoId + " not found for update.");
+            }
+            return writeBehind.enqueue(userEmail, todoId, todoItem);
+        }
         try {
-            // The client would be updated to pass the userEmail.
-            return todoClient.updateTodo(userEmail, todoId, todoItem);
+            TodoItem updatedTodo = todoStore.updateTodo(userEmail, todoId, todoItem);
+            singleFlight.forget(userEmail);
+            todoCache.itemUpdated(userEmail, updatedTodo);
+            events.updated(userEmail, updatedTodo);
+            return updatedTodo;
         } catch (jakarta.ws.rs.WebApplicationException e) {
             if (e.getResponse().getStatus() == 404) {
-                throw new NotFoundException("Todo item with ID " + todoId + " not found for update.");
+                throw metrics.notFound("update", "Todo item with ID " + todoId + " not found for update.");
             }
             throw e;
         }
@@ -102,59 +232,210 @@ public class TodoService {
      * @throws NotFoundException if the todo item with the given ID is not found.
      */
     public void deleteTodo(String userEmail, String todoId) {
+        writeBehind.flush(userEmail);
         try {
-            // The client would be updated to pass the userEmail.
-            todoClient.deleteTodo(userEmail, todoId);
+            todoStore.deleteTodo(userEmail, todoId);
+            singleFlight.forget(userEmail);
+            todoCache.itemDeleted(userEmail, todoId);
+            events.deleted(userEmail, todoId);
         } catch (jakarta.ws.rs.WebApplicationException e) {
             if (e.getResponse().getStatus() == 404) {
-                throw new NotFoundException("Todo item with ID " + todoId + " not found for deletion.");
+                throw metrics.notFound("delete", "Todo item with ID " + todoId + " not found for deletion.");
             }
             throw e;
         }
     }
 
     /**
-     * Generates insights from the list of all todo items for a specific user, identified by email.
+     * Returns insights about the todo list of a specific user, identified by email.
+     * The insights are maintained incrementally alongside the cached list, so this is
+     * a read of the current snapshot rather than a recomputation over all items.
+     * The user's list is then kept fresh in the background by the InsightsRefresher.
+     * Falls back to the last known insights while the backend is unavailable.
      * @param userEmail The email of the user.
      * @return A TodoInsights object containing statistics.
      */
     public TodoInsights getInsights(String userEmail) {
-        List<TodoItem> allTodos = findAllTodos(userEmail);
-
-        if (allTodos == null || allTodos.isEmpty()) {
-            return new TodoInsights(0, 0, 0.0, Collections.emptyMap());
-        }
-
-        long totalTasks = allTodos.size();
-        long completedTasks = allTodos.stream().filter(TodoItem::isCompleted).count();
-        double completionRatio = (totalTasks > 0) ? (double) completedTasks / totalTasks : 0.0;
-
-        // A simple list of common English "stop words" to exclude from keyword analysis.
-        List<String> stopWords = Arrays.asList(
-            "a", "an", "the", "to", "in", "on", "for", "with", "is", "of", "and", "buy", "get", "it", "me", "my", "i"
-        );
-
-        // Process titles to find the most common words
-        Map<String, Long> wordCounts = allTodos.stream()
-                .map(TodoItem::getTitle)
-                .flatMap(title -> Arrays.stream(title.toLowerCase().split("[^a-zA-Z0-9]+"))) // Split by non-alphanumeric
-                .filter(word -> !word.isEmpty() && !stopWords.contains(word)) // Filter out empty strings and stop words
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
-
-        // Get the top 5 most common words, sorted by frequency
-        Map<String, Long> topWords = wordCounts.entrySet().stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
-                        // Add a secondary sort by key to make the sort stable for ties
-                        .thenComparing(Map.Entry.comparingByKey())
-                )
-                .limit(5)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1, // In case of a tie, keep the first one
-                        java.util.LinkedHashMap::new // Preserve the sorted order
-                ));
-
-        return new TodoInsights(totalTasks, completedTasks, completionRatio, topWords);
+        insightsRefresher.touch(userEmail);
+        try {
+            return todoCache.insights(userEmail, this::loadTodos);
+        } catch (RuntimeException e) {
+            return lastKnown("get-insights", todoCache.lastKnownInsights(userEmail), e);
+        }
+    }
+
+    /**
+     * Reloads the list of a user from the store and returns the insights computed from it.
+     * Falls back to the last known insights while the backend is unavailable.
+     * @param userEmail The email of the user.
+     * @return A TodoInsights object containing statistics.
+     */
+    public TodoInsights refreshInsights(String userEmail) {
+        insightsRefresher.touch(userEmail);
+        try {
+            TodoInsights previous = todoCache.builtInsights(userEmail);
+            TodoInsights insights = todoCache.refresh(userEmail, this::loadTodos);
+            if (insights != null) {
+                publishIfChanged(userEmail, previous, insights);
+                return insights;
+            }
+            // Changed while reloading: load once more, through the cache
+            todoCache.invalidate(userEmail);
+            return todoCache.insights(userEmail, this::loadTodos);
+        } catch (RuntimeException e) {
+            return lastKnown("get-insights", todoCache.lastKnownInsights(userEmail), e);
+        }
+    }
+
+    /**
+     * Replaces the cached list of a user with a fresh copy from the store, see {@link TodoCache#refresh}.
+     * @return false if the cached list changed while reloading, and was left as it is.
+     */
+    boolean reload(String userEmail) {
+        TodoInsights previous = todoCache.builtInsights(userEmail);
+        TodoInsights insights = todoCache.refresh(userEmail, this::loadTodos);
+        publishIfChanged(userEmail, previous, insights);
+        return insights != null;
+    }
+
+    private void publishIfChanged(String userEmail, TodoInsights previous, TodoInsights insights) {
+        if (insights != null && !insights.equals(previous)) {
+            events.insightsChanged(userEmail, insights);
+        }
+    }
+
+    /**
+     * @return Whether the store can read the items of all users, which getOrgInsights needs.
+     */
+    public boolean hasOrgInsights() {
+        return todoStore.readsAllTodos();
+    }
+
+    /**
+     * Returns insights about the todo items of all users: completion ratio, most common words and
+     * time to complete. All items are read from the store in one go, bypassing the per-user cache,
+     * and per-user partials are aggregated in parallel on the insights pool (see OrgInsightsAggregate).
+     * Updates still buffered by the WriteBehindBuffer are not counted yet.
+     * @return An OrgInsights object containing statistics.
+     * @throws WebApplicationException with status 501 if the store cannot read all users' items.
+     */
+    public OrgInsights getOrgInsights() {
+        List<List<TodoItem>> todosPerUser = new ArrayList<>(todoStore.getAllTodos().values());
+        return OrgInsightsAggregate.compute(todosPerUser, insightsPool);
+    }
+
+    /**
+     * Applies a list of create, update and delete operations for a specific user.
+     * The operations are pipelined to the backend with at most 'todo.batch.concurrency' calls in flight,
+     * except that operations on the same item run one after the other, in batch order.
+     * A failing operation does not stop the others: its result carries the status and error instead.
+     * @param userEmail The email of the user.
+     * @param operations The operations to apply.
+     * @return One BatchResult per operation, in the order of the operations.
+     * @throws BadRequestException if the batch holds more than 'todo.batch.max-size' operations.
+     */
+    public List<BatchResult> executeBatch(String userEmail, List<BatchOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return List.of();
+        }
+        if (operations.size() > batchMaxSize) {
+            throw new BadRequestException("A batch holds at most " + batchMaxSize + " operations.");
+        }
+        // Group the operations per item; creates get their ID now so later operations can refer to it
+        Map<String, List<Integer>> chains = new LinkedHashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            BatchOperation operation = operations.get(i);
+            String key = null;
+            if (operation != null && operation.getOp() == BatchOperation.Type.CREATE && operation.getItem() != null) {
+                TodoItem item = operation.getItem();
+                if (item.getId() == null || item.getId().isEmpty()) {
+                    item.setId(UUID.randomUUID().toString());
+                }
+                key = item.getId();
+            } else if (operation != null && operation.getOp() != null) {
+                key = operation.getId();
+            }
+            chains.computeIfAbsent(key != null ? key : "#" + i, k -> new ArrayList<>()).add(i);
+        }
+
+        BatchResult[] results = new BatchResult[operations.size()];
+        Semaphore permits = new Semaphore(batchConcurrency);
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[chains.size()];
+        int task = 0;
+        for (List<Integer> chain : chains.values()) {
+            tasks[task++] = CompletableFuture.runAsync(() -> {
+                for (int index : chain) {
+                    permits.acquireUninterruptibly();
+                    try {
+                        results[index] = apply(userEmail, index, operations.get(index));
+                    } finally {
+                        permits.release();
+                    }
+                }
+            }, batchExecutor);
+        }
+        CompletableFuture.allOf(tasks).join();
+        return Arrays.asList(results);
+    }
+
+    private BatchResult apply(String userEmail, int index, BatchOperation operation) {
+        if (operation == null || operation.getOp() == null) {
+            return BatchResult.failure(index, null, null, 400, "Missing operation type.");
+        }
+        BatchOperation.Type op = operation.getOp();
+        String id = op == BatchOperation.Type.CREATE && operation.getItem() != null
+                ? operation.getItem().getId() : operation.getId();
+        if ((op != BatchOperation.Type.CREATE && id == null) || (op != BatchOperation.Type.DELETE && operation.getItem() == null)) {
+            return BatchResult.failure(index, op, id, 400, "Missing " + (id == null ? "id" : "item") + " for " + op.name().toLowerCase() + ".");
+        }
+        try {
+            switch (op) {
+                case CREATE:
+                    return BatchResult.success(index, op, id, 201, createTodo(userEmail, operation.getItem()));
+                case UPDATE:
+                    return BatchResult.success(index, op, id, 200, updateTodo(userEmail, id, operation.getItem()));
+                default:
+                    deleteTodo(userEmail, id);
+                    return BatchResult.success(index, op, id, 204, null);
+            }
+        } catch (WebApplicationException e) {
+            return BatchResult.failure(index, op, id, e.getResponse().getStatus(), e.getMessage());
+        } catch (RuntimeException e) {
+            // The backend could not be reached or answered garbage
+            return BatchResult.failure(index, op, id, 502, e.getMessage());
+        }
+    }
+
+    /**
+     * Answers a read with the last known data if the backend call was rejected by the
+     * TodoClient's fault tolerance policies, e.g. while its circuit breaker is open.
+     */
+    private <T> T lastKnown(String operation, T lastKnown, RuntimeException failure) {
+        if (lastKnown == null || BackendMetrics.rejection(failure) == null) {
+            throw failure;
+        }
+        metrics.stale(operation);
+        return lastKnown;
+    }
+
+    private List<TodoItem> loadTodos(String userEmail) {
+        writeBehind.flush(userEmail);
+        return singleFlight.execute(SingleFlight.GET_TODOS, userEmail, null, () -> {
+            long loadedAfter = changeLog.current();
+            List<TodoItem> loaded = todoStore.getTodos(userEmail);
+            events.reloaded(userEmail, todoCache.lastKnown(userEmail), loaded, loadedAfter);
+            return loaded;
+        });
+    }
+
+    /**
+     * Tells whether a failure of a TodoClient call is the backend reporting a missing item.
+     * @param failure The failure raised by the client.
+     * @return true for a 404 response.
+     */
+    static boolean isNotFound(Throwable failure) {
+        return failure instanceof jakarta.ws.rs.WebApplicationException e
+                && e.getResponse() != null
+                && e.getResponse().getStatus() == 404;
     }
 }
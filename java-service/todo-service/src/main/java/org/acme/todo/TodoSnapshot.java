@@ -0,0 +1,252 @@
+// src/main/java/org/acme/todo/TodoSnapshot.java
+package org.acme.todo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot file of the MemoryTodoStore, written and read through memory-mapped windows, so
+ * neither side copies the data through a stream buffer.
+ * Layout: a header (magic, LSN of the last log record it covers), the items grouped per user,
+ * the users, and a footer (counts, next item ID, CRC32C of the items and users, magic).
+ * The snapshot is fuzzy: items are read while writes go on, so it may already hold some changes
+ * logged after its LSN. Replaying those records again is harmless, they set an item's state.
+ */
+final class TodoSnapshot {
+
+    static final String SUFFIX = ".snap";
+
+    private static final int MAGIC = 0x54445331; // "TDS1"
+    private static final int HEADER = 4 + 8;
+    private static final int FOOTER = 8 + 4 + 4 + 4 + 4;
+    private static final int ITEM = 4 + 4 + 8 + 8 + 1 + 4;
+    private static final int WINDOW = 64 << 20;
+
+    /**
+     * Receives the contents of a snapshot, users after their items.
+     */
+    interface Sink {
+
+        void item(MemoryTodoStore.Entry entry);
+
+        void user(int userId, String email);
+    }
+
+    /**
+     * What the footer of a snapshot says, once its contents were read.
+     */
+    record Summary(long lsn, int nextId, long items, int users) {
+    }
+
+    private TodoSnapshot() {
+    }
+
+    static String fileName(long lsn) {
+        return String.format("%020d", lsn) + SUFFIX;
+    }
+
+    /**
+     * Writes the items and users of the store. The file is complete once this returns, not before:
+     * write to a temporary name and rename it.
+     */
+    static Summary write(Path file, long lsn, Collection<MemoryTodoStore.Owner> owners, MemoryTodoStore store) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.reserve(HEADER);
+            out.window.putInt(MAGIC).putLong(lsn);
+            out.crcFrom = out.window.position();
+            long items = 0;
+            int users = 0;
+            for (MemoryTodoStore.Owner owner : owners) {
+                for (MemoryTodoStore.Entry entry : owner.items.values()) {
+                    byte[] title = entry.title().getBytes(StandardCharsets.UTF_8);
+                    out.reserve(ITEM + title.length);
+                    out.window.putInt(entry.id()).putInt(entry.userId())
+                              .putLong(entry.createdAt()).putLong(entry.completedAt())
+                              .put((byte) (entry.completed() ? 1 : 0))
+                              .putInt(title.length).put(title);
+                    items++;
+                }
+            }
+            for (MemoryTodoStore.Owner owner : owners) {
+                byte[] email = owner.email.getBytes(StandardCharsets.UTF_8);
+                out.reserve(4 + 4 + email.length);
+                out.window.putInt(owner.id).putInt(email.length).put(email);
+                users++;
+            }
+            // Read after the items, so it is above every ID they hold
+            int nextId = store.nextId();
+            out.reserve(FOOTER);
+            out.checksum();
+            out.window.putLong(items).putInt(users).putInt(nextId).putInt((int) out.crc.getValue()).putInt(MAGIC);
+            long size = out.close();
+            channel.truncate(size);
+            channel.force(true);
+            return new Summary(lsn, nextId, items, users);
+        }
+    }
+
+    /**
+     * Reads a snapshot into the sink.
+     * @throws IllegalStateException if the file is not a complete snapshot.
+     */
+    static Summary read(Path file, Sink sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER + FOOTER) {
+                throw damaged(file, "too short");
+            }
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, size - FOOTER, FOOTER);
+            long items = footer.getLong();
+            int users = footer.getInt();
+            int nextId = footer.getInt();
+            int checksum = footer.getInt();
+            if (footer.getInt() != MAGIC) {
+                throw damaged(file, "no footer");
+            }
+            Input in = new Input(channel, size - FOOTER);
+            in.require(HEADER);
+            if (in.window.getInt() != MAGIC) {
+                throw damaged(file, "no header");
+            }
+            long lsn = in.window.getLong();
+            in.crcFrom = in.window.position();
+            for (long i = 0; i < items; i++) {
+                in.require(ITEM);
+                int id = in.window.getInt();
+                int userId = in.window.getInt();
+                long createdAt = in.window.getLong();
+                long completedAt = in.window.getLong();
+                boolean completed = in.window.get() != 0;
+                String title = in.string(in.window.getInt());
+                sink.item(new MemoryTodoStore.Entry(id, userId, title, completed, createdAt, completedAt));
+            }
+            for (int i = 0; i < users; i++) {
+                in.require(8);
+                int userId = in.window.getInt();
+                sink.user(userId, in.string(in.window.getInt()));
+            }
+            in.checksum();
+            if ((int) in.crc.getValue() != checksum) {
+                throw damaged(file, "bad checksum");
+            }
+            return new Summary(lsn, nextId, items, users);
+        }
+    }
+
+    private static IllegalStateException damaged(Path file, String reason) {
+        return new IllegalStateException("Snapshot " + file + " is damaged: " + reason);
+    }
+
+    /**
+     * A window mapped over the file at 'start'; moved forward when a record does not fit.
+     * Bytes from 'crcFrom' up to the position are checksummed when the window moves.
+     */
+    private abstract static class Window {
+
+        final FileChannel channel;
+        final CRC32C crc = new CRC32C();
+        MappedByteBuffer window;
+        long start;
+        int crcFrom;
+
+        Window(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void checksum() {
+            crc.update(window.slice(crcFrom, window.position() - crcFrom));
+            crcFrom = window.position();
+        }
+
+        void moveTo(long position, int length) throws IOException {
+            if (window != null) {
+                checksum();
+                finish();
+            }
+            start = position;
+            window = map(position, length);
+            crcFrom = 0;
+        }
+
+        long position() {
+            return window == null ? 0 : start + window.position();
+        }
+
+        abstract MappedByteBuffer map(long position, int length) throws IOException;
+
+        void finish() {
+        }
+    }
+
+    private static final class Output extends Window {
+
+        Output(FileChannel channel) {
+            super(channel);
+        }
+
+        void reserve(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                moveTo(position(), Math.max(WINDOW, bytes));
+            }
+        }
+
+        @Override
+        MappedByteBuffer map(long position, int length) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+        }
+
+        @Override
+        void finish() {
+            window.force();
+        }
+
+        long close() {
+            finish();
+            return position();
+        }
+    }
+
+    private static final class Input extends Window {
+
+        private final long end;
+
+        Input(FileChannel channel, long end) {
+            super(channel);
+            this.end = end;
+        }
+
+        void require(int bytes) throws IOException {
+            if (window == null || window.remaining() < bytes) {
+                long position = position();
+                if (end - position < bytes) {
+                    throw new IllegalStateException("Snapshot is damaged: truncated at " + position);
+                }
+                moveTo(position, (int) Math.min(end - position, Math.max(WINDOW, bytes)));
+            }
+        }
+
+        String string(int length) throws IOException {
+            if (length < 0) {
+                throw new IllegalStateException("Snapshot is damaged: bad length at " + position());
+            }
+            require(length);
+            byte[] bytes = new byte[length];
+            window.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        MappedByteBuffer map(long position, int length) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+// src/main/java/org/acme/todo/TodoStore.java
+package org.acme.todo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where the TodoService keeps todo items, selected with 'todo.store':
+ * - rest (default): RestTodoStore, the Node.js backend through the TodoClient.
+ * - jdbc: JdbcTodoStore, the backend's Postgres database directly, saving a network hop.
+ * - memory: MemoryTodoStore, in this process with a write-ahead log, for single-node deployments.
+ * Every call but getAllTodos is scoped to the user identified by email. Failures are reported the way the
+ * backend reports them: a WebApplicationException with status 404 for a missing item,
+ * 400 for invalid input, 501 for a call the store cannot serve.
+ */
+public interface TodoStore {
+
+    /**
+     * @return All todo items of the user, newest first.
+     */
+    List<TodoItem> getTodos(String userEmail);
+
+    /**
+     * @return One page of the user's todo items, newest first.
+     */
+    TodoPage getTodoPage(String userEmail, TodoQuery query);
+
+    /**
+     * @return The todo item with the given ID.
+     */
+    TodoItem getTodoById(String userEmail, String id);
+
+    /**
+     * @return The created todo item, as stored.
+     */
+    TodoItem createTodo(String userEmail, TodoItem todoItem);
+
+    /**
+     * @return The updated todo item, as stored.
+     */
+    TodoItem updateTodo(String userEmail, String id, TodoItem todoItem);
+
+    void deleteTodo(String userEmail, String id);
+
+    /**
+     * Reads the todo items of every user at once, for organization-wide insights.
+     * @return The todo items of each user by email, users without items included.
+     */
+    Map<String, List<TodoItem>> getAllTodos();
+
+    /**
+     * @return Whether getAllTodos is supported; if not, it fails with status 501.
+     */
+    default boolean readsAllTodos() {
+        return true;
+    }
+}
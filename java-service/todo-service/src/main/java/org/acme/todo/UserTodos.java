@@ -0,0 +1,103 @@
+// src/main/java/org/acme/todo/UserTodos.java
+package org.acme.todo;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cached entry of the TodoCache: an immutable snapshot of one user's todo list,
+ * plus the insights aggregate and search index derived from it.
+ * Each is only built when first needed, and is then handed from one snapshot to the next as
+ * mutations are applied.
+ * Every snapshot gets a new version, which TodoResource hands out as ETag, except that a reload
+ * finding the same list keeps the snapshot's version.
+ * Snapshots patched by this service's own mutations keep the time their list was loaded
+ * from the store, which tells how fresh the snapshot is with respect to other writers.
+ */
+final class UserTodos {
+
+    // Versions restart with the process, so they are qualified by a random epoch to never
+    // match a tag handed out by an earlier run or by another replica.
+    private static final String EPOCH = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final List<TodoItem> items;
+    private final long version;
+    private final Instant loadedAt;
+    private InsightsAggregate insights; // guarded by this
+    private SearchIndex search; // guarded by this
+
+    UserTodos(List<TodoItem> items, InsightsAggregate insights, SearchIndex search, Instant loadedAt) {
+        this(items, insights, search, loadedAt, VERSIONS.incrementAndGet());
+    }
+
+    private UserTodos(List<TodoItem> items, InsightsAggregate insights, SearchIndex search, Instant loadedAt, long version) {
+        this.items = items;
+        this.insights = insights;
+        this.search = search;
+        this.loadedAt = loadedAt;
+        this.version = version;
+    }
+
+    /**
+     * Returns this snapshot as loaded again from the store at the given time, for a reload that
+     * found the same list. It keeps the version, so ETags handed out for it still match.
+     */
+    synchronized UserTodos reloaded(Instant loadedAt) {
+        return new UserTodos(items, insights, search, loadedAt, version);
+    }
+
+    List<TodoItem> items() {
+        return items;
+    }
+
+    /**
+     * Returns when the list of this snapshot was loaded from the store.
+     */
+    Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * Returns the opaque version of this snapshot, unique across snapshots and processes.
+     */
+    String version() {
+        return EPOCH + "-" + version;
+    }
+
+    /**
+     * Returns the insights aggregate of this snapshot, building it on first use.
+     */
+    synchronized InsightsAggregate insights() {
+        if (insights == null) {
+            insights = InsightsAggregate.of(items);
+        }
+        return insights;
+    }
+
+    /**
+     * Returns the insights aggregate if it has been built, or null.
+     */
+    synchronized InsightsAggregate builtInsights() {
+        return insights;
+    }
+
+    /**
+     * Returns the search index of this snapshot, building it on first use.
+     */
+    synchronized SearchIndex search() {
+        if (search == null) {
+            search = SearchIndex.of(items);
+        }
+        return search;
+    }
+
+    /**
+     * Returns the search index if it has been built, or null.
+     */
+    synchronized SearchIndex builtSearch() {
+        return search;
+    }
+}
@@ -0,0 +1,274 @@
+// src/main/java/org/acme/todo/WordCounter.java
+package org.acme.todo;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Open-addressing hash table from words to int counts.
+ * Words are looked up straight from a char buffer, so counting a word that is already known
+ * allocates nothing; a String is only created the first time a word is seen.
+ * Uses linear probing with backward-shift deletion, so counts can also go down to zero.
+ * Instances are not thread-safe.
+ */
+public final class WordCounter {
+
+    private String[] words;
+    private int[] hashes;
+    private int[] counts;
+    private int mask;
+    private int size;
+
+    public WordCounter() {
+        this(16);
+    }
+
+    public WordCounter(int expectedWords) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedWords) * 2 - 1) << 1;
+        words = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Counts one more occurrence of a word.
+     */
+    public void increment(char[] chars, int length) {
+        add(chars, length, 1);
+    }
+
+    /**
+     * Adjusts the count of a word, removing it once its count drops to zero.
+     * @return The slot of the word after the update, or -1 if it is no longer present.
+     */
+    public int add(char[] chars, int length, int delta) {
+        int hash = hash(chars, length);
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String word = words[slot];
+            if (word == null) {
+                if (delta <= 0) {
+                    return -1;
+                }
+                words[slot] = new String(chars, 0, length);
+                hashes[slot] = hash;
+                counts[slot] = delta;
+                if (++size * 2 > words.length) {
+                    grow();
+                    return find(chars, length);
+                }
+                return slot;
+            }
+            if (hashes[slot] == hash && matches(word, chars, length)) {
+                int count = counts[slot] + delta;
+                if (count > 0) {
+                    counts[slot] = count;
+                    return slot;
+                }
+                delete(slot);
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * @return The slot of a word, or -1 if it has not been counted.
+     */
+    public int find(char[] chars, int length) {
+        int hash = hash(chars, length);
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String word = words[slot];
+            if (word == null) {
+                return -1;
+            }
+            if (hashes[slot] == hash && matches(word, chars, length)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of another counter to this one, reusing its words and hashes.
+     */
+    public void addAll(WordCounter other) {
+        for (int slot = 0; slot < other.words.length; slot++) {
+            String word = other.words[slot];
+            if (word != null) {
+                add(word, other.hashes[slot], other.counts[slot]);
+            }
+        }
+    }
+
+    private void add(String word, int hash, int count) {
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            String known = words[slot];
+            if (known == null) {
+                words[slot] = word;
+                hashes[slot] = hash;
+                counts[slot] = count;
+                if (++size * 2 > words.length) {
+                    grow();
+                }
+                return;
+            }
+            if (hashes[slot] == hash && known.equals(word)) {
+                counts[slot] += count;
+                return;
+            }
+        }
+    }
+
+    public String wordAt(int slot) {
+        return words[slot];
+    }
+
+    public int countAt(int slot) {
+        return counts[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the most frequent words, ordered by count descending and then by word ascending.
+     * Selection uses a bounded heap of k slots, so only the winners are ever sorted.
+     * @param k The maximum number of words to return.
+     * @return The top words with their counts, in rank order.
+     */
+    public Map<String, Long> top(int k) {
+        if (size == 0 || k <= 0) {
+            return Collections.emptyMap();
+        }
+        // Min-heap on rank: the root is the weakest of the current top k.
+        int[] heap = new int[Math.min(k, size)];
+        int heapSize = 0;
+        for (int slot = 0; slot < words.length; slot++) {
+            if (words[slot] == null) {
+                continue;
+            }
+            if (heapSize < heap.length) {
+                heap[heapSize] = slot;
+                siftUp(heap, heapSize++);
+            } else if (outranks(slot, heap[0])) {
+                heap[0] = slot;
+                siftDown(heap, heapSize);
+            }
+        }
+        // Drain the heap weakest first, filling the result from the back.
+        int[] ranked = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ranked[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i);
+        }
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (int slot : ranked) {
+            top.put(words[slot], (long) counts[slot]);
+        }
+        return top;
+    }
+
+    /** True if the word in slot a ranks before the word in slot b. */
+    private boolean outranks(int a, int b) {
+        if (counts[a] != counts[b]) {
+            return counts[a] > counts[b];
+        }
+        return words[a].compareTo(words[b]) < 0;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!outranks(heap[parent], heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int weakest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < heapSize && outranks(heap[weakest], heap[left])) {
+                weakest = left;
+            }
+            if (right < heapSize && outranks(heap[weakest], heap[right])) {
+                weakest = right;
+            }
+            if (weakest == index) {
+                return;
+            }
+            swap(heap, index, weakest);
+            index = weakest;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    private void delete(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & mask; words[next] != null; next = (next + 1) & mask) {
+            int ideal = hashes[next] & mask;
+            // The entry at 'next' may move back into the gap if the gap lies on its probe path.
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                words[gap] = words[next];
+                hashes[gap] = hashes[next];
+                counts[gap] = counts[next];
+                gap = next;
+            }
+        }
+        words[gap] = null;
+        size--;
+    }
+
+    private void grow() {
+        String[] oldWords = words;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        words = new String[oldWords.length * 2];
+        hashes = new int[words.length];
+        counts = new int[words.length];
+        mask = words.length - 1;
+        for (int i = 0; i < oldWords.length; i++) {
+            if (oldWords[i] != null) {
+                int slot = oldHashes[i] & mask;
+                while (words[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                words[slot] = oldWords[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private static int hash(char[] chars, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + chars[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String word, char[] chars, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
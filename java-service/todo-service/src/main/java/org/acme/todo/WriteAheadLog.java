@@ -0,0 +1,347 @@
+// src/main/java/org/acme/todo/WriteAheadLog.java
+package org.acme.todo;
+
+import org.jboss.logging.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of the MemoryTodoStore's changes, in segments named after their first record's
+ * sequence number (LSN). A record is framed as length, CRC32C and LSN, then the payload.
+ * Group commit: appending only buffers the record; {@link #sync} makes it durable. The first
+ * caller to sync writes and fsyncs everything buffered so far, while the callers arriving
+ * meanwhile wait and are covered by the next write, so one fsync serves many records.
+ * A failed write leaves the log failed: whatever was buffered may be lost, so every later
+ * append or sync throws instead of reporting durability it cannot promise.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(WriteAheadLog.class);
+
+    static final String SUFFIX = ".wal";
+
+    // Length, CRC and LSN
+    private static final int FRAME = 4 + 4 + 8;
+
+    private final Path directory;
+    private final boolean fsync;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    // Guarded by the lock
+    private FileChannel channel;
+    private long segmentStart;
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spare = ByteBuffer.allocate(64 * 1024);
+    private long appended;
+    private long durable;
+    private boolean flushing;
+    private IOException failure;
+
+    // Read by metrics without the lock
+    private volatile long syncs;
+    private volatile long records;
+
+    /**
+     * Opens a new segment after the last record recovered by {@link #replay}.
+     * @param fsync Whether a sync forces the records to the disk, or only hands them to the OS.
+     */
+    WriteAheadLog(Path directory, long lastLsn, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.appended = lastLsn;
+        this.durable = lastLsn;
+        openSegment(lastLsn + 1);
+    }
+
+    /**
+     * Buffers a record. It is not durable before a {@link #sync} with its LSN returns.
+     * @return The LSN of the record.
+     */
+    long append(byte[] payload) {
+        lock.lock();
+        try {
+            checkNotFailed();
+            if (pending.remaining() < FRAME + payload.length) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + FRAME + payload.length));
+                pending.flip();
+                pending = larger.put(pending);
+            }
+            long lsn = ++appended;
+            CRC32C crc = new CRC32C();
+            crc.update((int) (lsn >>> 32));
+            crc.update((int) lsn);
+            crc.update(payload);
+            pending.putInt(payload.length).putInt((int) crc.getValue()).putLong(lsn).put(payload);
+            return lsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the record with the given LSN, and every one before it, is durable.
+     * @throws UncheckedIOException if the log could not be written.
+     */
+    void sync(long lsn) {
+        lock.lock();
+        try {
+            while (durable < lsn) {
+                checkNotFailed();
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                // Lead this batch: take the buffered records, write them without the lock
+                flushing = true;
+                ByteBuffer batch = pending;
+                pending = spare;
+                long target = appended;
+                FileChannel out = channel;
+                lock.unlock();
+                IOException error = null;
+                try {
+                    write(out, batch);
+                } catch (IOException e) {
+                    error = e;
+                } finally {
+                    lock.lock();
+                }
+                spare = batch;
+                flushing = false;
+                flushed.signalAll();
+                if (error != null) {
+                    failure = error;
+                    checkNotFailed();
+                }
+                records += target - durable;
+                syncs++;
+                durable = target;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes everything appended durable and starts a new segment, so the older segments can be
+     * deleted once a snapshot covers them. The caller must keep new records from being appended.
+     * @return The LSN of the last record before the new segment.
+     */
+    long rotate() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            checkNotFailed();
+            try {
+                write(channel, pending);
+                channel.force(true);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+            durable = appended;
+            channel.close();
+            openSegment(appended + 1);
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments whose records are all at or before the given LSN.
+     */
+    void deleteThrough(long lsn) throws IOException {
+        List<Segment> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            long next = i + 1 < segments.size() ? segments.get(i + 1).start() : Long.MAX_VALUE;
+            if (segments.get(i).start() != segmentStart && next - 1 <= lsn) {
+                Files.deleteIfExists(segments.get(i).file());
+            }
+        }
+    }
+
+    /** @return The LSN of the last record appended. */
+    long lastLsn() {
+        lock.lock();
+        try {
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return The number of writes to the log so far. */
+    long syncs() {
+        return syncs;
+    }
+
+    /** @return The number of records made durable so far; divided by {@link #syncs()}, the size of a group commit. */
+    long records() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            while (flushing) {
+                flushed.awaitUninterruptibly();
+            }
+            if (!channel.isOpen()) {
+                return;
+            }
+            if (failure == null) {
+                write(channel, pending);
+                channel.force(true);
+                durable = appended;
+            }
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Feeds the payloads of the records after the given LSN to 'apply', in order.
+     * A torn record at the end of the last segment, left by a crash in the middle of a write,
+     * is cut off: it was never reported durable.
+     * @return The LSN of the last record read, or 'after' if none is newer.
+     * @throws IllegalStateException if a record before the end is damaged or missing.
+     */
+    static long replay(Path directory, long after, Consumer<ByteBuffer> apply) throws IOException {
+        List<Segment> segments = segments(directory);
+        long last = after;
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            boolean isLast = i == segments.size() - 1;
+            long valid = 0;
+            try (InputStream file = Files.newInputStream(segment.file());
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(file, 1 << 16))) {
+                long expected = segment.start();
+                while (true) {
+                    int length;
+                    try {
+                        length = in.readInt();
+                    } catch (EOFException end) {
+                        break;
+                    }
+                    String damage = null;
+                    byte[] payload = null;
+                    long lsn = -1;
+                    try {
+                        int checksum = in.readInt();
+                        lsn = in.readLong();
+                        if (length < 0 || length > 1 << 30) {
+                            damage = "bad length " + length;
+                        } else {
+                            payload = new byte[length];
+                            in.readFully(payload);
+                            CRC32C crc = new CRC32C();
+                            crc.update((int) (lsn >>> 32));
+                            crc.update((int) lsn);
+                            crc.update(payload);
+                            if ((int) crc.getValue() != checksum) {
+                                damage = "bad checksum";
+                            } else if (lsn != expected) {
+                                damage = "LSN " + lsn + " instead of " + expected;
+                            }
+                        }
+                    } catch (EOFException torn) {
+                        damage = "truncated record";
+                    }
+                    if (damage != null) {
+                        if (!isLast) {
+                            throw new IllegalStateException("Write-ahead log segment " + segment.file()
+                                    + " is damaged at offset " + valid + ": " + damage);
+                        }
+                        LOG.warnf("Cutting off the write-ahead log %s at offset %d: %s", segment.file(), valid, damage);
+                        break;
+                    }
+                    valid += FRAME + length;
+                    expected++;
+                    if (lsn > after) {
+                        apply.accept(ByteBuffer.wrap(payload));
+                        last = lsn;
+                    }
+                }
+            }
+            if (isLast && valid < Files.size(segment.file())) {
+                try (FileChannel out = FileChannel.open(segment.file(), StandardOpenOption.WRITE)) {
+                    out.truncate(valid);
+                }
+            }
+        }
+        return last;
+    }
+
+    private void openSegment(long start) throws IOException {
+        segmentStart = start;
+        channel = FileChannel.open(directory.resolve(segmentName(start)),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void write(FileChannel out, ByteBuffer batch) throws IOException {
+        batch.flip();
+        try {
+            while (batch.hasRemaining()) {
+                out.write(batch);
+            }
+            if (fsync) {
+                out.force(false);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("The write-ahead log failed, writes are refused", failure);
+        }
+    }
+
+    /**
+     * Zero-padded, so segments sort by name in LSN order.
+     */
+    static String segmentName(long start) {
+        return String.format("%020d", start) + SUFFIX;
+    }
+
+    private record Segment(long start, Path file) {
+    }
+
+    private static List<Segment> segments(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                 .sorted()
+                 .forEach(file -> {
+                     String name = file.getFileName().toString();
+                     segments.add(new Segment(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file));
+                 });
+        }
+        return segments;
+    }
+}
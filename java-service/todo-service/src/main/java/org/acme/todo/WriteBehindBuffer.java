@@ -0,0 +1,302 @@
+// src/main/java/org/acme/todo/WriteBehindBuffer.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for todo updates, enabled with 'todo.write-behind.enabled'.
+ * An update is acknowledged as soon as it is buffered and applied to the TodoCache; repeated
+ * updates of the same item are collapsed into one. A user's buffered updates are written to the
+ * TodoStore once 'todo.write-behind.max-batch' items are pending, or at the latest after
+ * 'todo.write-behind.flush-interval', and on shutdown.
+ * Ordering, per user:
+ * - Updates are written one after the other, in the order their items were first buffered,
+ *   each with the last state buffered for it. Only one flush of a user runs at a time.
+ * - Any other TodoService or ReactiveTodoService call that reaches the store first waits for the
+ *   user's buffered updates to be written (see {@link #flush(String)}), so reads, deletes and
+ *   updates written through never overtake them.
+ * A buffered update the store rejects (e.g. the item was deleted meanwhile) is dropped and
+ * logged, and the user's cached list is dropped so the next read shows the store's state.
+ * Metrics, published on the management port at /q/metrics:
+ * - todo.write-behind.pending: items with a buffered update.
+ * - todo.write-behind.coalesced: updates collapsed into one already buffered.
+ * - todo.write-behind.flush: duration of a user's flush.
+ * - todo.write-behind.lag: time from buffering an update to writing it.
+ * - todo.write-behind.failures: buffered updates the store rejected.
+ */
+@ApplicationScoped
+public class WriteBehindBuffer {
+
+    private static final Logger LOG = Logger.getLogger(WriteBehindBuffer.class);
+
+    @ConfigProperty(name = "todo.write-behind.enabled", defaultValue = "false")
+    boolean enabled;
+
+    @ConfigProperty(name = "todo.write-behind.max-batch", defaultValue = "50")
+    int maxBatch = 50;
+
+    @ConfigProperty(name = "todo.write-behind.flush-interval", defaultValue = "250ms")
+    Duration flushInterval = Duration.ofMillis(250);
+
+    @Inject
+    Instance<TodoStore> stores;
+
+    TodoStore todoStore;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    TodoEvents events;
+
+    @Inject
+    SingleFlight singleFlight;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    @VirtualThreads
+    ExecutorService flushExecutor;
+
+    private final ConcurrentHashMap<String, UserUpdates> users = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void init() {
+        if (todoStore == null) {
+            todoStore = stores.get();
+        }
+        registry.gauge("todo.write-behind.pending", pending);
+        if (enabled) {
+            ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "todo-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = flushInterval.toMillis();
+            ticker.scheduleWithFixedDelay(this::flushDue, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers an update and applies it to the cached list.
+     * The caller checks that the item exists: the store is only asked once the update is acknowledged.
+     * @param userEmail The email of the user.
+     * @param todoId The ID of the updated item.
+     * @param todoItem The new state of the item; a null title keeps the title.
+     * @return The item as it will be written, completed with the cached copy where known.
+     */
+    public TodoItem enqueue(String userEmail, String todoId, TodoItem todoItem) {
+        long now = System.nanoTime();
+        TodoItem cached = todoCache.item(userEmail, todoId);
+        Update[] buffered = new Update[2];
+        // Only the buffer is touched while the map holds the user's bin
+        UserUpdates user = users.compute(userEmail, (key, current) -> {
+            UserUpdates updates = current != null ? current : new UserUpdates();
+            synchronized (updates) {
+                Update previous = updates.updates.get(todoId);
+                if (previous == null) {
+                    pending.incrementAndGet();
+                    buffered[0] = new Update(todoItem, now);
+                } else {
+                    if (todoItem.getTitle() == null) {
+                        todoItem.setTitle(previous.item().getTitle());
+                    }
+                    // Keeps the item's place in the write order and the age of its oldest change
+                    buffered[0] = new Update(todoItem, previous.enqueuedAt());
+                }
+                updates.updates.put(todoId, buffered[0]);
+                buffered[1] = previous;
+            }
+            return updates;
+        });
+        if (buffered[1] != null) {
+            registry.counter("todo.write-behind.coalesced").increment();
+        }
+        TodoItem acknowledged = acknowledged(cached, todoId, todoItem);
+        synchronized (user) {
+            // Once superseded by a newer update, or taken by a flush, those patch the cache instead
+            if (user.updates.get(todoId) == buffered[0]) {
+                todoCache.itemUpdated(userEmail, acknowledged);
+                events.updated(userEmail, acknowledged);
+            }
+        }
+        if (user.size() >= maxBatch) {
+            flushExecutor.execute(() -> flushIfIdle(userEmail));
+        }
+        return acknowledged;
+    }
+
+    /**
+     * Writes the buffered updates of a user and waits until they, and any flush of the user
+     * already running, are done. Returns at once when nothing is buffered for the user.
+     */
+    public void flush(String userEmail) {
+        UserUpdates user = userEmail != null ? users.get(userEmail) : null;
+        if (user != null) {
+            user.flushing.lock();
+            drain(userEmail, user);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #flush(String)}, used by the reactive pipeline: completes at
+     * once when nothing is buffered for the user, and otherwise flushes on a worker thread.
+     */
+    public Uni<Void> flushAsync(String userEmail) {
+        if (userEmail == null || !users.containsKey(userEmail)) {
+            return Uni.createFrom().voidItem();
+        }
+        return Uni.createFrom().<Void>item(() -> {
+            flush(userEmail);
+            return null;
+        }).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    /**
+     * Drains every buffer when the application stops.
+     */
+    void onStop(@Observes ShutdownEvent event) {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        for (String userEmail : new ArrayList<>(users.keySet())) {
+            flush(userEmail);
+        }
+    }
+
+    void flushDue() {
+        try {
+            for (String userEmail : users.keySet()) {
+                flushExecutor.execute(() -> flushIfIdle(userEmail));
+            }
+        } catch (RuntimeException e) {
+            // Keeps the ticker alive, e.g. while the executor shuts down
+            LOG.warn("Could not schedule write-behind flushes", e);
+        }
+    }
+
+    private void flushIfIdle(String userEmail) {
+        UserUpdates user = users.get(userEmail);
+        // A running flush picks up whatever was buffered meanwhile
+        if (user != null && user.flushing.tryLock()) {
+            drain(userEmail, user);
+        }
+    }
+
+    /**
+     * Writes the user's buffered updates until none are left, then releases the flush lock.
+     */
+    private void drain(String userEmail, UserUpdates user) {
+        try {
+            List<Map.Entry<String, Update>> batch;
+            while (!(batch = user.take()).isEmpty()) {
+                pending.addAndGet(-batch.size());
+                Timer.Sample flush = Timer.start(registry);
+                for (Map.Entry<String, Update> update : batch) {
+                    write(userEmail, user, update.getKey(), update.getValue());
+                }
+                flush.stop(registry.timer("todo.write-behind.flush"));
+            }
+        } finally {
+            user.flushing.unlock();
+            users.computeIfPresent(userEmail, (key, current) -> current.isIdle() ? null : current);
+        }
+    }
+
+    private void write(String userEmail, UserUpdates user, String todoId, Update update) {
+        try {
+            TodoItem updated = todoStore.updateTodo(userEmail, todoId, update.item());
+            singleFlight.forget(userEmail);
+            synchronized (user) {
+                // A newer buffered state of the item stays in the cache until it is written too
+                if (!user.updates.containsKey(todoId)) {
+                    todoCache.itemUpdated(userEmail, updated);
+                    events.updated(userEmail, updated);
+                }
+            }
+        } catch (RuntimeException e) {
+            registry.counter("todo.write-behind.failures").increment();
+            LOG.warnf("Dropped buffered update of todo %s: %s", todoId, e.getMessage());
+            singleFlight.forget(userEmail);
+            todoCache.invalidate(userEmail);
+            // Subscribers were told about the update when it was buffered
+            events.reset(userEmail);
+        } finally {
+            registry.timer("todo.write-behind.lag").record(System.nanoTime() - update.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static TodoItem acknowledged(TodoItem cached, String todoId, TodoItem todoItem) {
+        if (cached == null) {
+            return todoItem;
+        }
+        return new TodoItem(todoId,
+                todoItem.getTitle() != null ? todoItem.getTitle() : cached.getTitle(),
+                todoItem.isCompleted(),
+                cached.getUserId(),
+                cached.getCreatedAt(),
+                todoItem.isCompleted() == cached.isCompleted() ? cached.getCompletedAt()
+                        : todoItem.isCompleted() ? OffsetDateTime.now() : null);
+    }
+
+    private record Update(TodoItem item, long enqueuedAt) {
+    }
+
+    /**
+     * The buffered updates of one user, in write order. Guarded by the instance itself,
+     * except the flush lock which is held for a whole flush.
+     */
+    private static final class UserUpdates {
+
+        final ReentrantLock flushing = new ReentrantLock();
+        final LinkedHashMap<String, Update> updates = new LinkedHashMap<>();
+
+        synchronized int size() {
+            return updates.size();
+        }
+
+        synchronized List<Map.Entry<String, Update>> take() {
+            List<Map.Entry<String, Update>> batch = new ArrayList<>(updates.size());
+            updates.forEach((todoId, update) -> batch.add(Map.entry(todoId, update)));
+            updates.clear();
+            return batch;
+        }
+
+        synchronized boolean isIdle() {
+            return updates.isEmpty() && !flushing.isLocked();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+// src/test/java/org/acme/todo/BackendHttpClientOptionsTest.java
+package org.acme.todo;
+
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpVersion;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the client options each 'todo.backend.protocol' stands for.
+ */
+public class BackendHttpClientOptionsTest {
+
+    @Test
+    void testHttp1() {
+        HttpClientOptions options = configure("http1");
+
+        assertEquals(HttpVersion.HTTP_1_1, options.getProtocolVersion());
+        assertFalse(options.isPipelining());
+        assertEquals(2000, options.getPoolCleanerPeriod());
+    }
+
+    @Test
+    void testPipelined() {
+        HttpClientOptions options = configure("Pipelined");
+
+        assertEquals(HttpVersion.HTTP_1_1, options.getProtocolVersion());
+        assertTrue(options.isPipelining());
+        assertEquals(8, options.getPipeliningLimit());
+    }
+
+    @Test
+    void testHttp2() {
+        HttpClientOptions options = configure("http2");
+
+        assertEquals(HttpVersion.HTTP_2, options.getProtocolVersion());
+        assertTrue(options.isHttp2ClearTextUpgrade());
+        assertEquals(200, options.getHttp2MultiplexingLimit());
+    }
+
+    @Test
+    void testUnknownProtocol() {
+        assertThrows(IllegalArgumentException.class, () -> BackendHttpClientOptions.protocol("spdy"));
+    }
+
+    private static HttpClientOptions configure(String protocol) {
+        return BackendHttpClientOptions.configure(new HttpClientOptions(),
+                BackendHttpClientOptions.protocol(protocol), 8, 200, 2000);
+    }
+}
@@ -0,0 +1,112 @@
+// src/test/java/org/acme/todo/BackendMetricsTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Tests of the backend call metrics against a stub of the backend, since mocked clients bypass
+ * the BackendCallInterceptor.
+ */
+@QuarkusTest
+@TestProfile(BackendMetricsTest.StubBackend.class)
+public class BackendMetricsTest {
+
+    private static final int STUB_PORT = 8090;
+    private static final String USER_EMAIL = "user@example.com";
+
+    public static class StubBackend implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.rest-client.todo-api.url", "http://localhost:" + STUB_PORT);
+        }
+    }
+
+    private static final CountDownLatch slowCallReceived = new CountDownLatch(1);
+    private static final CountDownLatch releaseSlowCall = new CountDownLatch(1);
+    private static Vertx vertx;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        vertx = Vertx.vertx();
+        vertx.createHttpServer().requestHandler(request -> {
+            var response = request.response().putHeader("Content-Type", "application/json");
+            switch (request.path()) {
+                case "/todos/2" -> {
+                    slowCallReceived.countDown();
+                    vertx.executeBlocking(() -> releaseSlowCall.await(10, TimeUnit.SECONDS))
+                            .onComplete(released -> response.end("{\"id\":2,\"title\":\"Slow\",\"completed\":false}"));
+                }
+                case "/todos/3" -> response.end("{\"id\":3,\"title\":\"Fast\",\"completed\":false}");
+                default -> response.setStatusCode(404).end("{\"error\":\"Todo not found\"}");
+            }
+        }).listen(STUB_PORT).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    static void stopStub() throws Exception {
+        releaseSlowCall.countDown();
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testNotFoundIsCountedPerOperation() {
+        double before = registry.counter("todo.backend.not-found", "operation", "get-by-id").count();
+
+        getTodo("1").then().statusCode(404);
+
+        assertEquals(before + 1, registry.counter("todo.backend.not-found", "operation", "get-by-id").count());
+        assertEquals(1, clientTimer("getTodoById", "404").count());
+    }
+
+    @Test
+    void testLatencyPercentilesPerClientMethodAndEndpoint() {
+        getTodo("3").then().statusCode(200);
+
+        Timer client = clientTimer("getTodoById", "2xx");
+        assertEquals(MetricsConfiguration.PERCENTILES.length, client.takeSnapshot().percentileValues().length);
+
+        Timer server = registry.find("http.server.requests").tags("uri", "/todos/{id}", "status", "200").timer();
+        assertNotNull(server);
+        assertEquals(MetricsConfiguration.PERCENTILES.length, server.takeSnapshot().percentileValues().length);
+    }
+
+    @Test
+    void testInFlightGauge() throws Exception {
+        CompletableFuture<Integer> slow = CompletableFuture.supplyAsync(() -> getTodo("2").statusCode());
+        slowCallReceived.await(10, TimeUnit.SECONDS);
+
+        assertEquals(1, registry.get("todo.backend.in-flight").gauge().value());
+        releaseSlowCall.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS));
+        assertEquals(0, registry.get("todo.backend.in-flight").gauge().value());
+    }
+
+    private Timer clientTimer(String method, String status) {
+        return registry.get("todo.client.requests").tags("client", "TodoClient", "method", method, "status", status).timer();
+    }
+
+    private static io.restassured.response.Response getTodo(String id) {
+        return given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).when().get("/todos/" + id);
+    }
+}
@@ -0,0 +1,193 @@
+// src/test/java/org/acme/todo/ConditionalGetTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.EntityTag;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests for the ETag / If-None-Match handling of GET /todos and GET /todos/insights.
+ * Mocks the TodoClient, so the cache and its versions are the real ones.
+ */
+@QuarkusTest
+public class ConditionalGetTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(
+                new TodoItem("1", "Buy groceries", false),
+                new TodoItem("2", "Walk the dog", true)));
+    }
+
+    @Test
+    void testMatchingIfNoneMatchSkipsTheBackend() {
+        String etag = getTodos(null).statusCode(200).header("ETag", notNullValue()).extract().header("ETag");
+        double notModifiedBefore = responses("get-all", 304);
+
+        getTodos(etag)
+             .statusCode(304)
+             .header("ETag", is(etag))
+             .body(is(""));
+
+        assertEquals(notModifiedBefore + 1, responses("get-all", 304));
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testMutationChangesTheETag() {
+        String etag = getTodos(null).extract().header("ETag");
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(new TodoItem("3", "Write tests", false));
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .contentType("application/json")
+          .body(new TodoItem(null, "Write tests", false))
+          .when().post("/todos")
+          .then()
+             .statusCode(201);
+
+        String changed = getTodos(etag)
+             .statusCode(200)
+             .body("size()", is(3))
+             .extract().header("ETag");
+        assertNotEquals(etag, changed);
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testEvictedListIsReloadedUnderANewETag() {
+        String etag = getTodos(null).extract().header("ETag");
+        todoCache.invalidate(USER_EMAIL);
+
+        getTodos(etag)
+             .statusCode(200)
+             .header("ETag", not(is(etag)));
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testUnchangedReloadKeepsTheETag() {
+        String etag = getTodos(null).extract().header("ETag");
+        var loadedAt = todoCache.loadedAt(USER_EMAIL);
+
+        assertTrue(todoService.reload(USER_EMAIL));
+
+        getTodos(etag)
+             .statusCode(304)
+             .header("ETag", is(etag));
+        assertFalse(todoCache.loadedAt(USER_EMAIL).isBefore(loadedAt));
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testChangedReloadKeepsInsightsAndSearchUpToDate() {
+        String etag = getTodos(null).extract().header("ETag");
+        assertEquals(1, todoService.searchTodos(USER_EMAIL, "dog", 10).size());
+        assertEquals(2, todoService.getInsights(USER_EMAIL).getTotalTasks());
+        // Changed by another client, straight in the backend
+        var reloaded = Arrays.asList(new TodoItem("3", "Feed the cat", false), new TodoItem("1", "Buy groceries", true));
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(reloaded);
+
+        assertTrue(todoService.reload(USER_EMAIL));
+
+        getTodos(etag)
+             .statusCode(200)
+             .header("ETag", not(is(etag)))
+             .body("size()", is(2));
+        assertEquals(InsightsCalculator.compute(reloaded), todoService.getInsights(USER_EMAIL));
+        assertTrue(todoService.searchTodos(USER_EMAIL, "dog", 10).isEmpty());
+        assertEquals("3", todoService.searchTodos(USER_EMAIL, "cat", 10).get(0).getId());
+    }
+
+    @Test
+    void testInsightsHaveTheirOwnETag() {
+        String listTag = getTodos(null).extract().header("ETag");
+        String insightsTag = given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .header("If-None-Match", listTag)
+          .when().get("/todos/insights")
+          .then()
+             .statusCode(200)
+             .body("totalTasks", is(2))
+             .extract().header("ETag");
+        assertNotEquals(listTag, insightsTag);
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .header("If-None-Match", "\"other\", W/" + insightsTag)
+          .when().get("/todos/insights")
+          .then()
+             .statusCode(304);
+    }
+
+    @Test
+    void testNoETagWithoutUser() {
+        Mockito.when(todoClient.getTodos(null)).thenReturn(Arrays.asList(new TodoItem("1", "Buy groceries", false)));
+
+        given()
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .header("ETag", nullValue());
+    }
+
+    @Test
+    void testMatches() {
+        EntityTag tag = new EntityTag("abc-1");
+        assertTrue(ConditionalGet.matches("\"abc-1\"", tag));
+        assertTrue(ConditionalGet.matches("W/\"abc-1\"", tag));
+        assertTrue(ConditionalGet.matches("\"x\", \"abc-1\"", tag));
+        assertTrue(ConditionalGet.matches("*", tag));
+        assertFalse(ConditionalGet.matches("\"abc-10\"", tag));
+        assertFalse(ConditionalGet.matches("abc-1", tag));
+    }
+
+    private ValidatableResponse getTodos(String ifNoneMatch) {
+        var request = given().header("X-Goog-Authenticated-User-Email", USER_EMAIL);
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return request.when().get("/todos").then();
+    }
+
+    private double responses(String endpoint, int status) {
+        return meterRegistry.counter("todo.conditional.responses", "endpoint", endpoint, "status", String.valueOf(status)).count();
+    }
+}
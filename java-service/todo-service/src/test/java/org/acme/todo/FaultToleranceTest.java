@@ -0,0 +1,141 @@
+// src/test/java/org/acme/todo/FaultToleranceTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the TodoClient's timeouts, circuit breaker and the stale fallbacks, against a stub
+ * backend that can be switched to answer slower than the timeout.
+ * Fault tolerance config keys name the class generated for the REST client, TodoClient$$CDIWrapper.
+ */
+@QuarkusTest
+@TestProfile(FaultToleranceTest.SlowBackend.class)
+public class FaultToleranceTest {
+
+    private static final int STUB_PORT = 8091;
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String NEW_USER_EMAIL = "new@example.com";
+
+    public static class SlowBackend implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.rest-client.todo-api.url", "http://localhost:" + STUB_PORT,
+                    "org.acme.todo.TodoClient$$CDIWrapper/getTodos/Timeout/value", "1000",
+                    "org.acme.todo.TodoClient$$CDIWrapper/CircuitBreaker/requestVolumeThreshold", "4",
+                    "org.acme.todo.TodoClient$$CDIWrapper/CircuitBreaker/delay", "60000");
+        }
+    }
+
+    private static final AtomicBoolean slow = new AtomicBoolean();
+    private static final AtomicInteger listCalls = new AtomicInteger();
+    private static Vertx vertx;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        vertx = Vertx.vertx();
+        vertx.createHttpServer().requestHandler(request -> {
+            var response = request.response().putHeader("Content-Type", "application/json");
+            if (!request.path().equals("/todos")) {
+                response.setStatusCode(404).end("{\"error\":\"Todo not found\"}");
+                return;
+            }
+            listCalls.incrementAndGet();
+            String body = "[{\"id\":2,\"title\":\"Walk the dog\",\"completed\":true},"
+                    + "{\"id\":1,\"title\":\"Buy groceries\",\"completed\":false}]";
+            if (slow.get()) {
+                vertx.setTimer(3000, timer -> response.end(body));
+            } else {
+                response.end(body);
+            }
+        }).listen(STUB_PORT).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    static void stopStub() throws Exception {
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testSlowBackendOpensTheCircuitAndReadsServeLastKnownData() {
+        getTodos(USER_EMAIL).statusCode(200).body("size()", is(2));
+        getInsights(USER_EMAIL).statusCode(200).body("completedTasks", is(1));
+        todoCache.invalidate(USER_EMAIL);
+        slow.set(true);
+
+        // The backend call times out; the last known list is served
+        getTodos(USER_EMAIL).statusCode(200).body("size()", is(2)).header("ETag", is((String) null));
+        assertEquals(1, stale("get-all"));
+        // Nothing to fall back to
+        getTodos(NEW_USER_EMAIL).statusCode(503).header("Retry-After", notNullValue());
+
+        for (int i = 0; i < 10 && opened() == 0; i++) {
+            getTodos(NEW_USER_EMAIL).statusCode(503);
+        }
+        assertEquals(1, opened());
+
+        // The open circuit fails fast, without calling the backend
+        int calls = listCalls.get();
+        long start = System.nanoTime();
+        getTodos(USER_EMAIL).statusCode(200).body("size()", is(2));
+        getInsights(USER_EMAIL).statusCode(200).body("totalTasks", is(2)).body("completedTasks", is(1));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+        assertEquals(calls, listCalls.get());
+        assertEquals(1, stale("get-insights"));
+    }
+
+    @Test
+    void testNotFoundDoesNotOpenTheCircuit() {
+        for (int i = 0; i < 30; i++) {
+            given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+              .when().get("/todos/missing-" + i)
+              .then()
+                 .statusCode(404);
+        }
+    }
+
+    private double opened() {
+        return registry.find("ft.circuitbreaker.opened.total").counters().stream()
+                .filter(counter -> counter.getId().getTag("method").endsWith("TodoClient$$CDIWrapper.getTodos"))
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private double stale(String operation) {
+        return registry.counter("todo.backend.stale-responses", "operation", operation).count();
+    }
+
+    private static io.restassured.response.ValidatableResponse getTodos(String userEmail) {
+        return given().header("X-Goog-Authenticated-User-Email", userEmail).when().get("/todos").then();
+    }
+
+    private static io.restassured.response.ValidatableResponse getInsights(String userEmail) {
+        return given().header("X-Goog-Authenticated-User-Email", userEmail).when().get("/todos/insights").then();
+    }
+}
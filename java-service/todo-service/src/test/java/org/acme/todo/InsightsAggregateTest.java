@@ -0,0 +1,104 @@
+// src/test/java/org/acme/todo/InsightsAggregateTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Consistency checks of the incremental InsightsAggregate against a full recompute
+ * with InsightsCalculator.
+ */
+public class InsightsAggregateTest {
+
+    private static final String[] WORDS = {
+        "walk", "dog", "the", "buy", "milk", "clean", "house", "Call", "mom", "a", "pay", "bills", "2024"
+    };
+
+    @Test
+    void testMatchesFullRecomputeOfInitialList() {
+        List<TodoItem> todos = Arrays.asList(
+            new TodoItem("1", "Walk the dog", true),
+            new TodoItem("2", "Buy milk and dog food", false),
+            new TodoItem("3", "Clean the house", false)
+        );
+
+        assertSameInsights(InsightsCalculator.compute(todos), InsightsAggregate.of(todos).snapshot());
+    }
+
+    @Test
+    void testEmptyListMatchesFullRecompute() {
+        InsightsAggregate aggregate = InsightsAggregate.of(new ArrayList<>());
+        TodoItem todo = new TodoItem("1", "Walk the dog", false);
+        aggregate.add(todo);
+        aggregate.remove(todo);
+
+        assertSameInsights(InsightsCalculator.compute(new ArrayList<>()), aggregate.snapshot());
+    }
+
+    @Test
+    void testRandomMutationsMatchFullRecompute() {
+        Random random = new Random(42);
+        List<TodoItem> todos = new ArrayList<>();
+        InsightsAggregate aggregate = InsightsAggregate.of(todos);
+
+        for (int i = 0; i < 2_000; i++) {
+            int action = todos.isEmpty() ? 0 : random.nextInt(3);
+            if (action == 0) {
+                TodoItem created = new TodoItem(String.valueOf(i), randomTitle(random), random.nextBoolean());
+                todos.add(created);
+                aggregate.add(created);
+            } else if (action == 1) {
+                int index = random.nextInt(todos.size());
+                TodoItem previous = todos.get(index);
+                TodoItem updated = new TodoItem(previous.getId(), randomTitle(random), !previous.isCompleted());
+                todos.set(index, updated);
+                aggregate.replace(previous, updated);
+            } else {
+                aggregate.remove(todos.remove(random.nextInt(todos.size())));
+            }
+            assertSameInsights(InsightsCalculator.compute(todos), aggregate.snapshot());
+        }
+    }
+
+    @Test
+    void testCacheRebuildsDriftedAggregate() {
+        TodoCache cache = new TodoCache();
+        cache.registry = new SimpleMeterRegistry();
+        List<TodoItem> todos = List.of(new TodoItem("1", "Walk the dog", true), new TodoItem("2", "Buy milk", false));
+
+        InsightsAggregate consistent = InsightsAggregate.of(todos);
+        assertSame(consistent, cache.verified("user@example.com", todos, consistent));
+
+        // Missed the deletion of an item
+        InsightsAggregate drifted = InsightsAggregate.of(todos);
+        InsightsAggregate repaired = cache.verified("user@example.com", todos.subList(0, 1), drifted);
+        assertNotSame(drifted, repaired);
+        assertSameInsights(InsightsCalculator.compute(todos.subList(0, 1)), repaired.snapshot());
+        assertEquals(1, cache.registry.counter("todo.insights.drift").count());
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = 1 + random.nextInt(5);
+        for (int i = 0; i < words; i++) {
+            title.append(WORDS[random.nextInt(WORDS.length)]).append(random.nextBoolean() ? " " : ", ");
+        }
+        return title.toString();
+    }
+
+    private static void assertSameInsights(TodoInsights expected, TodoInsights actual) {
+        assertEquals(expected, actual);
+        // The order of the top words is part of the contract, not just their counts
+        assertEquals(new ArrayList<>(expected.getMostCommonWords().keySet()),
+                     new ArrayList<>(actual.getMostCommonWords().keySet()));
+    }
+}
@@ -0,0 +1,82 @@
+// src/test/java/org/acme/todo/InsightsCalculatorTest.java
+package org.acme.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that InsightsCalculator reports the same top words, in the same tie-break order,
+ * as the stream-based computation TodoService.getInsights originally used.
+ */
+public class InsightsCalculatorTest {
+
+    @Test
+    void testTiesAreOrderedByWord() {
+        List<TodoItem> todos = Arrays.asList(
+            new TodoItem("1", "zebra yak xray", false),
+            new TodoItem("2", "walrus vole urchin", true),
+            new TodoItem("3", "tapir zebra", false)
+        );
+
+        TodoInsights insights = InsightsCalculator.compute(todos);
+
+        assertEquals(reference(todos), insights);
+        assertEquals(Arrays.asList("zebra", "tapir", "urchin", "vole", "walrus"),
+                     new ArrayList<>(insights.getMostCommonWords().keySet()));
+    }
+
+    @Test
+    void testRandomListsMatchReference() {
+        Random random = new Random(3);
+        for (int round = 0; round < 500; round++) {
+            List<TodoItem> todos = new ArrayList<>();
+            int size = random.nextInt(50);
+            for (int i = 0; i < size; i++) {
+                StringBuilder title = new StringBuilder();
+                int words = random.nextInt(6);
+                for (int j = 0; j < words; j++) {
+                    // A small vocabulary produces plenty of ties
+                    title.append((char) ('a' + random.nextInt(12))).append(random.nextInt(3)).append(' ');
+                }
+                todos.add(new TodoItem(String.valueOf(i), title.toString(), random.nextBoolean()));
+            }
+            TodoInsights insights = InsightsCalculator.compute(todos);
+            TodoInsights expected = reference(todos);
+            assertEquals(expected, insights);
+            assertEquals(new ArrayList<>(expected.getMostCommonWords().keySet()),
+                         new ArrayList<>(insights.getMostCommonWords().keySet()));
+        }
+    }
+
+    // The computation TodoService.getInsights originally used.
+    private static TodoInsights reference(List<TodoItem> allTodos) {
+        if (allTodos == null || allTodos.isEmpty()) {
+            return new TodoInsights(0, 0, 0.0, Map.of());
+        }
+        long totalTasks = allTodos.size();
+        long completedTasks = allTodos.stream().filter(TodoItem::isCompleted).count();
+        double completionRatio = (double) completedTasks / totalTasks;
+        Map<String, Long> wordCounts = allTodos.stream()
+                .map(TodoItem::getTitle)
+                .flatMap(title -> Arrays.stream(title.toLowerCase().split("[^a-zA-Z0-9]+")))
+                .filter(word -> !word.isEmpty() && !TitleTokenizer.STOP_WORDS.contains(word))
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<String, Long> topWords = wordCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (e1, e2) -> e1, LinkedHashMap::new));
+        return new TodoInsights(totalTasks, completedTasks, completionRatio, topWords);
+    }
+}
@@ -0,0 +1,142 @@
+// src/test/java/org/acme/todo/InsightsRefresherTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the background refresh of insights and GET /todos/insights?refresh=true.
+ * The refresh interval is long enough for the ticker never to fire during a test; runs are
+ * triggered by calling the ticker's task directly.
+ */
+@QuarkusTest
+@TestProfile(InsightsRefresherTest.Refresh.class)
+public class InsightsRefresherTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String IDLE_USER_EMAIL = "idle@example.com";
+
+    public static class Refresh implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "todo.insights.refresh.enabled", "true",
+                    "todo.insights.refresh.interval", "1H");
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    InsightsRefresher refresher;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(List.of(
+                new TodoItem("1", "Buy groceries", false),
+                new TodoItem("2", "Walk the dog", true)));
+    }
+
+    @Test
+    void testActiveUsersAreReloadedInTheBackground() {
+        Instant first = Instant.parse(getInsights(USER_EMAIL, false).statusCode(200)
+                .body("totalTasks", is(2))
+                .extract().header(ConditionalGet.INSIGHTS_AS_OF_HEADER));
+        // Another client of the backend adds an item
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(List.of(
+                new TodoItem("3", "Water plants", false),
+                new TodoItem("1", "Buy groceries", false),
+                new TodoItem("2", "Walk the dog", true)));
+        double refreshed = users("refreshed");
+
+        // Loaded just now, so not due yet
+        refresher.refreshDue();
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+
+        todoCache.invalidate(USER_EMAIL);
+        refresher.refreshDue();
+
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+        assertEquals(refreshed + 1, users("refreshed"));
+        assertEquals(0, registry.get("todo.insights.refresh.backlog").gauge().value());
+        assertTrue(registry.get("todo.insights.refresh.duration").timer().count() >= 2);
+        // Served from the refreshed snapshot, without a backend call
+        Instant second = Instant.parse(getInsights(USER_EMAIL, false)
+                .statusCode(200)
+                .body("totalTasks", is(3))
+                .extract().header(ConditionalGet.INSIGHTS_AS_OF_HEADER));
+        assertTrue(second.isAfter(first));
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testUsersWithoutInsightsAreNotRefreshed() {
+        Mockito.when(todoClient.getTodos(IDLE_USER_EMAIL)).thenReturn(List.of());
+        given().header("X-Goog-Authenticated-User-Email", IDLE_USER_EMAIL).when().get("/todos").then().statusCode(200);
+        todoCache.invalidate(IDLE_USER_EMAIL);
+
+        refresher.refreshDue();
+
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(IDLE_USER_EMAIL);
+    }
+
+    @Test
+    void testForcedRefreshReloadsSynchronously() {
+        String etag = getInsights(USER_EMAIL, false).statusCode(200).extract().header("ETag");
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(List.of(new TodoItem("1", "Buy groceries", true)));
+
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).header("If-None-Match", etag)
+          .when().get("/todos/insights?refresh=true")
+          .then()
+             .statusCode(200)
+             .header("ETag", notNullValue())
+             .header(ConditionalGet.INSIGHTS_AS_OF_HEADER, notNullValue())
+             .body("totalTasks", is(1))
+             .body("completedTasks", is(1));
+
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+        // The list endpoint sees the reloaded list too
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .body("size()", is(1));
+    }
+
+    private double users(String result) {
+        return registry.counter("todo.insights.refresh.users", "result", result).count();
+    }
+
+    private static io.restassured.response.ValidatableResponse getInsights(String userEmail, boolean refresh) {
+        return given().header("X-Goog-Authenticated-User-Email", userEmail)
+                .when().get("/todos/insights" + (refresh ? "?refresh=true" : "")).then();
+    }
+}
@@ -0,0 +1,199 @@
+// src/test/java/org/acme/todo/JdbcTodoStoreTest.java
+package org.acme.todo;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the TodoService on top of the JdbcTodoStore, against an in-memory H2 database
+ * in PostgreSQL mode holding the backend's schema.
+ */
+@QuarkusTest
+@TestProfile(JdbcTodoStoreTest.JdbcStore.class)
+public class JdbcTodoStoreTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String OTHER_EMAIL = "other@example.com";
+
+    public static class JdbcStore implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("todo.store", "jdbc");
+        }
+    }
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    ReactiveTodoService reactiveTodoService;
+
+    @Inject
+    Instance<TodoStore> stores;
+
+    @Inject
+    AgroalDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        todoCache.invalidateAll();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM todos");
+        }
+    }
+
+    @Test
+    void testStoreIsSelectedByConfig() {
+        assertInstanceOf(JdbcTodoStore.class, stores.get());
+    }
+
+    @Test
+    void testCreateUpdateAndDelete() {
+        TodoItem created = todoService.createTodo(USER_EMAIL, new TodoItem(null, "  Buy groceries ", false));
+        assertEquals("Buy groceries", created.getTitle());
+        assertFalse(created.isCompleted());
+        assertNotNull(created.getCreatedAt());
+        assertNull(created.getCompletedAt());
+
+        TodoItem updated = todoService.updateTodo(USER_EMAIL, created.getId(), new TodoItem(created.getId(), "Buy milk", true));
+        assertEquals("Buy milk", updated.getTitle());
+        assertTrue(updated.isCompleted());
+        assertNotNull(updated.getCompletedAt());
+        assertEquals(updated.getTitle(), todoService.findTodoById(USER_EMAIL, created.getId()).getTitle());
+
+        todoService.deleteTodo(USER_EMAIL, created.getId());
+        assertThrows(NotFoundException.class, () -> todoService.findTodoById(USER_EMAIL, created.getId()));
+        assertThrows(NotFoundException.class, () -> todoService.deleteTodo(USER_EMAIL, created.getId()));
+    }
+
+    @Test
+    void testReactivePipelineUsesTheStore() {
+        TodoItem created = reactiveTodoService.createTodo(USER_EMAIL, new TodoItem(null, "Buy groceries", false))
+                .await().indefinitely();
+        assertEquals("Buy groceries", todoService.findTodoById(USER_EMAIL, created.getId()).getTitle());
+
+        todoService.updateTodo(USER_EMAIL, created.getId(), new TodoItem(created.getId(), "Buy milk", true));
+        assertTrue(reactiveTodoService.findTodoById(USER_EMAIL, created.getId()).await().indefinitely().isCompleted());
+        assertEquals(List.of("Buy milk"), reactiveTodoService.exportTodos(USER_EMAIL)
+                .map(TodoItem::getTitle).collect().asList().await().indefinitely());
+
+        reactiveTodoService.deleteTodo(USER_EMAIL, created.getId()).await().indefinitely();
+        assertThrows(NotFoundException.class, () -> todoService.findTodoById(USER_EMAIL, created.getId()));
+        assertThrows(NotFoundException.class,
+                () -> reactiveTodoService.findTodoById(USER_EMAIL, created.getId()).await().indefinitely());
+    }
+
+    @Test
+    void testItemsAreScopedToTheUser() {
+        TodoItem mine = todoService.createTodo(USER_EMAIL, new TodoItem(null, "Mine", false));
+        todoService.createTodo(OTHER_EMAIL, new TodoItem(null, "Theirs", false));
+
+        List<TodoItem> todos = todoService.findAllTodos(USER_EMAIL);
+        assertEquals(1, todos.size());
+        assertEquals("Mine", todos.get(0).getTitle());
+        assertThrows(NotFoundException.class, () -> todoService.findTodoById(OTHER_EMAIL, mine.getId()));
+        assertThrows(NotFoundException.class, () -> todoService.updateTodo(OTHER_EMAIL, mine.getId(), new TodoItem(null, "Stolen", true)));
+        assertThrows(NotFoundException.class, () -> todoService.deleteTodo(OTHER_EMAIL, mine.getId()));
+        assertThrows(NotFoundException.class, () -> todoService.findTodoById(USER_EMAIL, "not-a-number"));
+    }
+
+    @Test
+    void testFindTodosWalksThePages() {
+        for (int i = 0; i < 5; i++) {
+            todoService.createTodo(USER_EMAIL, new TodoItem(null, "Todo " + i, false));
+        }
+        List<TodoItem> all = todoService.findAllTodos(USER_EMAIL);
+        assertEquals(5, all.size());
+
+        List<String> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TodoPage page = todoService.findTodos(USER_EMAIL, new TodoQuery(2, cursor, null, null));
+            page.getItems().forEach(item -> walked.add(item.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(all.stream().map(TodoItem::getId).toList(), walked);
+    }
+
+    @Test
+    void testFindTodosFiltersByCompleted() {
+        TodoItem done = todoService.createTodo(USER_EMAIL, new TodoItem(null, "Done", false));
+        todoService.updateTodo(USER_EMAIL, done.getId(), new TodoItem(null, null, true));
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Open", false));
+
+        TodoPage page = todoService.findTodos(USER_EMAIL, new TodoQuery(null, null, true, null));
+        assertEquals(1, page.getItems().size());
+        assertEquals("Done", page.getItems().get(0).getTitle());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void testInvalidInputIsRejected() {
+        assertThrows(BadRequestException.class, () -> todoService.findTodos(USER_EMAIL, new TodoQuery(2, "garbage", null, null)));
+        assertThrows(BadRequestException.class, () -> todoService.createTodo(USER_EMAIL, new TodoItem(null, " ", false)));
+    }
+
+    @Test
+    void testOrgInsightsCoverAllUsers() throws Exception {
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Water the plants", false));
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Walk the dog", false));
+        todoService.createTodo(OTHER_EMAIL, new TodoItem(null, "Water the garden", false));
+        int users;
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE todos SET completed = TRUE,"
+                    + " created_at = TIMESTAMP WITH TIME ZONE '2025-06-01 12:00:00+00',"
+                    + " completed_at = TIMESTAMP WITH TIME ZONE '2025-06-01 13:30:00+00' WHERE title = 'Water the plants'");
+            try (ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM users")) {
+                count.next();
+                users = count.getInt(1);
+            }
+        }
+
+        given().header("X-Goog-Authenticated-User-Email", "admin@example.com")
+          .when().get("/admin/insights")
+          .then()
+             .statusCode(200)
+             .body("users", is(users),
+                   "totalTasks", is(3),
+                   "completedTasks", is(1),
+                   "mostCommonWords.water", is(2),
+                   "timeToComplete.count", is(1),
+                   "timeToComplete.minSeconds", is(5400),
+                   "timeToComplete.p50Seconds", is(5400));
+    }
+
+    @Test
+    void testOrgInsightsAreReservedToAdmins() {
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/admin/insights")
+          .then()
+             .statusCode(403);
+        given().when().get("/admin/insights").then().statusCode(401);
+    }
+}
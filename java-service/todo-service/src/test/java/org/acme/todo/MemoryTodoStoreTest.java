@@ -0,0 +1,235 @@
+// src/test/java/org/acme/todo/MemoryTodoStoreTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the MemoryTodoStore: the backend's rules, and recovery from the write-ahead log and
+ * snapshots after the store is closed, as after a restart. Snapshots are taken by calling the
+ * ticker's task directly.
+ */
+public class MemoryTodoStoreTest {
+
+    private static final String USER_EMAIL = "memory@example.com";
+
+    @TempDir
+    Path directory;
+
+    private final List<MemoryTodoStore> opened = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(MemoryTodoStore::close);
+    }
+
+    @Test
+    void testFollowsTheBackendRules() {
+        MemoryTodoStore store = open(false);
+        TodoItem first = store.createTodo(USER_EMAIL, new TodoItem(null, "  Water the plants ", true));
+        TodoItem second = store.createTodo(USER_EMAIL, new TodoItem(null, "Walk the dog", false));
+
+        assertEquals("1", first.getId());
+        assertEquals("Water the plants", first.getTitle());
+        assertFalse(first.isCompleted());
+        assertNotNull(first.getCreatedAt());
+        assertEquals(List.of("2", "1"), ids(store.getTodos(USER_EMAIL)));
+        assertThrows(BadRequestException.class, () -> store.createTodo(USER_EMAIL, new TodoItem(null, " ", false)));
+
+        TodoItem completed = store.updateTodo(USER_EMAIL, "1", new TodoItem(null, null, true));
+        assertEquals("Water the plants", completed.getTitle());
+        assertNotNull(completed.getCompletedAt());
+        assertNull(store.updateTodo(USER_EMAIL, "1", new TodoItem(null, "Water the garden", false)).getCompletedAt());
+
+        // Scoped to the user
+        assertTrue(store.getTodos("other@example.com").isEmpty());
+        assertThrows(NotFoundException.class, () -> store.getTodoById("other@example.com", second.getId()));
+        assertThrows(NotFoundException.class, () -> store.deleteTodo("other@example.com", second.getId()));
+        assertThrows(NotFoundException.class, () -> store.getTodoById(USER_EMAIL, "not-a-number"));
+        WebApplicationException unauthorized = assertThrows(WebApplicationException.class, () -> store.getTodos(null));
+        assertEquals(401, unauthorized.getResponse().getStatus());
+
+        store.deleteTodo(USER_EMAIL, "2");
+        assertThrows(NotFoundException.class, () -> store.getTodoById(USER_EMAIL, "2"));
+        assertEquals(Map.of(USER_EMAIL, List.of("1")), Map.of(USER_EMAIL, ids(store.getAllTodos().get(USER_EMAIL))));
+    }
+
+    @Test
+    void testPages() {
+        MemoryTodoStore store = open(false);
+        for (int i = 1; i <= 5; i++) {
+            store.createTodo(USER_EMAIL, new TodoItem(null, "Task " + i, false));
+        }
+        store.updateTodo(USER_EMAIL, "4", new TodoItem(null, null, true));
+        store.updateTodo(USER_EMAIL, "2", new TodoItem(null, null, true));
+
+        TodoPage first = store.getTodoPage(USER_EMAIL, new TodoQuery(2, null, null, null));
+        assertEquals(List.of("5", "4"), ids(first.getItems()));
+        TodoPage second = store.getTodoPage(USER_EMAIL, new TodoQuery(2, first.getNextCursor(), null, null));
+        assertEquals(List.of("3", "2"), ids(second.getItems()));
+        TodoPage last = store.getTodoPage(USER_EMAIL, new TodoQuery(2, second.getNextCursor(), null, null));
+        assertEquals(List.of("1"), ids(last.getItems()));
+        assertNull(last.getNextCursor());
+
+        assertEquals(List.of("4", "2"), ids(store.getTodoPage(USER_EMAIL, new TodoQuery(10, null, true, null)).getItems()));
+        assertThrows(BadRequestException.class, () -> store.getTodoPage(USER_EMAIL, new TodoQuery(2, "%%%", null, null)));
+    }
+
+    @Test
+    void testRecoversFromTheLog() {
+        MemoryTodoStore store = open(false);
+        writeSome(store);
+        Map<String, List<String>> before = contents(store);
+        store.close();
+
+        MemoryTodoStore recovered = open(false);
+
+        assertEquals(before, contents(recovered));
+        // The highest ID was deleted, and is not handed out again
+        assertEquals("5", recovered.createTodo(USER_EMAIL, new TodoItem(null, "Pay bills", false)).getId());
+    }
+
+    @Test
+    void testRecoversFromSnapshotAndLog() throws IOException {
+        MemoryTodoStore store = open(false);
+        writeSome(store);
+        store.checkpoint();
+        assertEquals(1, files(TodoSnapshot.SUFFIX).size());
+        // Only the segment started by the snapshot is left, empty
+        assertEquals(1, files(WriteAheadLog.SUFFIX).size());
+        assertEquals(0, Files.size(files(WriteAheadLog.SUFFIX).get(0)));
+
+        store.updateTodo(USER_EMAIL, "1", new TodoItem(null, "After the snapshot", true));
+        store.createTodo("second@example.com", new TodoItem(null, "Call mom", false));
+        Map<String, List<String>> before = contents(store);
+        store.close();
+
+        MemoryTodoStore recovered = open(false);
+
+        assertEquals(before, contents(recovered));
+        assertEquals("6", recovered.createTodo(USER_EMAIL, new TodoItem(null, "Pay bills", false)).getId());
+        // A second snapshot replaces the first
+        recovered.checkpoint();
+        assertEquals(1, files(TodoSnapshot.SUFFIX).size());
+    }
+
+    @Test
+    void testTornRecordIsCutOff() throws IOException {
+        MemoryTodoStore store = open(false);
+        writeSome(store);
+        Map<String, List<String>> before = contents(store);
+        store.close();
+        Path segment = files(WriteAheadLog.SUFFIX).get(0);
+        long size = Files.size(segment);
+        // A crash in the middle of writing a record
+        Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        MemoryTodoStore recovered = open(false);
+
+        assertEquals(before, contents(recovered));
+        assertEquals(size, Files.size(segment));
+        recovered.createTodo(USER_EMAIL, new TodoItem(null, "Pay bills", false));
+        recovered.close();
+        assertEquals(3, open(false).getTodos(USER_EMAIL).size());
+    }
+
+    @Test
+    void testConcurrentWritersAreAllDurable() throws Exception {
+        MemoryTodoStore store = open(true);
+        ExecutorService writers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+            for (int writer = 0; writer < 8; writer++) {
+                String user = "writer" + writer + "@example.com";
+                done.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        store.createTodo(user, new TodoItem(null, "Task " + i, false));
+                    }
+                }, writers));
+            }
+            CompletableFuture.allOf(done.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            writers.shutdown();
+        }
+        store.close();
+
+        Map<String, List<String>> recovered = contents(open(false));
+
+        assertEquals(8, recovered.size());
+        assertEquals(400, recovered.values().stream().flatMap(List::stream).distinct().count());
+    }
+
+    /**
+     * Leaves the items 1 and 3 of the user; 2 was updated twice, then deleted, and so was 4.
+     */
+    private static void writeSome(MemoryTodoStore store) {
+        for (String title : List.of("Water the plants", "Walk the dog", "Clean the house", "Call mom")) {
+            store.createTodo(USER_EMAIL, new TodoItem(null, title, false));
+        }
+        store.updateTodo(USER_EMAIL, "2", new TodoItem(null, "Walk the cat", false));
+        store.updateTodo(USER_EMAIL, "2", new TodoItem(null, null, true));
+        store.updateTodo(USER_EMAIL, "3", new TodoItem(null, null, true));
+        store.deleteTodo(USER_EMAIL, "2");
+        store.deleteTodo(USER_EMAIL, "4");
+    }
+
+    private MemoryTodoStore open(boolean fsync) {
+        MemoryTodoStore store = new MemoryTodoStore();
+        store.directory = directory;
+        store.fsync = fsync;
+        store.snapshotInterval = Duration.ofHours(1);
+        store.snapshotMinRecords = 1;
+        store.registry = new SimpleMeterRegistry();
+        store.init();
+        opened.add(store);
+        return store;
+    }
+
+    private List<Path> files(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).toList();
+        }
+    }
+
+    /**
+     * Every item of every user, with all its fields.
+     */
+    private static Map<String, List<String>> contents(MemoryTodoStore store) {
+        Map<String, List<String>> contents = new TreeMap<>();
+        store.getAllTodos().forEach((email, items) -> contents.put(email, items.stream()
+                .map(item -> item.getId() + "|" + item.getTitle() + "|" + item.isCompleted() + "|" + item.getUserId()
+                        + "|" + item.getCreatedAt() + "|" + item.getCompletedAt())
+                .toList()));
+        return contents;
+    }
+
+    private static List<String> ids(List<TodoItem> items) {
+        return items.stream().map(TodoItem::getId).toList();
+    }
+}
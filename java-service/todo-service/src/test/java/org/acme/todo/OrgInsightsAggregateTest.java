@@ -0,0 +1,149 @@
+// src/test/java/org/acme/todo/OrgInsightsAggregateTest.java
+package org.acme.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that OrgInsightsAggregate gives the same result however the users are split and merged,
+ * and that it agrees with InsightsCalculator on the combined list.
+ */
+public class OrgInsightsAggregateTest {
+
+    private static final String[] WORDS = {
+        "walk", "dog", "the", "buy", "milk", "clean", "house", "Call", "mom", "a", "pay", "bills", "2024"
+    };
+
+    private static final OffsetDateTime NOW = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void testParallelComputeMatchesSequentialPass() {
+        List<List<TodoItem>> todosPerUser = randomUsers(new Random(42), 300);
+        OrgInsightsAggregate sequential = new OrgInsightsAggregate();
+        todosPerUser.forEach(sequential::addUser);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(sequential.snapshot(), OrgInsightsAggregate.compute(todosPerUser, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMergeIsAssociativeAndCommutative() {
+        List<List<TodoItem>> todosPerUser = randomUsers(new Random(7), 3);
+        OrgInsights leftFirst = OrgInsightsAggregate.of(todosPerUser.get(0))
+                .merge(OrgInsightsAggregate.of(todosPerUser.get(1)))
+                .merge(OrgInsightsAggregate.of(todosPerUser.get(2)))
+                .snapshot();
+        OrgInsights rightFirst = OrgInsightsAggregate.of(todosPerUser.get(0))
+                .merge(OrgInsightsAggregate.of(todosPerUser.get(1)).merge(OrgInsightsAggregate.of(todosPerUser.get(2))))
+                .snapshot();
+        OrgInsights reversed = OrgInsightsAggregate.of(todosPerUser.get(2))
+                .merge(OrgInsightsAggregate.of(todosPerUser.get(1)))
+                .merge(OrgInsightsAggregate.of(todosPerUser.get(0)))
+                .snapshot();
+
+        assertEquals(leftFirst, rightFirst);
+        assertEquals(leftFirst, reversed);
+    }
+
+    @Test
+    void testAgreesWithPerUserInsightsOnTheCombinedList() {
+        List<List<TodoItem>> todosPerUser = randomUsers(new Random(3), 50);
+        List<TodoItem> combined = new ArrayList<>();
+        todosPerUser.forEach(combined::addAll);
+
+        OrgInsights org = OrgInsightsAggregate.compute(todosPerUser, ForkJoinPool.commonPool());
+        TodoInsights reference = InsightsCalculator.compute(combined);
+
+        assertEquals(50, org.getUsers());
+        assertEquals(reference.getTotalTasks(), org.getTotalTasks());
+        assertEquals(reference.getCompletedTasks(), org.getCompletedTasks());
+        assertEquals(reference.getCompletionRatio(), org.getCompletionRatio());
+        // The organization reports more words, in the same ranking
+        Iterator<Map.Entry<String, Long>> words = org.getMostCommonWords().entrySet().iterator();
+        for (Map.Entry<String, Long> word : reference.getMostCommonWords().entrySet()) {
+            assertEquals(word, words.next());
+        }
+    }
+
+    @Test
+    void testTimeToComplete() {
+        List<TodoItem> todos = new ArrayList<>();
+        for (int hours = 1; hours <= 10; hours++) {
+            todos.add(new TodoItem(String.valueOf(hours), "Task", true, 1, NOW, NOW.plusHours(hours)));
+        }
+        // Open, and completed without timestamps, are not timed
+        todos.add(new TodoItem("11", "Task", false, 1, NOW, null));
+        todos.add(new TodoItem("12", "Task", true));
+
+        OrgInsights.TimeToComplete times = OrgInsightsAggregate.of(todos).snapshot().getTimeToComplete();
+
+        assertEquals(10, times.getCount());
+        assertEquals(5.5 * 3600, times.getMeanSeconds());
+        assertEquals(3600, times.getMinSeconds());
+        assertEquals(36000, times.getMaxSeconds());
+        assertBetween(5 * 3600, times.getP50Seconds());
+        assertBetween(9 * 3600, times.getP90Seconds());
+        assertEquals(36000, times.getP99Seconds());
+    }
+
+    @Test
+    void testEmptyOrganization() {
+        OrgInsights org = OrgInsightsAggregate.compute(List.of(), ForkJoinPool.commonPool());
+
+        assertEquals(0, org.getUsers());
+        assertEquals(0.0, org.getCompletionRatio());
+        assertTrue(org.getMostCommonWords().isEmpty());
+        assertEquals(0, org.getTimeToComplete().getCount());
+    }
+
+    @Test
+    void testHistogramBucketsBoundTheirValues() {
+        long[] values = {0, 1, 7, 8, 9, 15, 16, 17, 1000, 86_399, 86_400, 31_536_000, Long.MAX_VALUE};
+        for (long value : values) {
+            long upper = OrgInsightsAggregate.upperBound(OrgInsightsAggregate.bucket(value));
+            assertTrue(upper >= value, value + " > " + upper);
+            assertTrue(upper - value <= value / 8, value + " bounded by " + upper);
+        }
+    }
+
+    private static void assertBetween(long exact, long estimate) {
+        assertTrue(estimate >= exact && estimate <= exact * 9 / 8, exact + " estimated as " + estimate);
+    }
+
+    private static List<List<TodoItem>> randomUsers(Random random, int users) {
+        List<List<TodoItem>> todosPerUser = new ArrayList<>();
+        int id = 0;
+        for (int user = 0; user < users; user++) {
+            // A few large users among many small ones
+            int size = random.nextInt(10) == 0 ? 2_000 + random.nextInt(10_000) : random.nextInt(50);
+            List<TodoItem> todos = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                StringBuilder title = new StringBuilder();
+                for (int j = 0, words = 1 + random.nextInt(4); j < words; j++) {
+                    title.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                boolean completed = random.nextBoolean();
+                OffsetDateTime createdAt = NOW.minusMinutes(random.nextInt(100_000));
+                todos.add(new TodoItem(String.valueOf(id++), title.toString(), completed, user, createdAt,
+                        completed ? createdAt.plusSeconds(random.nextInt(1_000_000)) : null));
+            }
+            todosPerUser.add(todos);
+        }
+        return todosPerUser;
+    }
+}
@@ -0,0 +1,174 @@
+// src/test/java/org/acme/todo/ReactiveTodoResourceTest.java
+package org.acme.todo;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests for the TodoResource endpoints running on the reactive pipeline.
+ * Mocks the ReactiveTodoClient, so the whole path down to the client is exercised.
+ */
+@QuarkusTest
+@TestProfile(ReactiveTodoResourceTest.ReactivePipeline.class)
+public class ReactiveTodoResourceTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+
+    public static class ReactivePipeline implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("todo.pipeline", "reactive");
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    ReactiveTodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+    }
+
+    @Test
+    void testGetAllTodos() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Uni.createFrom().item(Arrays.asList(
+            new TodoItem("1", "Buy groceries", false),
+            new TodoItem("2", "Walk the dog", true))));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .body("size()", is(2),
+                   "[0].title", is("Buy groceries"),
+                   "[1].completed", is(true));
+    }
+
+    @Test
+    void testLargeListIsCompressedOffTheEventLoop() {
+        List<TodoItem> todos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            todos.add(new TodoItem(String.valueOf(i), "Water the plants " + i, false));
+        }
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Uni.createFrom().item(todos));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .header("Accept-Encoding", "gzip")
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", is("gzip"))
+             .body("size()", is(100));
+    }
+
+    @Test
+    void testGetTodoByIdNotFound() {
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "99"))
+               .thenReturn(Uni.createFrom().failure(new WebApplicationException(Response.Status.NOT_FOUND)));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos/{id}", "99")
+          .then()
+             .statusCode(404)
+             .body(is("Todo item with ID 99 not found."));
+    }
+
+    @Test
+    void testCreateTodoUpdatesCachedInsights() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Uni.createFrom().item(Arrays.asList(
+            new TodoItem("1", "Walk the dog", true))));
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class)))
+               .thenReturn(Uni.createFrom().item(new TodoItem("2", "Feed the dog", false)));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos/insights")
+          .then()
+             .statusCode(200)
+             .body("totalTasks", is(1));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .contentType("application/json")
+          .body(new TodoItem(null, "Feed the dog", false))
+          .when().post("/todos")
+          .then()
+             .statusCode(201)
+             .body("id", is("2"));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos/insights")
+          .then()
+             .statusCode(200)
+             .body("totalTasks", is(2),
+                   "mostCommonWords.dog", is(2));
+
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testDeleteTodoNotFound() {
+        Mockito.when(todoClient.deleteTodo(USER_EMAIL, "99"))
+               .thenReturn(Uni.createFrom().failure(new WebApplicationException(Response.Status.NOT_FOUND)));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().delete("/todos/{id}", "99")
+          .then()
+             .statusCode(404)
+             .body(is("Todo item with ID 99 not found for deletion."));
+    }
+
+    @Test
+    void testGetPageWithRejectedCursor() {
+        Mockito.when(todoClient.getTodoPage(USER_EMAIL, 10, "garbage", null, null))
+               .thenReturn(Uni.createFrom().failure(new WebApplicationException(Response.Status.BAD_REQUEST)));
+        Mockito.when(todoClient.getTodoPage(USER_EMAIL, 10, null, null, null))
+               .thenReturn(Uni.createFrom().item(RestResponse.ResponseBuilder.ok(Arrays.asList(
+                       new TodoItem("1", "Buy groceries", false))).header("X-Next-Cursor", "next").build()));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos?limit=10")
+          .then()
+             .statusCode(200)
+             .header("X-Next-Cursor", is("next"))
+             .body("[0].id", is("1"));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos?limit=10&cursor=garbage")
+          .then()
+             .statusCode(400);
+    }
+}
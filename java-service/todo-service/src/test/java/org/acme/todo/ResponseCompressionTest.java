@@ -0,0 +1,180 @@
+// src/test/java/org/acme/todo/ResponseCompressionTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the negotiated compression of TodoResource responses. Responses are read without
+ * RestAssured's transparent decoding, so the bytes on the wire can be checked.
+ */
+@QuarkusTest
+public class ResponseCompressionTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String SMALL_USER_EMAIL = "small@example.com";
+    private static final RestAssuredConfig RAW = RestAssuredConfig.config()
+            .decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    private List<TodoItem> todos;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        todos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            todos.add(new TodoItem(String.valueOf(i), "Water the plants " + i, i % 2 == 0));
+        }
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(todos);
+        Mockito.when(todoClient.getTodos(SMALL_USER_EMAIL)).thenReturn(List.of(new TodoItem("1", "Buy milk", false)));
+    }
+
+    @Test
+    void testLargeListIsGzipped() throws IOException {
+        double compressed = responses("gzip");
+
+        byte[] body = get(USER_EMAIL, "gzip, deflate, br")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", is("gzip"))
+             .header("Vary", containsString("Accept-Encoding"))
+             .extract().asByteArray();
+
+        String json = new String(new GZIPInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{\"id\":\"0\",\"title\":\"Water the plants 0\""), json);
+        assertTrue(body.length < json.length() / 2);
+        assertEquals(compressed + 1, responses("gzip"));
+        assertTrue(registry.get("todo.compression.ratio").tag("encoding", "gzip").summary().mean() < 0.5);
+        assertTrue(registry.get("todo.compression.cpu-time").tag("encoding", "gzip").timer().count() > 0);
+    }
+
+    @Test
+    void testDeflateWhenPreferred() throws IOException {
+        byte[] body = get(USER_EMAIL, "gzip;q=0.5, deflate")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", is("deflate"))
+             .extract().asByteArray();
+
+        String json = new String(new InflaterInputStream(new ByteArrayInputStream(body)).readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{\"id\":\"0\""), json);
+    }
+
+    @Test
+    void testSmallResponsesAndOtherEncodingsAreSentAsIs() {
+        get(SMALL_USER_EMAIL, "gzip")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", nullValue())
+             .body("[0].title", is("Buy milk"));
+        get(USER_EMAIL, "br, identity")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", nullValue())
+             .body("size()", is(100));
+    }
+
+    @Test
+    void testEntityIsLeftAloneWithoutAcceptEncoding() {
+        double measured = registry.get("todo.compression.size").summary().count();
+
+        given().config(RAW).header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", nullValue())
+             .header("Vary", containsString("Accept-Encoding"))
+             .body("size()", is(100));
+        assertEquals(measured, registry.get("todo.compression.size").summary().count());
+    }
+
+    @Test
+    void testNotModifiedIsNotCompressed() {
+        String etag = get(USER_EMAIL, "gzip").then().statusCode(200).extract().header("ETag");
+        String identity = get(USER_EMAIL, "identity").then().statusCode(200).extract().header("ETag");
+        assertEquals(identity.substring(0, identity.length() - 1) + "-gzip\"", etag);
+
+        given().config(RAW).header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .header("Accept-Encoding", "gzip").header("If-None-Match", etag)
+          .when().get("/todos")
+          .then()
+             .statusCode(304)
+             .header("ETag", is(etag))
+             .header("Content-Encoding", nullValue());
+        given().config(RAW).header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .header("If-None-Match", identity)
+          .when().get("/todos")
+          .then()
+             .statusCode(304)
+             .header("ETag", is(identity));
+    }
+
+    @Test
+    void testPagesAreCompressedToo() {
+        Mockito.when(todoClient.getTodoPage(USER_EMAIL, 100, null, null, null))
+                .thenReturn(RestResponse.ok(todos));
+
+        given().config(RAW).header("X-Goog-Authenticated-User-Email", USER_EMAIL).header("Accept-Encoding", "gzip")
+          .when().get("/todos?limit=100")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", is("gzip"));
+    }
+
+    @Test
+    void testEncodingNegotiation() {
+        assertEquals("gzip", ResponseCompression.encoding("gzip, deflate"));
+        assertEquals("gzip", ResponseCompression.encoding("*"));
+        assertEquals("deflate", ResponseCompression.encoding("deflate, gzip;q=0"));
+        assertEquals("deflate", ResponseCompression.encoding("deflate, *;q=0"));
+        assertNull(ResponseCompression.encoding("br, zstd"));
+        assertNull(ResponseCompression.encoding(null));
+    }
+
+    private double responses(String encoding) {
+        return registry.counter("todo.compression.responses", "encoding", encoding).count();
+    }
+
+    private static io.restassured.response.Response get(String userEmail, String acceptEncoding) {
+        return given().config(RAW)
+                .header("X-Goog-Authenticated-User-Email", userEmail)
+                .header("Accept-Encoding", acceptEncoding)
+                .when().get("/todos");
+    }
+}
@@ -0,0 +1,137 @@
+// src/test/java/org/acme/todo/SearchIndexTest.java
+package org.acme.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the SearchIndex: matching and ranking, and consistency of the incremental index
+ * with a scan of the titles.
+ */
+public class SearchIndexTest {
+
+    private static final String[] WORDS = {
+        "walk", "walking", "dog", "the", "buy", "milk", "water", "watch", "plants", "Call", "mom", "a", "2024"
+    };
+
+    @Test
+    void testMatchesEveryWordByPrefix() {
+        SearchIndex index = SearchIndex.of(Arrays.asList(
+            new TodoItem("3", "Water the plants", false),
+            new TodoItem("2", "Walk the dog", true),
+            new TodoItem("1", "Watch a movie", false)
+        ));
+
+        assertEquals(List.of("3", "1"), ids(index.search("wat", 10)));
+        assertEquals(List.of("2"), ids(index.search("DOG wa", 10)));
+        assertEquals(List.of("3"), ids(index.search("water, plants!", 10)));
+        assertTrue(index.search("water dog", 10).isEmpty());
+        assertTrue(index.search("cat", 10).isEmpty());
+        // Stop words are neither indexed nor searched
+        assertTrue(index.search("the", 10).isEmpty());
+        assertEquals(List.of("2"), ids(index.search("the dog", 10)));
+    }
+
+    @Test
+    void testRanking() {
+        SearchIndex index = SearchIndex.of(Arrays.asList(
+            new TodoItem("5", "Walking the dog", false),
+            new TodoItem("4", "Walk to the park", false),
+            new TodoItem("3", "Walk walk walk", false),
+            new TodoItem("2", "Walk the cat", false),
+            new TodoItem("1", "Walk the dog", false)
+        ));
+
+        // Exact matches before prefix matches, more occurrences first, then newest first
+        assertEquals(List.of("3", "4", "2", "1", "5"), ids(index.search("walk", 10)));
+        assertEquals(List.of("3", "4"), ids(index.search("walk", 2)));
+        assertEquals(List.of("1", "5"), ids(index.search("dog walk", 10)));
+    }
+
+    @Test
+    void testUpdateKeepsPosition() {
+        TodoItem older = new TodoItem("1", "Walk the dog", false);
+        TodoItem newer = new TodoItem("2", "Walk the cat", false);
+        SearchIndex index = SearchIndex.of(Arrays.asList(newer, older));
+
+        TodoItem renamed = new TodoItem("1", "Walk the dogs", true);
+        index.replace(older, renamed);
+        assertEquals(List.of(newer, renamed), index.search("walk", 10));
+
+        index.remove(newer);
+        index.add(new TodoItem("3", "Walk home", false));
+        assertEquals(List.of("3", "1"), ids(index.search("walk", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void testRandomMutationsMatchScanOfTitles() {
+        Random random = new Random(42);
+        List<TodoItem> todos = new ArrayList<>();
+        SearchIndex index = SearchIndex.of(todos);
+
+        for (int i = 0; i < 2_000; i++) {
+            int action = todos.isEmpty() ? 0 : random.nextInt(3);
+            if (action == 0) {
+                TodoItem created = new TodoItem(String.valueOf(i), randomTitle(random), false);
+                todos.add(created);
+                index.add(created);
+            } else if (action == 1) {
+                int position = random.nextInt(todos.size());
+                TodoItem previous = todos.get(position);
+                TodoItem updated = new TodoItem(previous.getId(), randomTitle(random), true);
+                todos.set(position, updated);
+                index.replace(previous, updated);
+            } else {
+                index.remove(todos.remove(random.nextInt(todos.size())));
+            }
+
+            if (i % 50 == 0) {
+                for (String query : List.of("wa", "walk", "dog mi", "water plants", "2", "call m")) {
+                    assertEquals(scan(todos, query), new TreeSet<>(ids(index.search(query, SearchIndex.MAX_LIMIT * 100))), query);
+                }
+            }
+        }
+        assertEquals(todos.size(), index.size());
+    }
+
+    /**
+     * The IDs of the items whose title holds a word starting with each of the query's words.
+     */
+    private static Set<String> scan(List<TodoItem> todos, String query) {
+        Set<String> found = new TreeSet<>();
+        for (TodoItem todo : todos) {
+            List<String> words = Arrays.asList(todo.getTitle().toLowerCase().split("[^a-z0-9]+"));
+            boolean matches = true;
+            for (String queryWord : query.split(" ")) {
+                matches &= words.stream().anyMatch(word -> word.startsWith(queryWord) && !TitleTokenizer.STOP_WORDS.contains(word));
+            }
+            if (matches) {
+                found.add(todo.getId());
+            }
+        }
+        return found;
+    }
+
+    private static String randomTitle(Random random) {
+        StringBuilder title = new StringBuilder();
+        int words = 1 + random.nextInt(4);
+        for (int i = 0; i < words; i++) {
+            title.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return title.toString();
+    }
+
+    private static List<String> ids(List<TodoItem> items) {
+        return items.stream().map(TodoItem::getId).toList();
+    }
+}
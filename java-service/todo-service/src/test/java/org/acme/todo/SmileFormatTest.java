@@ -0,0 +1,132 @@
+// src/test/java/org/acme/todo/SmileFormatTest.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests of the Smile representation negotiated by TodoResource.
+ */
+@QuarkusTest
+public class SmileFormatTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String SMILE = SmileMessageBodyHandler.APPLICATION_SMILE;
+    private static final String BROWSER = "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8";
+    private static final OffsetDateTime CREATED = OffsetDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000, ZoneOffset.ofHours(2));
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(
+                new TodoItem("2", "Walk the dog", true, 7, CREATED, CREATED.plusHours(1)),
+                new TodoItem("1", "Buy groceries", false, 7, CREATED, null)));
+    }
+
+    @Test
+    void testListInSmileWithEpochTimestamps() throws Exception {
+        byte[] body = given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).accept(SMILE)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .contentType(startsWith(SMILE))
+             .extract().asByteArray();
+
+        JsonNode tree = SmileMessageBodyHandler.MAPPER.readTree(body);
+        assertTrue(tree.get(0).get("createdAt").isIntegralNumber());
+        assertEquals(CREATED.toInstant().toEpochMilli(), tree.get(0).get("createdAt").longValue());
+
+        List<TodoItem> todos = SmileMessageBodyHandler.MAPPER.readValue(body, new TypeReference<>() {
+        });
+        assertEquals("Walk the dog", todos.get(0).getTitle());
+        assertEquals(CREATED.toInstant(), todos.get(0).getCreatedAt().toInstant());
+        assertEquals(CREATED.plusHours(1).toInstant(), todos.get(0).getCompletedAt().toInstant());
+        assertEquals(null, todos.get(1).getCompletedAt());
+    }
+
+    @Test
+    void testBrowsersGetJson() {
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).accept(BROWSER)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .contentType(startsWith("application/json"))
+             .body("[0].createdAt", is("2024-05-01T12:30:15.123+02:00"));
+    }
+
+    @Test
+    void testEachRepresentationHasItsOwnETag() {
+        String json = given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .when().get("/todos").then().statusCode(200).extract().header("ETag");
+        String smile = given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).accept(SMILE)
+          .when().get("/todos").then().statusCode(200).header("Vary", is("Accept, Accept-Encoding")).extract().header("ETag");
+        assertNotEquals(json, smile);
+
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).accept(SMILE).header("If-None-Match", smile)
+          .when().get("/todos").then().statusCode(304);
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL).accept(SMILE).header("If-None-Match", json)
+          .when().get("/todos").then().statusCode(200).contentType(startsWith(SMILE));
+    }
+
+    @Test
+    void testCreateFromSmile() throws Exception {
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class)))
+                .thenReturn(new TodoItem("3", "Water plants", false, 7, CREATED, null));
+
+        byte[] body = given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .contentType(SMILE).accept(SMILE)
+          .body(SmileMessageBodyHandler.MAPPER.writeValueAsBytes(new TodoItem(null, "Water plants", false)))
+          .when().post("/todos")
+          .then()
+             .statusCode(201)
+             .contentType(startsWith(SMILE))
+             .extract().asByteArray();
+
+        ArgumentCaptor<TodoItem> sent = ArgumentCaptor.forClass(TodoItem.class);
+        Mockito.verify(todoClient).createTodo(eq(USER_EMAIL), sent.capture());
+        assertEquals("Water plants", sent.getValue().getTitle());
+        assertEquals("3", SmileMessageBodyHandler.MAPPER.readValue(body, TodoItem.class).getId());
+    }
+
+    @Test
+    void testPreferred() {
+        assertTrue(SmileMessageBodyHandler.preferred(SMILE));
+        assertTrue(SmileMessageBodyHandler.preferred(SMILE + ", application/json;q=0.5"));
+        assertTrue(SmileMessageBodyHandler.preferred("*/*, " + SMILE));
+        assertFalse(SmileMessageBodyHandler.preferred(null));
+        assertFalse(SmileMessageBodyHandler.preferred(BROWSER));
+        assertFalse(SmileMessageBodyHandler.preferred(SMILE + ";q=0.5, application/json"));
+        assertFalse(SmileMessageBodyHandler.preferred(SMILE + ";q=0"));
+    }
+}
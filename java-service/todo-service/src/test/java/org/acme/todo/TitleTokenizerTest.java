@@ -0,0 +1,62 @@
+// src/test/java/org/acme/todo/TitleTokenizerTest.java
+package org.acme.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the TitleTokenizer splits titles exactly like the regex-based tokenization it replaces.
+ */
+public class TitleTokenizerTest {
+
+    private static final String ALPHABET = "abcXYZ019 -_.,!'\téÉİKßΣ中😀";
+
+    @Test
+    void testSplitsLikeRegex() {
+        for (String title : Arrays.asList("Walk the dog", "Buy milk & dog-food!!", "  A.B.C  ", "", "I", "Café au lait",
+                "Kelvin İstanbul", "MY_TODO_LIST", "2024 taxes, again")) {
+            assertEquals(reference(title), tokenize(title), title);
+        }
+    }
+
+    @Test
+    void testRandomTitlesSplitLikeRegex() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            StringBuilder title = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                title.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertEquals(reference(title.toString()), tokenize(title.toString()), title.toString());
+        }
+    }
+
+    @Test
+    void testNullTitleHasNoWords() {
+        assertEquals(List.of(), tokenize(null));
+    }
+
+    private static List<String> tokenize(String title) {
+        List<String> words = new ArrayList<>();
+        new TitleTokenizer().tokenize(title, (chars, length) -> words.add(new String(chars, 0, length)));
+        return words;
+    }
+
+    // The tokenization TodoService.getInsights originally used.
+    private static List<String> reference(String title) {
+        if (title == null) {
+            return List.of();
+        }
+        return Arrays.stream(title.toLowerCase().split("[^a-zA-Z0-9]+"))
+                .filter(word -> !word.isEmpty() && !TitleTokenizer.STOP_WORDS.contains(word))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,218 @@
+// src/test/java/org/acme/todo/TodoChangesTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests for delta sync with GET /todos/changes: changes and tombstones since a version, changes
+ * found on reload, and the full snapshot once the ChangeLog was compacted past a version.
+ * The log holds 4 items per user, so compaction is reached with a handful of changes.
+ */
+@QuarkusTest
+@TestProfile(TodoChangesTest.SmallLog.class)
+public class TodoChangesTest {
+
+    public static class SmallLog implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("todo.changes.max-entries", "4");
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    ChangeLog changeLog;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(anyString())).thenReturn(List.of(
+                new TodoItem("1", "Water the plants", false),
+                new TodoItem("2", "Walk the dog", true)));
+    }
+
+    @Test
+    void testChangesSinceLastSync() {
+        String user = "delta@example.com";
+        TodoChanges first = todoService.findChanges(user, null);
+        assertTrue(first.isFull());
+        assertEquals(2, first.getItems().size());
+
+        Mockito.when(todoClient.createTodo(eq(user), any())).thenReturn(new TodoItem("3", "Call mom", false));
+        Mockito.when(todoClient.updateTodo(eq(user), eq("1"), any()))
+               .thenReturn(new TodoItem("1", "Water the garden", false))
+               .thenReturn(new TodoItem("1", "Water the garden", true));
+        todoService.createTodo(user, new TodoItem(null, "Call mom", false));
+        todoService.updateTodo(user, "1", new TodoItem("1", "Water the garden", false));
+        todoService.updateTodo(user, "1", new TodoItem("1", "Water the garden", true));
+        todoService.deleteTodo(user, "2");
+
+        TodoChanges delta = todoService.findChanges(user, first.getVersion());
+        assertFalse(delta.isFull());
+        // Oldest first, one entry per item with its latest state
+        assertEquals(List.of("3", "1"), delta.getItems().stream().map(TodoItem::getId).toList());
+        assertTrue(delta.getItems().get(1).isCompleted());
+        assertEquals(List.of("2"), delta.getDeleted());
+        assertNotEquals(first.getVersion(), delta.getVersion());
+
+        TodoChanges nothing = todoService.findChanges(user, delta.getVersion());
+        assertFalse(nothing.isFull());
+        assertTrue(nothing.getItems().isEmpty() && nothing.getDeleted().isEmpty());
+        assertEquals(delta.getVersion(), nothing.getVersion());
+    }
+
+    @Test
+    void testChangesFoundOnReload() {
+        String user = "reloaded@example.com";
+        String version = todoService.findChanges(user, null).getVersion();
+        // Changed by another client, straight in the backend
+        Mockito.when(todoClient.getTodos(user)).thenReturn(List.of(
+                new TodoItem("1", "Water the plants", true),
+                new TodoItem("4", "Pay bills", false)));
+
+        assertTrue(todoService.reload(user));
+
+        TodoChanges delta = todoService.findChanges(user, version);
+        assertFalse(delta.isFull());
+        assertEquals(List.of("1", "4"), delta.getItems().stream().map(TodoItem::getId).sorted().toList());
+        assertEquals(List.of("2"), delta.getDeleted());
+    }
+
+    @Test
+    void testChangesFoundOnceTheCachedListExpires() {
+        String user = "expired@example.com";
+        String version = todoService.findChanges(user, null).getVersion();
+        Mockito.when(todoClient.getTodos(user)).thenReturn(List.of(new TodoItem("1", "Water the plants", true)));
+        todoCache.invalidate(user);
+
+        TodoChanges delta = todoService.findChanges(user, version);
+        assertFalse(delta.isFull());
+        assertEquals(List.of("1"), delta.getItems().stream().map(TodoItem::getId).toList());
+        assertEquals(List.of("2"), delta.getDeleted());
+    }
+
+    @Test
+    void testChangeDuringLoadIsNotOverwritten() {
+        String user = "racing@example.com";
+        changeLog.track(user);
+        long loadedAfter = changeLog.current();
+        String version = changeLog.version(loadedAfter);
+        // Updated through this instance while an older copy of the list was being loaded
+        changeLog.record(user, "1", new TodoItem("1", "Newer", false), false);
+
+        List<ChangeLog.Change> found = changeLog.reconcile(user,
+                List.of(new TodoItem("1", "Oldest", false)),
+                List.of(new TodoItem("1", "Older", false)),
+                loadedAfter);
+
+        assertTrue(found.isEmpty());
+        assertEquals("Newer", changeLog.since(user, version).changes().get(0).item().getTitle());
+    }
+
+    @Test
+    void testCompactedVersionGetsSnapshot() {
+        String user = "compacted@example.com";
+        double compactions = registry.counter("todo.changes.compactions", "reason", "size").count();
+        String version = todoService.findChanges(user, null).getVersion();
+        for (int i = 0; i < 6; i++) {
+            changeLog.record(user, String.valueOf(10 + i), new TodoItem(String.valueOf(10 + i), "Task " + i, false), false);
+        }
+
+        TodoChanges changes = todoService.findChanges(user, version);
+
+        assertTrue(changes.isFull());
+        assertEquals(2, changes.getItems().size());
+        assertEquals(compactions + 2, registry.counter("todo.changes.compactions", "reason", "size").count());
+        // Collapsed updates of one item never compact anything
+        String latest = changes.getVersion();
+        for (int i = 0; i < 10; i++) {
+            changeLog.record(user, "15", new TodoItem("15", "Edit " + i, false), false);
+        }
+        assertEquals("Edit 9", todoService.findChanges(user, latest).getItems().get(0).getTitle());
+    }
+
+    @Test
+    void testUnknownVersionGetsSnapshot() {
+        String user = "unknown@example.com";
+        assertTrue(todoService.findChanges(user, "not-a-version").isFull());
+        assertTrue(todoService.findChanges(user, "0-1").isFull());
+        assertTrue(todoService.findChanges(user, changeLog.version(Long.MAX_VALUE)).isFull());
+    }
+
+    @Test
+    void testVersionsOfAnotherInstanceGetSnapshot() {
+        String user = "replica@example.com";
+        ChangeLog other = new ChangeLog();
+        other.registry = new SimpleMeterRegistry();
+        String version = other.version(other.track(user));
+        changeLog.track(user);
+
+        assertNotEquals(version.substring(0, version.indexOf('-')),
+                changeLog.version(0).substring(0, changeLog.version(0).indexOf('-')));
+        assertNull(changeLog.since(user, version));
+    }
+
+    @Test
+    void testChangesEndpoint() {
+        String user = "endpoint@example.com";
+        String version = given().header("X-Goog-Authenticated-User-Email", user)
+                .when().get("/todos/changes")
+                .then().statusCode(200)
+                .body("full", equalTo(true))
+                .body("items", hasSize(2))
+                .body("version", notNullValue())
+                .extract().path("version");
+
+        Mockito.when(todoClient.updateTodo(eq(user), eq("2"), any())).thenReturn(new TodoItem("2", "Walk the dog", false));
+        todoService.updateTodo(user, "2", new TodoItem("2", "Walk the dog", false));
+
+        given().header("X-Goog-Authenticated-User-Email", user)
+                .queryParam("since", version)
+                .when().get("/todos/changes")
+                .then().statusCode(200)
+                .body("full", equalTo(false))
+                .body("items.id", equalTo(List.of("2")))
+                .body("deleted", hasSize(0));
+
+        given().when().get("/todos/changes").then().statusCode(401);
+    }
+}
@@ -0,0 +1,123 @@
+// src/test/java/org/acme/todo/TodoExportTest.java
+package org.acme.todo;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.TimeoutException;
+import io.vertx.core.Vertx;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end test of GET /todos/export against a stub of the backend's NDJSON export.
+ * The stub holds back the rest of the export until the test has received the first item,
+ * which only works if every hop streams instead of collecting the list first.
+ */
+@QuarkusTest
+@TestProfile(TodoExportTest.StubBackend.class)
+public class TodoExportTest {
+
+    private static final int STUB_PORT = 8089;
+    private static final String USER_EMAIL = "user@example.com";
+    private static final String STALLED_EMAIL = "stalled@example.com";
+
+    public static class StubBackend implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.rest-client.todo-api.url", "http://localhost:" + STUB_PORT,
+                    "todo.export.idle-timeout", "500ms");
+        }
+    }
+
+    private static final CountDownLatch firstItemReceived = new CountDownLatch(1);
+    private static Vertx vertx;
+
+    @TestHTTPResource("/todos/export")
+    URI exportUri;
+
+    @Inject
+    ReactiveTodoService reactiveTodoService;
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        vertx = Vertx.vertx();
+        vertx.createHttpServer().requestHandler(request -> {
+            if (STALLED_EMAIL.equals(request.getHeader("X-User-Email"))) {
+                // Sends one item, then neither more items nor the end of the export
+                request.response().setChunked(true).putHeader("Content-Type", "application/x-ndjson")
+                        .write("{\"id\":1,\"title\":\"Stalled\",\"completed\":false}\n");
+                return;
+            }
+            if (!request.path().equals("/todos/export") || !USER_EMAIL.equals(request.getHeader("X-User-Email"))) {
+                request.response().setStatusCode(404).end();
+                return;
+            }
+            var response = request.response()
+                    .setChunked(true)
+                    .putHeader("Content-Type", "application/x-ndjson; charset=utf-8");
+            response.write("{\"id\":3,\"title\":\"Newest\",\"completed\":false}\n");
+            vertx.executeBlocking(() -> firstItemReceived.await(10, TimeUnit.SECONDS)).onComplete(released -> {
+                response.write("{\"id\":2,\"title\":\"Middle\",\"completed\":true}\n{\"id\":1,");
+                response.end("\"title\":\"Oldest\",\"completed\":false}\n");
+            });
+        }).listen(STUB_PORT).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    static void stopStub() throws Exception {
+        firstItemReceived.countDown();
+        vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testExportStreamsNdjson() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(exportUri)
+                .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+                .GET()
+                .build();
+
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/x-ndjson"));
+
+        Iterator<String> lines = response.body().iterator();
+        // Only the first item has been sent by the stub at this point
+        assertTrue(lines.next().contains("\"title\":\"Newest\""));
+        firstItemReceived.countDown();
+        assertTrue(lines.next().contains("\"title\":\"Middle\""));
+        assertTrue(lines.next().contains("\"title\":\"Oldest\""));
+        assertFalse(lines.hasNext());
+    }
+
+    @Test
+    void testStalledExportFails() {
+        List<String> titles = new ArrayList<>();
+        assertThrows(TimeoutException.class, () -> reactiveTodoService.exportTodos(STALLED_EMAIL)
+                .onItem().invoke(item -> titles.add(item.getTitle()))
+                .collect().asList().await().atMost(Duration.ofSeconds(10)));
+        assertEquals(List.of("Stalled"), titles);
+    }
+}
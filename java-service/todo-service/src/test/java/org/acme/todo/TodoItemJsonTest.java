@@ -0,0 +1,133 @@
+// src/test/java/org/acme/todo/TodoItemJsonTest.java
+package org.acme.todo;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks of the TodoItemJson serializer and deserializer against Jackson's bean serializer and
+ * deserializer, on a mapper configured like the one of Quarkus REST.
+ */
+public class TodoItemJsonTest {
+
+    private static final TypeReference<List<TodoItem>> TODO_LIST = new TypeReference<>() {
+    };
+
+    private final ObjectMapper beans = mapper().build();
+    private final ObjectMapper streaming = mapper().addModule(TodoItemJson.module()).build();
+
+    @Test
+    void testWritesTheSameBytes() throws Exception {
+        List<TodoItem> todos = new ArrayList<>(generate(new Random(7), 500));
+        todos.add(new TodoItem());
+        todos.add(new TodoItem("q", "Quote \" backslash \\ tab \t newline \n emoji 🐶 é", true, -3, null, null));
+        for (ZoneOffset offset : List.of(ZoneOffset.UTC, ZoneOffset.ofHours(2), ZoneOffset.ofHoursMinutes(-9, -30),
+                ZoneOffset.ofHoursMinutes(5, 45), ZoneOffset.ofTotalSeconds(3723), ZoneOffset.MAX, ZoneOffset.MIN)) {
+            for (int year : new int[] {1, 999, 1970, 2024, 9999, 10000, -5, 0}) {
+                OffsetDateTime at = OffsetDateTime.of(year, 2, 29 - (year % 4 == 0 ? 0 : 1), 23, 59, 7, 999_999_999, offset);
+                todos.add(new TodoItem(year + "" + offset, "At " + at, false, 1, at, at.plusNanos(1_500_001)));
+            }
+        }
+
+        assertArrayEquals(beans.writeValueAsBytes(todos), streaming.writeValueAsBytes(todos));
+        for (TodoItem todo : todos) {
+            assertEquals(beans.writeValueAsString(todo), streaming.writeValueAsString(todo));
+        }
+        assertEquals(beans.writeValueAsString(new TodoEvent(1, TodoEvent.Type.CREATED, "1", todos.get(0), null)),
+                streaming.writeValueAsString(new TodoEvent(1, TodoEvent.Type.CREATED, "1", todos.get(0), null)));
+    }
+
+    @Test
+    void testWritesInConfiguredTimeZone() throws Exception {
+        ObjectMapper beansInZone = mapper().defaultTimeZone(TimeZone.getTimeZone("America/New_York")).build();
+        ObjectMapper streamingInZone = mapper().defaultTimeZone(TimeZone.getTimeZone("America/New_York"))
+                .addModule(TodoItemJson.module()).build();
+        TodoItem todo = new TodoItem("1", "Walk the dog", true, 1,
+                OffsetDateTime.of(2024, 7, 1, 12, 0, 0, 0, ZoneOffset.UTC), null);
+
+        assertEquals(beansInZone.writeValueAsString(todo), streamingInZone.writeValueAsString(todo));
+    }
+
+    @Test
+    void testReadsLikeTheBeanDeserializer() throws Exception {
+        List<String> documents = List.of(
+            new String(beans.writeValueAsBytes(generate(new Random(11), 200))),
+            "[{\"id\":\"1\",\"title\":\"Walk\",\"completed\":true,\"userId\":4,"
+                + "\"createdAt\":\"2024-05-01T12:30:15.123+02:00\",\"completedAt\":\"2024-05-01T10:30:15.999Z\"}]",
+            // Coercions, unknown and missing fields, SMART resolution left to the formatter
+            "[{\"id\":5,\"title\":null,\"completed\":\"true\",\"userId\":\"12\",\"extra\":{\"a\":[1,2]},"
+                + "\"createdAt\":\"2023-02-30T24:00:00.000-05:30\",\"completedAt\":\"\"},{},"
+                + "{\"completed\":null,\"userId\":null,\"createdAt\":1714559415123,\"completedAt\":\"0001-01-01T00:00:00.000Z\"}]");
+        for (String document : documents) {
+            assertEquals(fields(beans.readValue(document, TODO_LIST)), fields(streaming.readValue(document, TODO_LIST)), document);
+        }
+    }
+
+    @Test
+    void testRejectsLikeTheBeanDeserializer() {
+        for (String document : List.of("{\"createdAt\":\"yesterday\"}", "{\"createdAt\":\"2024-13-01T00:00:00.000Z\"}")) {
+            assertInstanceOf(InvalidFormatException.class, assertThrows(Exception.class, () -> beans.readValue(document, TodoItem.class)));
+            assertInstanceOf(InvalidFormatException.class, assertThrows(Exception.class, () -> streaming.readValue(document, TodoItem.class)));
+        }
+        assertThrows(MismatchedInputException.class, () -> streaming.readValue("[1]", TodoItem.class));
+        ObjectMapper strict = mapper().enable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).addModule(TodoItemJson.module()).build();
+        assertThrows(MismatchedInputException.class, () -> strict.readValue("{\"extra\":1}", TodoItem.class));
+    }
+
+    @Test
+    void testRegistersOnTheApplicationMapper() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        new TodoItemJson().customize(mapper);
+
+        assertInstanceOf(TodoItemJson.Serializer.class, mapper.getSerializerProviderInstance().findValueSerializer(TodoItem.class));
+    }
+
+    private static JsonMapper.Builder mapper() {
+        return JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    private static List<String> fields(List<TodoItem> todos) {
+        return todos.stream().map(todo -> Arrays.asList(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getUserId(),
+                todo.getCreatedAt(), todo.getCompletedAt()).toString()).toList();
+    }
+
+    /**
+     * Random items, with timestamps at offsets from -12:00 to +12:00 in half hours.
+     */
+    private static List<TodoItem> generate(Random random, int size) {
+        List<TodoItem> todos = new ArrayList<>(size);
+        OffsetDateTime now = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < size; i++) {
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds((random.nextInt(49) - 24) * 1800);
+            OffsetDateTime createdAt = now.minusMinutes(random.nextInt(1_000_000)).withNano(random.nextInt(1_000_000_000))
+                    .withOffsetSameInstant(offset);
+            boolean completed = random.nextBoolean();
+            todos.add(new TodoItem(String.valueOf(i), "Task " + random.nextInt(), completed, random.nextInt(100),
+                    createdAt, completed ? createdAt.plusSeconds(random.nextInt(100_000)) : null));
+        }
+        return todos;
+    }
+}
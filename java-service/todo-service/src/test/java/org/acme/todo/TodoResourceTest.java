@@ -26,6 +26,8 @@ import static org.mockito.ArgumentMatchers.eq;
 @QuarkusTest
 public class TodoResourceTest {
 
+    private static final String USER_EMAIL = "user@example.com";
+
     // InjectMock allows mocking Quarkus beans
     @InjectMock
     TodoService todoService;
@@ -46,10 +48,11 @@ public class TodoResourceTest {
     void testGetAllTodos() {
         // Configure mock behavior
         List<TodoItem> mockTodos = Arrays.asList(todo1, todo2);
-        Mockito.when(todoService.findAllTodos()).thenReturn(mockTodos);
+        Mockito.when(todoService.findAllTodos(USER_EMAIL)).thenReturn(mockTodos);
 
         // Perform the REST call and assert the response
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().get("/todos")
           .then()
              .statusCode(200)
@@ -62,14 +65,15 @@ public class TodoResourceTest {
                    "[1].completed", is(true));
 
         // Verify that the service method was called
-        Mockito.verify(todoService).findAllTodos();
+        Mockito.verify(todoService).findAllTodos(USER_EMAIL);
     }
 
     @Test
     void testGetTodoByIdFound() {
-        Mockito.when(todoService.findTodoById("1")).thenReturn(todo1);
+        Mockito.when(todoService.findTodoById(USER_EMAIL, "1")).thenReturn(todo1);
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().get("/todos/{id}", "1")
           .then()
              .statusCode(200)
@@ -77,7 +81,7 @@ public class TodoResourceTest {
                    "title", is("Buy groceries"),
                    "completed", is(false));
 
-        Mockito.verify(todoService).findTodoById("1");
+        Mockito.verify(todoService).findTodoById(USER_EMAIL, "1");
     }
 
     @Test
@@ -87,10 +91,11 @@ public class TodoResourceTest {
         topWords.put("dog", 2L);
         topWords.put("walk", 1L);
         TodoInsights mockInsights = new TodoInsights(3, 1, 1.0/3.0, topWords);
-        Mockito.when(todoService.getInsights()).thenReturn(mockInsights);
+        Mockito.when(todoService.getInsights(USER_EMAIL)).thenReturn(mockInsights);
 
         // Act & Assert
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().get("/todos/insights")
           .then()
              .statusCode(200)
@@ -100,21 +105,22 @@ public class TodoResourceTest {
                    "mostCommonWords.dog", is(2),
                    "mostCommonWords.walk", is(1));
 
-        Mockito.verify(todoService).getInsights();
+        Mockito.verify(todoService).getInsights(USER_EMAIL);
     }
 
     @Test
     void testGetTodoByIdNotFound() {
         // Simulate NotFoundException from the service
-        Mockito.when(todoService.findTodoById("99")).thenThrow(new NotFoundException("Todo item with ID 99 not found."));
+        Mockito.when(todoService.findTodoById(USER_EMAIL, "99")).thenThrow(new NotFoundException("Todo item with ID 99 not found."));
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().get("/todos/{id}", "99")
           .then()
              .statusCode(404)
              .body(is("Todo item with ID 99 not found.")); // Check the error message in the body
 
-        Mockito.verify(todoService).findTodoById("99");
+        Mockito.verify(todoService).findTodoById(USER_EMAIL, "99");
     }
 
     @Test
@@ -122,9 +128,10 @@ public class TodoResourceTest {
         TodoItem newTodo = new TodoItem(null, "New Task", false); // ID will be generated by service
         TodoItem createdTodo = new TodoItem("3", "New Task", false);
 
-        Mockito.when(todoService.createTodo(any(TodoItem.class))).thenReturn(createdTodo);
+        Mockito.when(todoService.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(createdTodo);
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .contentType("application/json")
           .body(newTodo)
           .when().post("/todos")
@@ -136,7 +143,7 @@ public class TodoResourceTest {
                    "completed", is(false));
 
         // Verify that createTodo was called with an item similar to newTodo (ignoring ID for comparison)
-        Mockito.verify(todoService).createTodo(any(TodoItem.class));
+        Mockito.verify(todoService).createTodo(eq(USER_EMAIL), any(TodoItem.class));
     }
 
     @Test
@@ -144,9 +151,10 @@ public class TodoResourceTest {
         TodoItem updatedTodoRequest = new TodoItem("1", "Buy groceries (updated)", true);
         TodoItem updatedTodoResponse = new TodoItem("1", "Buy groceries (updated)", true);
 
-        Mockito.when(todoService.updateTodo(eq("1"), any(TodoItem.class))).thenReturn(updatedTodoResponse);
+        Mockito.when(todoService.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenReturn(updatedTodoResponse);
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .contentType("application/json")
           .body(updatedTodoRequest)
           .when().put("/todos/{id}", "1")
@@ -156,16 +164,17 @@ public class TodoResourceTest {
                    "title", is("Buy groceries (updated)"),
                    "completed", is(true));
 
-        Mockito.verify(todoService).updateTodo(eq("1"), any(TodoItem.class));
+        Mockito.verify(todoService).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
     }
 
     @Test
     void testUpdateTodoNotFound() {
         TodoItem nonExistentTodo = new TodoItem("99", "Non existent", false);
-        Mockito.when(todoService.updateTodo(eq("99"), any(TodoItem.class)))
+        Mockito.when(todoService.updateTodo(eq(USER_EMAIL), eq("99"), any(TodoItem.class)))
                .thenThrow(new NotFoundException("Todo item with ID 99 not found for update."));
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .contentType("application/json")
           .body(nonExistentTodo)
           .when().put("/todos/{id}", "99")
@@ -173,33 +182,119 @@ public class TodoResourceTest {
              .statusCode(404)
              .body(is("Todo item with ID 99 not found for update."));
 
-        Mockito.verify(todoService).updateTodo(eq("99"), any(TodoItem.class));
+        Mockito.verify(todoService).updateTodo(eq(USER_EMAIL), eq("99"), any(TodoItem.class));
     }
 
     @Test
     void testDeleteTodo() {
         // No return value for delete, just verify it was called
-        Mockito.doNothing().when(todoService).deleteTodo("1");
+        Mockito.doNothing().when(todoService).deleteTodo(USER_EMAIL, "1");
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().delete("/todos/{id}", "1")
           .then()
              .statusCode(204); // Expect 204 No Content
 
-        Mockito.verify(todoService).deleteTodo("1");
+        Mockito.verify(todoService).deleteTodo(USER_EMAIL, "1");
     }
 
     @Test
     void testDeleteTodoNotFound() {
         Mockito.doThrow(new NotFoundException("Todo item with ID 99 not found for deletion."))
-               .when(todoService).deleteTodo("99");
+               .when(todoService).deleteTodo(USER_EMAIL, "99");
 
         given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
           .when().delete("/todos/{id}", "99")
           .then()
              .statusCode(404)
              .body(is("Todo item with ID 99 not found for deletion."));
 
-        Mockito.verify(todoService).deleteTodo("99");
+        Mockito.verify(todoService).deleteTodo(USER_EMAIL, "99");
+    }
+
+    @Test
+    void testGetPage() {
+        Mockito.when(todoService.findTodos(eq(USER_EMAIL), any(TodoQuery.class)))
+               .thenReturn(new TodoPage(Arrays.asList(todo1), "next-cursor"));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .queryParam("limit", 1)
+          .queryParam("completed", false)
+          .when().get("/todos")
+          .then()
+             .statusCode(200)
+             .header("X-Next-Cursor", is("next-cursor"))
+             .body("size()", is(1),
+                   "[0].id", is("1"));
+
+        Mockito.verify(todoService).findTodos(eq(USER_EMAIL), Mockito.argThat(query ->
+                query.getLimit() == 1 && Boolean.FALSE.equals(query.getCompleted()) && query.getCursor() == null));
+        Mockito.verify(todoService, Mockito.never()).findAllTodos(any());
+    }
+
+    @Test
+    void testGetPageInvalidParameters() {
+        for (String[] param : new String[][] {{"limit", "0"}, {"limit", "501"}, {"completed", "maybe"}, {"createdAfter", "yesterday"}}) {
+            given()
+              .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+              .queryParam(param[0], param[1])
+              .when().get("/todos")
+              .then()
+                 .statusCode(400);
+        }
+        Mockito.verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void testSearch() {
+        Mockito.when(todoService.searchTodos(USER_EMAIL, "walk do", 5)).thenReturn(Arrays.asList(todo1));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .queryParam("q", "walk do")
+          .queryParam("limit", 5)
+          .when().get("/todos/search")
+          .then()
+             .statusCode(200)
+             .body("size()", is(1),
+                   "[0].id", is("1"));
+
+        given().queryParam("q", "walk").when().get("/todos/search").then().statusCode(401);
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .queryParam("q", " ").when().get("/todos/search").then().statusCode(400);
+        given().header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .queryParam("q", "walk").queryParam("limit", 101).when().get("/todos/search").then().statusCode(400);
+        Mockito.verify(todoService).searchTodos(any(), any(), Mockito.anyInt());
+    }
+
+    @Test
+    void testBatch() {
+        TodoItem created = new TodoItem("3", "Write tests", false);
+        Mockito.when(todoService.executeBatch(eq(USER_EMAIL), any())).thenReturn(Arrays.asList(
+                BatchResult.success(0, BatchOperation.Type.CREATE, "3", 201, created),
+                BatchResult.failure(1, BatchOperation.Type.DELETE, "99", 404, "Todo item with ID 99 not found for deletion.")));
+
+        given()
+          .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+          .contentType("application/json")
+          .body("[{\"op\":\"create\",\"item\":{\"title\":\"Write tests\"}},{\"op\":\"delete\",\"id\":\"99\"}]")
+          .when().post("/todos/batch")
+          .then()
+             .statusCode(200)
+             .body("size()", is(2),
+                   "[0].op", is("create"),
+                   "[0].status", is(201),
+                   "[0].item.title", is("Write tests"),
+                   "[1].status", is(404),
+                   "[1].success", is(false),
+                   "[1].error", is("Todo item with ID 99 not found for deletion."));
+
+        Mockito.verify(todoService).executeBatch(eq(USER_EMAIL), Mockito.argThat(operations ->
+                operations.size() == 2
+                        && operations.get(0).getOp() == BatchOperation.Type.CREATE
+                        && "99".equals(operations.get(1).getId())));
     }
 }
@@ -1,21 +1,34 @@
 // src/test/java/org/acme/todo/TodoServiceTest.java
 package org.acme.todo;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.jboss.resteasy.reactive.RestResponse;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -27,6 +40,8 @@ import static org.mockito.ArgumentMatchers.eq;
 @QuarkusTest
 public class TodoServiceTest {
 
+    private static final String USER_EMAIL = "user@example.com";
+
     @Inject
     TodoService todoService; // The service we are testing
 
@@ -34,6 +49,12 @@ public class TodoServiceTest {
     @RestClient // Important: InjectMock for RestClient interfaces
     TodoClient todoClient; // The dependency to mock
 
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
     private TodoItem todo1;
     private TodoItem todo2;
 
@@ -41,6 +62,7 @@ public class TodoServiceTest {
     void setUp() {
         // Reset mocks before each test to ensure isolation
         Mockito.reset(todoClient);
+        todoCache.invalidateAll();
 
         todo1 = new TodoItem("1", "Buy groceries", false);
         todo2 = new TodoItem("2", "Walk the dog", true);
@@ -48,12 +70,12 @@ public class TodoServiceTest {
 
     @Test
     void testFindAllTodos() {
-        // Configure mock behavior for todoClient.getAllTodos()
+        // Configure mock behavior for todoClient.getTodos()
         List<TodoItem> mockTodos = Arrays.asList(todo1, todo2);
-        Mockito.when(todoClient.getAllTodos()).thenReturn(mockTodos);
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(mockTodos);
 
         // Call the service method
-        List<TodoItem> result = todoService.findAllTodos();
+        List<TodoItem> result = todoService.findAllTodos(USER_EMAIL);
 
         // Assert the result
         assertNotNull(result);
@@ -62,33 +84,33 @@ public class TodoServiceTest {
         assertEquals(todo2, result.get(1));
 
         // Verify that the client method was called
-        Mockito.verify(todoClient).getAllTodos();
+        Mockito.verify(todoClient).getTodos(USER_EMAIL);
     }
 
     @Test
     void testFindTodoByIdFound() {
-        Mockito.when(todoClient.getTodoById("1")).thenReturn(todo1);
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "1")).thenReturn(todo1);
 
-        TodoItem result = todoService.findTodoById("1");
+        TodoItem result = todoService.findTodoById(USER_EMAIL, "1");
 
         assertNotNull(result);
         assertEquals(todo1, result);
-        Mockito.verify(todoClient).getTodoById("1");
+        Mockito.verify(todoClient).getTodoById(USER_EMAIL, "1");
     }
 
     @Test
     void testFindTodoByIdNotFound() {
         // Simulate a 404 response from the client
         WebApplicationException notFoundException = new WebApplicationException(Response.Status.NOT_FOUND);
-        Mockito.when(todoClient.getTodoById("99")).thenThrow(notFoundException);
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "99")).thenThrow(notFoundException);
 
         // Assert that NotFoundException is thrown by the service
         NotFoundException thrown = assertThrows(NotFoundException.class, () -> {
-            todoService.findTodoById("99");
+            todoService.findTodoById(USER_EMAIL, "99");
         });
 
         assertEquals("Todo item with ID 99 not found.", thrown.getMessage());
-        Mockito.verify(todoClient).getTodoById("99");
+        Mockito.verify(todoClient).getTodoById(USER_EMAIL, "99");
     }
 
     @Test
@@ -97,9 +119,9 @@ public class TodoServiceTest {
         TodoItem createdTodoResponse = new TodoItem("generated-id", "New Task", false);
 
         // Mock the client's createTodo method to return a TodoItem with a generated ID
-        Mockito.when(todoClient.createTodo(any(TodoItem.class))).thenReturn(createdTodoResponse);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(createdTodoResponse);
 
-        TodoItem result = todoService.createTodo(newTodo);
+        TodoItem result = todoService.createTodo(USER_EMAIL, newTodo);
 
         assertNotNull(result);
         assertNotNull(result.getId()); // Verify an ID was assigned
@@ -107,7 +129,7 @@ public class TodoServiceTest {
         assertFalse(result.isCompleted());
 
         // Verify that the client method was called with a TodoItem that has an ID
-        Mockito.verify(todoClient).createTodo(any(TodoItem.class));
+        Mockito.verify(todoClient).createTodo(eq(USER_EMAIL), any(TodoItem.class));
     }
 
     @Test
@@ -115,15 +137,15 @@ public class TodoServiceTest {
         TodoItem newTodo = new TodoItem("custom-id", "Custom Task", false);
         TodoItem createdTodoResponse = new TodoItem("custom-id", "Custom Task", false);
 
-        Mockito.when(todoClient.createTodo(any(TodoItem.class))).thenReturn(createdTodoResponse);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(createdTodoResponse);
 
-        TodoItem result = todoService.createTodo(newTodo);
+        TodoItem result = todoService.createTodo(USER_EMAIL, newTodo);
 
         assertNotNull(result);
         assertEquals("custom-id", result.getId());
         assertEquals("Custom Task", result.getTitle());
 
-        Mockito.verify(todoClient).createTodo(any(TodoItem.class));
+        Mockito.verify(todoClient).createTodo(eq(USER_EMAIL), any(TodoItem.class));
     }
 
     @Test
@@ -131,53 +153,53 @@ public class TodoServiceTest {
         TodoItem updatedTodoRequest = new TodoItem("1", "Buy groceries (updated)", true);
         TodoItem updatedTodoResponse = new TodoItem("1", "Buy groceries (updated)", true);
 
-        Mockito.when(todoClient.updateTodo(eq("1"), any(TodoItem.class))).thenReturn(updatedTodoResponse);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenReturn(updatedTodoResponse);
 
-        TodoItem result = todoService.updateTodo("1", updatedTodoRequest);
+        TodoItem result = todoService.updateTodo(USER_EMAIL, "1", updatedTodoRequest);
 
         assertNotNull(result);
         assertEquals(todo1.getId(), result.getId());
         assertEquals("Buy groceries (updated)", result.getTitle());
         assertTrue(result.isCompleted());
 
-        Mockito.verify(todoClient).updateTodo(eq("1"), any(TodoItem.class));
+        Mockito.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
     }
 
     @Test
     void testUpdateTodoNotFound() {
         WebApplicationException notFoundException = new WebApplicationException(Response.Status.NOT_FOUND);
-        Mockito.when(todoClient.updateTodo(eq("99"), any(TodoItem.class))).thenThrow(notFoundException);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("99"), any(TodoItem.class))).thenThrow(notFoundException);
 
         TodoItem nonExistentTodo = new TodoItem("99", "Non existent", false);
 
         NotFoundException thrown = assertThrows(NotFoundException.class, () -> {
-            todoService.updateTodo("99", nonExistentTodo);
+            todoService.updateTodo(USER_EMAIL, "99", nonExistentTodo);
         });
 
         assertEquals("Todo item with ID 99 not found for update.", thrown.getMessage());
-        Mockito.verify(todoClient).updateTodo(eq("99"), any(TodoItem.class));
+        Mockito.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("99"), any(TodoItem.class));
     }
 
     @Test
     void testDeleteTodo() {
-        Mockito.doNothing().when(todoClient).deleteTodo("1");
+        Mockito.doNothing().when(todoClient).deleteTodo(USER_EMAIL, "1");
 
-        assertDoesNotThrow(() -> todoService.deleteTodo("1"));
+        assertDoesNotThrow(() -> todoService.deleteTodo(USER_EMAIL, "1"));
 
-        Mockito.verify(todoClient).deleteTodo("1");
+        Mockito.verify(todoClient).deleteTodo(USER_EMAIL, "1");
     }
 
     @Test
     void testDeleteTodoNotFound() {
         WebApplicationException notFoundException = new WebApplicationException(Response.Status.NOT_FOUND);
-        Mockito.doThrow(notFoundException).when(todoClient).deleteTodo("99");
+        Mockito.doThrow(notFoundException).when(todoClient).deleteTodo(USER_EMAIL, "99");
 
         NotFoundException thrown = assertThrows(NotFoundException.class, () -> {
-            todoService.deleteTodo("99");
+            todoService.deleteTodo(USER_EMAIL, "99");
         });
 
         assertEquals("Todo item with ID 99 not found for deletion.", thrown.getMessage());
-        Mockito.verify(todoClient).deleteTodo("99");
+        Mockito.verify(todoClient).deleteTodo(USER_EMAIL, "99");
     }
 
     @Test
@@ -188,10 +210,10 @@ public class TodoServiceTest {
             new TodoItem("2", "Buy milk and dog food", false),
             new TodoItem("3", "Clean the house", false)
         );
-        Mockito.when(todoClient.getAllTodos()).thenReturn(mockTodos);
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(mockTodos);
 
         // Act
-        TodoInsights insights = todoService.getInsights();
+        TodoInsights insights = todoService.getInsights(USER_EMAIL);
 
         // Assert
         assertNotNull(insights);
@@ -205,4 +227,290 @@ public class TodoServiceTest {
         assertFalse(topWords.containsKey("the")); // stop word
         assertEquals(5, topWords.size()); // Verify that we get the top 5 words
     }
+
+    @Test
+    void testFindAllTodosIsCachedPerUser() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(todo1, todo2));
+        Mockito.when(todoClient.getTodos("other@example.com")).thenReturn(List.of(todo1));
+
+        assertEquals(2, todoService.findAllTodos(USER_EMAIL).size());
+        assertEquals(2, todoService.findAllTodos(USER_EMAIL).size());
+        assertEquals(1, todoService.findAllTodos("other@example.com").size());
+
+        // The second read of the same user is served from the cache
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos("other@example.com");
+    }
+
+    @Test
+    void testMutationsPatchCachedList() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(todo1, todo2));
+        todoService.findAllTodos(USER_EMAIL);
+
+        TodoItem created = new TodoItem("3", "Write tests", false);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(created);
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Write tests", false));
+
+        TodoItem updated = new TodoItem("1", "Buy groceries", true);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenReturn(updated);
+        todoService.updateTodo(USER_EMAIL, "1", updated);
+
+        todoService.deleteTodo(USER_EMAIL, "2");
+
+        List<TodoItem> result = todoService.findAllTodos(USER_EMAIL);
+        assertEquals(Arrays.asList(created, updated), result);
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testInsightsFollowMutationsWithoutReload() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(todo1, todo2));
+        assertEquals(1, todoService.getInsights(USER_EMAIL).getCompletedTasks());
+
+        TodoItem created = new TodoItem("3", "Walk the cat", true);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(created);
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Walk the cat", true));
+
+        TodoInsights insights = todoService.getInsights(USER_EMAIL);
+        assertEquals(InsightsCalculator.compute(Arrays.asList(created, todo1, todo2)), insights);
+        assertEquals(2, insights.getMostCommonWords().get("walk").longValue());
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testSearchFollowsMutationsWithoutReload() {
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(todo1, todo2));
+        assertEquals(List.of(todo2), todoService.searchTodos(USER_EMAIL, "walk", 10));
+
+        TodoItem created = new TodoItem("3", "Walk the cat", false);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(created);
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Walk the cat", false));
+        TodoItem updated = new TodoItem("1", "Buy cat food", false);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenReturn(updated);
+        todoService.updateTodo(USER_EMAIL, "1", updated);
+        todoService.deleteTodo(USER_EMAIL, "2");
+
+        assertEquals(List.of(created), todoService.searchTodos(USER_EMAIL, "WALK", 10));
+        assertEquals(List.of(created, updated), todoService.searchTodos(USER_EMAIL, "ca", 10));
+        assertTrue(todoService.searchTodos(USER_EMAIL, "groceries", 10).isEmpty());
+        Mockito.verify(todoClient, Mockito.times(1)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testConcurrentFindTodoByIdSharesOneBackendCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "1")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return todo1;
+        });
+        double coalescedBefore = coalesced(SingleFlight.GET_TODO_BY_ID);
+
+        int readers = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            List<Future<TodoItem>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> todoService.findTodoById(USER_EMAIL, "1")));
+            }
+            // Hold the backend call until every other reader has joined it
+            awaitCoalesced(SingleFlight.GET_TODO_BY_ID, coalescedBefore + readers - 1);
+            release.countDown();
+            for (Future<TodoItem> result : results) {
+                assertSame(todo1, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        Mockito.verify(todoClient, Mockito.times(1)).getTodoById(USER_EMAIL, "1");
+    }
+
+    @Test
+    void testCoalescedReadsShareNotFound() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "99")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            throw new WebApplicationException(Response.Status.NOT_FOUND);
+        });
+        double coalescedBefore = coalesced(SingleFlight.GET_TODO_BY_ID);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TodoItem> first = executor.submit(() -> todoService.findTodoById(USER_EMAIL, "99"));
+            Future<TodoItem> second = executor.submit(() -> todoService.findTodoById(USER_EMAIL, "99"));
+            awaitCoalesced(SingleFlight.GET_TODO_BY_ID, coalescedBefore + 1);
+            release.countDown();
+            for (Future<TodoItem> result : List.of(first, second)) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(NotFoundException.class, e.getCause());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        Mockito.verify(todoClient, Mockito.times(1)).getTodoById(USER_EMAIL, "99");
+    }
+
+    @Test
+    void testReadAfterMutationDoesNotJoinOlderCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TodoItem updated = new TodoItem("1", "Buy groceries", true);
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "1"))
+               .thenAnswer(invocation -> {
+                   started.countDown();
+                   release.await(10, TimeUnit.SECONDS);
+                   return todo1;
+               })
+               .thenReturn(updated);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenReturn(updated);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<TodoItem> before = executor.submit(() -> todoService.findTodoById(USER_EMAIL, "1"));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            todoService.updateTodo(USER_EMAIL, "1", updated);
+
+            assertSame(updated, todoService.findTodoById(USER_EMAIL, "1"));
+            release.countDown();
+            assertSame(todo1, before.get(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        Mockito.verify(todoClient, Mockito.times(2)).getTodoById(USER_EMAIL, "1");
+    }
+
+    @Test
+    void testFindTodosPassesPageThrough() {
+        Mockito.when(todoClient.getTodoPage(USER_EMAIL, 2, "abc", false, "2025-01-01T00:00:00Z"))
+               .thenReturn(RestResponse.ResponseBuilder.ok(Arrays.asList(todo1))
+                                                       .header("X-Next-Cursor", "def")
+                                                       .build());
+
+        TodoPage page = todoService.findTodos(USER_EMAIL, TodoQuery.parse("2", "abc", "false", "2025-01-01T00:00:00Z"));
+
+        assertEquals(List.of(todo1), page.getItems());
+        assertEquals("def", page.getNextCursor());
+        Mockito.verify(todoClient, Mockito.never()).getTodos(any());
+    }
+
+    @Test
+    void testFindTodosRejectedCursor() {
+        Mockito.when(todoClient.getTodoPage(eq(USER_EMAIL), any(), eq("garbage"), any(), any()))
+               .thenThrow(new WebApplicationException(Response.Status.BAD_REQUEST));
+
+        assertThrows(BadRequestException.class,
+                () -> todoService.findTodos(USER_EMAIL, TodoQuery.parse(null, "garbage", null, null)));
+    }
+
+    @Test
+    void testExecuteBatchReportsPartialFailures() {
+        TodoItem created = new TodoItem("3", "Write tests", false);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(created);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class)))
+               .thenThrow(new WebApplicationException(Response.Status.NOT_FOUND));
+
+        List<BatchResult> results = todoService.executeBatch(USER_EMAIL, Arrays.asList(
+                BatchOperation.create(new TodoItem(null, "Write tests", false)),
+                BatchOperation.update("1", todo1),
+                BatchOperation.delete("2"),
+                new BatchOperation(null, "4", null),
+                BatchOperation.delete(null)));
+
+        assertEquals(5, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(created, results.get(0).getItem());
+        assertEquals(404, results.get(1).getStatus());
+        assertEquals("Todo item with ID 1 not found for update.", results.get(1).getError());
+        assertEquals(204, results.get(2).getStatus());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(400, results.get(3).getStatus());
+        assertEquals(400, results.get(4).getStatus());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        Mockito.verify(todoClient).deleteTodo(USER_EMAIL, "2");
+    }
+
+    @Test
+    void testExecuteBatchRunsOperationsOnSameItemInOrder() {
+        TodoItem item = new TodoItem(null, "Write tests", false);
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenAnswer(invocation -> invocation.getArgument(1));
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), any(), any(TodoItem.class))).thenAnswer(invocation -> invocation.getArgument(2));
+
+        List<BatchResult> results = todoService.executeBatch(USER_EMAIL, Arrays.asList(
+                BatchOperation.create(item),
+                BatchOperation.update("1", todo1),
+                BatchOperation.delete("1")));
+
+        // The created item got its ID up front, and the operations on item 1 did not overtake each other
+        assertNotNull(results.get(0).getId());
+        InOrder inOrder = Mockito.inOrder(todoClient);
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
+        inOrder.verify(todoClient).deleteTodo(USER_EMAIL, "1");
+    }
+
+    @Test
+    void testExecuteBatchBoundsBackendConcurrency() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), any(), any(TodoItem.class))).thenAnswer(invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+                return invocation.getArgument(2);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        List<BatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            operations.add(BatchOperation.update(String.valueOf(i), new TodoItem(null, "Item " + i, true)));
+        }
+
+        List<BatchResult> results = todoService.executeBatch(USER_EMAIL, operations);
+
+        assertTrue(results.stream().allMatch(BatchResult::isSuccess));
+        assertTrue(peak.get() <= 8, "peak " + peak.get() + " exceeds todo.batch.concurrency");
+        assertTrue(peak.get() > 1, "batch operations were not pipelined");
+    }
+
+    @Test
+    void testExecuteBatchRejectsOversizedBatch() {
+        List<BatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            operations.add(BatchOperation.delete(String.valueOf(i)));
+        }
+        assertThrows(BadRequestException.class, () -> todoService.executeBatch(USER_EMAIL, operations));
+        Mockito.verifyNoInteractions(todoClient);
+    }
+
+    private double coalesced(String call) {
+        return meterRegistry.counter("todo.backend.coalesced", "call", call).count();
+    }
+
+    private void awaitCoalesced(String call, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalesced(call) < expected) {
+            assertTrue(System.nanoTime() < deadline, "readers did not join the in-flight call");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testOrgInsightsNeedTheJdbcStore() {
+        WebApplicationException e = assertThrows(WebApplicationException.class, () -> todoService.getOrgInsights());
+        assertEquals(501, e.getResponse().getStatus());
+    }
+
+    @Test
+    void testNoOrgInsightsFromTheBackend() {
+        assertFalse(todoService.hasOrgInsights());
+        given()
+          .header("X-Goog-Authenticated-User-Email", "admin@example.com")
+          .when().get("/admin/insights")
+          .then()
+             .statusCode(404);
+    }
 }
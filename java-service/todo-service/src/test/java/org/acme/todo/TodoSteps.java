@@ -16,10 +16,13 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 @QuarkusTest
 public class TodoSteps {
 
+    private static final String USER_EMAIL = "user@example.com";
+
     @InjectMock
     TodoService todoService;
 
@@ -30,23 +33,24 @@ public class TodoSteps {
         TodoItem todo1 = new TodoItem("1", "Buy groceries", false);
         TodoItem todo2 = new TodoItem("2", "Walk the dog", true);
         List<TodoItem> mockTodos = Arrays.asList(todo1, todo2);
-        Mockito.when(todoService.findAllTodos()).thenReturn(mockTodos);
+        Mockito.when(todoService.findAllTodos(USER_EMAIL)).thenReturn(mockTodos);
     }
 
     @Given("a to-do item with ID {string} exists")
     public void setupSingleTodo(String id) {
         TodoItem todo = new TodoItem(id, "Buy groceries", false);
-        Mockito.when(todoService.findTodoById(id)).thenReturn(todo);
+        Mockito.when(todoService.findTodoById(USER_EMAIL, id)).thenReturn(todo);
     }
 
     @Given("no to-do item with ID {string} exists")
     public void setupNotFoundTodo(String id) {
-        Mockito.when(todoService.findTodoById(id)).thenThrow(new NotFoundException("Todo item with ID " + id + " not found."));
+        Mockito.when(todoService.findTodoById(USER_EMAIL, id)).thenThrow(new NotFoundException("Todo item with ID " + id + " not found."));
     }
 
     @When("a user requests all to-do items")
     public void requestAllTodos() {
         response = given()
+                .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
                 .when().get("/todos")
                 .then();
     }
@@ -54,6 +58,7 @@ public class TodoSteps {
     @When("a user requests the to-do item with ID {string}")
     public void requestTodoById(String id) {
         response = given()
+                .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
                 .when().get("/todos/{id}", id)
                 .then();
     }
@@ -63,9 +68,10 @@ public class TodoSteps {
         TodoItem newTodo = new TodoItem(null, title, false);
         TodoItem createdTodo = new TodoItem("generated-id", title, false);
         // Mock the service call
-        Mockito.when(todoService.createTodo(any(TodoItem.class))).thenReturn(createdTodo);
+        Mockito.when(todoService.createTodo(eq(USER_EMAIL), any(TodoItem.class))).thenReturn(createdTodo);
 
         response = given()
+                .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
                 .contentType("application/json")
                 .body(newTodo)
                 .when().post("/todos")
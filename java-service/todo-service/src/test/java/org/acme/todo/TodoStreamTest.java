@@ -0,0 +1,223 @@
+// src/test/java/org/acme/todo/TodoStreamTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests for the change feed of GET /todos/stream: events of mutations, eviction of slow
+ * subscribers and resuming with a token. Buffers and the ChangeLog are small, so eviction and
+ * compaction are reached with a handful of events; heartbeats are sent by calling the ticker's task directly.
+ */
+@QuarkusTest
+@TestProfile(TodoStreamTest.SmallBuffers.class)
+public class TodoStreamTest {
+
+    private static final String USER_EMAIL = "streamer@example.com";
+
+    public static class SmallBuffers implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "todo.stream.buffer-size", "4",
+                    "todo.changes.max-entries", "8",
+                    "todo.stream.heartbeat", "1H");
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    TodoEvents events;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry registry;
+
+    @TestHTTPResource("/todos/stream")
+    URI streamUri;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(List.of(
+                new TodoItem("1", "Buy groceries", false),
+                new TodoItem("2", "Walk the dog", true)));
+    }
+
+    @Test
+    void testMutationsArePublishedWithInsights() {
+        todoService.getInsights(USER_EMAIL);
+        AssertSubscriber<TodoEvent> subscriber = events.subscribe(USER_EMAIL, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        Mockito.when(todoClient.createTodo(eq(USER_EMAIL), any())).thenReturn(new TodoItem("3", "Water plants", false));
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any())).thenReturn(new TodoItem("1", "Buy groceries", true));
+
+        todoService.createTodo(USER_EMAIL, new TodoItem(null, "Water plants", false));
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "Buy groceries", true));
+        todoService.deleteTodo(USER_EMAIL, "2");
+
+        List<TodoEvent> received = subscriber.awaitItems(6).getItems();
+        assertEquals(List.of(TodoEvent.Type.CREATED, TodoEvent.Type.INSIGHTS, TodoEvent.Type.UPDATED,
+                TodoEvent.Type.INSIGHTS, TodoEvent.Type.DELETED, TodoEvent.Type.INSIGHTS),
+                received.stream().map(TodoEvent::getType).toList());
+        assertEquals("Water plants", received.get(0).getItem().getTitle());
+        assertEquals(3, received.get(1).getInsights().getTotalTasks());
+        assertEquals(2, received.get(3).getInsights().getCompletedTasks());
+        assertEquals("2", received.get(4).getTodoId());
+        assertEquals(2, received.get(5).getInsights().getTotalTasks());
+        subscriber.cancel();
+    }
+
+    @Test
+    void testSlowSubscriberIsEvicted() {
+        double evictions = registry.counter("todo.stream.evictions").count();
+        double dropped = registry.counter("todo.stream.dropped").count();
+        AssertSubscriber<TodoEvent> subscriber = events.subscribe(USER_EMAIL, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(1));
+        assertEquals(1.0, registry.get("todo.stream.subscribers").gauge().value());
+
+        // One is delivered, four fill the buffer, the sixth overflows it
+        for (int i = 0; i < 6; i++) {
+            events.updated(USER_EMAIL, new TodoItem("1", "Edit " + i, false));
+        }
+
+        subscriber.assertCompleted();
+        assertEquals(1, subscriber.getItems().size());
+        assertEquals(evictions + 1, registry.counter("todo.stream.evictions").count());
+        assertEquals(dropped + 5, registry.counter("todo.stream.dropped").count());
+        assertEquals(0.0, registry.get("todo.stream.subscribers").gauge().value());
+    }
+
+    @Test
+    void testReconnectResumesAfterLastEvent() {
+        AssertSubscriber<TodoEvent> first = events.subscribe(USER_EMAIL, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        events.updated(USER_EMAIL, new TodoItem("1", "Seen", false));
+        String token = events.token(first.awaitItems(1).getItems().get(0));
+        first.cancel();
+        // Missed while disconnected
+        events.updated(USER_EMAIL, new TodoItem("1", "Missed", false));
+        events.deleted(USER_EMAIL, "2");
+
+        AssertSubscriber<TodoEvent> resumed = events.subscribe(USER_EMAIL, token)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+
+        List<TodoEvent> replayed = resumed.awaitItems(2).getItems();
+        assertEquals("Missed", replayed.get(0).getItem().getTitle());
+        assertEquals(TodoEvent.Type.DELETED, replayed.get(1).getType());
+        resumed.cancel();
+    }
+
+    @Test
+    void testUnknownOrExpiredTokenGetsReset() {
+        AssertSubscriber<TodoEvent> first = events.subscribe(USER_EMAIL, null)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        events.updated(USER_EMAIL, new TodoItem("1", "Seen", false));
+        String token = events.token(first.awaitItems(1).getItems().get(0));
+        first.cancel();
+        // More items than the ChangeLog holds
+        for (int i = 0; i < 10; i++) {
+            events.updated(USER_EMAIL, new TodoItem(String.valueOf(10 + i), "Missed " + i, false));
+        }
+
+        AssertSubscriber<TodoEvent> expired = events.subscribe(USER_EMAIL, token)
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        TodoEvent reset = expired.awaitItems(1).getItems().get(0);
+        assertEquals(TodoEvent.Type.RESET, reset.getType());
+        expired.cancel();
+
+        // Resuming from the reset misses nothing
+        events.updated(USER_EMAIL, new TodoItem("1", "After reset", false));
+        AssertSubscriber<TodoEvent> resumed = events.subscribe(USER_EMAIL, events.token(reset))
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals("After reset", resumed.awaitItems(1).getItems().get(0).getItem().getTitle());
+        resumed.cancel();
+
+        AssertSubscriber<TodoEvent> garbage = events.subscribe(USER_EMAIL, "not-a-token")
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        assertEquals(TodoEvent.Type.RESET, garbage.awaitItems(1).getItems().get(0).getType());
+        garbage.cancel();
+    }
+
+    @Test
+    void testServerSentEvents() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(streamUri)
+                .header("X-Goog-Authenticated-User-Email", USER_EMAIL)
+                .header("Accept", "text/event-stream")
+                .build();
+        CompletableFuture<HttpResponse<Stream<String>>> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.get("todo.stream.subscribers").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+
+        events.updated(USER_EMAIL, new TodoItem("1", "Streamed", true));
+        events.tick();
+
+        HttpResponse<Stream<String>> stream = response.get(10, TimeUnit.SECONDS);
+        assertEquals(200, stream.statusCode());
+        assertTrue(stream.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+        Iterator<String> lines = stream.body().iterator();
+        String id = null;
+        String data = null;
+        boolean heartbeat = false;
+        while (lines.hasNext() && !(data != null && heartbeat)) {
+            String line = lines.next();
+            if (line.startsWith("id:")) {
+                id = line.substring(3).trim();
+            } else if (line.startsWith("data:")) {
+                data = line.substring(5).trim();
+            } else if (line.startsWith(":")) {
+                heartbeat = true;
+            }
+        }
+        stream.body().close();
+
+        assertNotNull(id);
+        assertTrue(data.contains("\"type\":\"updated\"") && data.contains("\"title\":\"Streamed\""), data);
+        assertTrue(heartbeat);
+    }
+
+    @Test
+    void testStreamNeedsAUser() {
+        given().when().get("/todos/stream").then().statusCode(401);
+    }
+}
@@ -0,0 +1,134 @@
+// src/test/java/org/acme/todo/VirtualThreadLoadTest.java
+package org.acme.todo;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+/**
+ * Load test showing the concurrency ceiling of the blocking pipeline and how virtual threads lift it.
+ * The TodoClient is stubbed with a slow backend that records how many calls are in flight at once.
+ * The worker pool is shrunk so the ceiling is reached with a handful of requests:
+ * GET /todos stays on the worker pool, GET /todos/{id} is switched to virtual threads.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadLoadTest.SmallWorkerPool.class)
+public class VirtualThreadLoadTest {
+
+    private static final Logger LOG = Logger.getLogger(VirtualThreadLoadTest.class);
+
+    private static final int WORKER_THREADS = 8;
+    private static final int CONCURRENT_REQUESTS = 4 * WORKER_THREADS;
+    private static final long BACKEND_LATENCY_MS = 250;
+
+    public static class SmallWorkerPool implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS),
+                    "todo.pipeline", "blocking",
+                    "todo.pipeline.get-by-id", "virtual");
+        }
+    }
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @Inject
+    TodoCache todoCache;
+
+    @TestHTTPResource("/todos")
+    URI todosUri;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        inFlight.set(0);
+        peak.set(0);
+        Mockito.when(todoClient.getTodos(anyString())).thenAnswer(slowBackend(List.of()));
+        Mockito.when(todoClient.getTodoById(any(), anyString()))
+               .thenAnswer(slowBackend(new TodoItem("1", "Slow item", false)));
+    }
+
+    @Test
+    void testWorkerPoolCapsConcurrentBackendCalls() throws Exception {
+        // Distinct users, so every request misses the cache and calls the backend
+        long elapsed = load(i -> request(todosUri, "user" + i + "@example.com"));
+
+        LOG.infof("blocking pipeline: %d requests, peak %d backend calls in flight, %d ms",
+                CONCURRENT_REQUESTS, peak.get(), elapsed);
+        assertTrue(peak.get() <= WORKER_THREADS, "peak " + peak.get() + " exceeds the worker pool");
+    }
+
+    @Test
+    void testVirtualThreadsLiftTheCeiling() throws Exception {
+        // Distinct ids, so no request joins another one's backend call
+        long elapsed = load(i -> request(todosUri.resolve("/todos/" + i), "user@example.com"));
+
+        LOG.infof("virtual pipeline: %d requests, peak %d backend calls in flight, %d ms",
+                CONCURRENT_REQUESTS, peak.get(), elapsed);
+        assertTrue(peak.get() > WORKER_THREADS, "peak " + peak.get() + " is capped by the worker pool");
+    }
+
+    private long load(IntFunction<HttpRequest> requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(client.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            assertEquals(200, response.get().statusCode());
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static HttpRequest request(URI uri, String userEmail) {
+        return HttpRequest.newBuilder(uri)
+                .header("X-Goog-Authenticated-User-Email", userEmail)
+                .GET()
+                .build();
+    }
+
+    private <T> Answer<T> slowBackend(T result) {
+        return invocation -> {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(BACKEND_LATENCY_MS);
+                return result;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+// src/test/java/org/acme/todo/WriteBehindBufferTest.java
+package org.acme.todo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Tests for the TodoService with write-behind updates.
+ * The flush interval is long enough for the ticker never to fire during a test; time-triggered
+ * flushes are exercised by calling the ticker's task directly.
+ */
+@QuarkusTest
+@TestProfile(WriteBehindBufferTest.WriteBehind.class)
+public class WriteBehindBufferTest {
+
+    private static final String USER_EMAIL = "user@example.com";
+
+    public static class WriteBehind implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "todo.write-behind.enabled", "true",
+                    "todo.write-behind.max-batch", "3",
+                    "todo.write-behind.flush-interval", "1H");
+        }
+    }
+
+    @Inject
+    TodoService todoService;
+
+    @Inject
+    WriteBehindBuffer writeBehind;
+
+    @Inject
+    TodoCache todoCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Inject
+    ReactiveTodoService reactiveTodoService;
+
+    @InjectMock
+    @RestClient
+    TodoClient todoClient;
+
+    @InjectMock
+    @RestClient
+    ReactiveTodoClient reactiveTodoClient;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind.flush(USER_EMAIL);
+        Mockito.reset(todoClient);
+        todoCache.invalidateAll();
+        Mockito.when(todoClient.getTodos(USER_EMAIL)).thenReturn(Arrays.asList(
+                new TodoItem("1", "Buy groceries", false),
+                new TodoItem("2", "Walk the dog", false),
+                new TodoItem("3", "Call mom", false),
+                new TodoItem("4", "Pay bills", false)));
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), anyString(), any(TodoItem.class)))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+    }
+
+    @Test
+    void testUpdatesAreAcknowledgedAndCollapsed() {
+        todoService.findAllTodos(USER_EMAIL);
+        double coalesced = meterRegistry.counter("todo.write-behind.coalesced").count();
+
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "Buy milk", true));
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", null, false));
+        TodoItem acknowledged = todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", null, true));
+
+        assertEquals("Buy milk", acknowledged.getTitle());
+        assertTrue(acknowledged.isCompleted());
+        assertEquals(acknowledged, todoService.findAllTodos(USER_EMAIL).get(0));
+        Mockito.verify(todoClient, Mockito.never()).updateTodo(anyString(), anyString(), any(TodoItem.class));
+        assertEquals(coalesced + 2, meterRegistry.counter("todo.write-behind.coalesced").count());
+        assertEquals(1, meterRegistry.get("todo.write-behind.pending").gauge().value());
+
+        writeBehind.flush(USER_EMAIL);
+
+        ArgumentCaptor<TodoItem> written = ArgumentCaptor.forClass(TodoItem.class);
+        Mockito.verify(todoClient, Mockito.times(1)).updateTodo(eq(USER_EMAIL), eq("1"), written.capture());
+        assertEquals("Buy milk", written.getValue().getTitle());
+        assertTrue(written.getValue().isCompleted());
+        assertEquals(0, meterRegistry.get("todo.write-behind.pending").gauge().value());
+    }
+
+    @Test
+    void testUpdatesAreWrittenInOrderBeforeReads() {
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "First", false));
+        todoService.updateTodo(USER_EMAIL, "2", new TodoItem("2", "Second", false));
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "First again", true));
+        Mockito.when(todoClient.getTodoById(USER_EMAIL, "2")).thenReturn(new TodoItem("2", "Second", false));
+
+        todoService.findTodoById(USER_EMAIL, "2");
+
+        InOrder inOrder = Mockito.inOrder(todoClient);
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("2"), any(TodoItem.class));
+        inOrder.verify(todoClient).getTodoById(USER_EMAIL, "2");
+    }
+
+    @Test
+    void testFlushTriggers() {
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "One", false));
+        writeBehind.flushDue();
+        Mockito.verify(todoClient, Mockito.timeout(5000)).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
+
+        // The third pending item reaches max-batch
+        todoService.updateTodo(USER_EMAIL, "2", new TodoItem("2", "Two", false));
+        todoService.updateTodo(USER_EMAIL, "3", new TodoItem("3", "Three", false));
+        todoService.updateTodo(USER_EMAIL, "4", new TodoItem("4", "Four", false));
+        Mockito.verify(todoClient, Mockito.timeout(5000)).updateTodo(eq(USER_EMAIL), eq("4"), any(TodoItem.class));
+    }
+
+    @Test
+    void testRejectedUpdateIsDroppedAndTheCacheReloaded() {
+        todoService.findAllTodos(USER_EMAIL);
+        Mockito.when(todoClient.updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class))).thenThrow(new NotFoundException());
+        double failures = meterRegistry.counter("todo.write-behind.failures").count();
+
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "Gone", true));
+        assertEquals("Gone", todoService.findAllTodos(USER_EMAIL).get(0).getTitle());
+        writeBehind.flush(USER_EMAIL);
+        List<TodoItem> reloaded = todoService.findAllTodos(USER_EMAIL);
+
+        assertEquals(failures + 1, meterRegistry.counter("todo.write-behind.failures").count());
+        assertEquals("Buy groceries", reloaded.get(0).getTitle());
+        Mockito.verify(todoClient, Mockito.times(2)).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testDeleteWaitsForTheBufferedUpdate() {
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "Done", true));
+
+        todoService.deleteTodo(USER_EMAIL, "1");
+
+        InOrder inOrder = Mockito.inOrder(todoClient);
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
+        inOrder.verify(todoClient).deleteTodo(USER_EMAIL, "1");
+    }
+
+    @Test
+    void testUpdateOfUnknownItemIsRejected() {
+        assertThrows(NotFoundException.class, () -> todoService.updateTodo(USER_EMAIL, "5", new TodoItem("5", "Nope", true)));
+
+        writeBehind.flush(USER_EMAIL);
+        Mockito.verify(todoClient, Mockito.never()).updateTodo(anyString(), anyString(), any(TodoItem.class));
+    }
+
+    @Test
+    void testReactiveCallsWaitForTheBufferedUpdate() {
+        Mockito.when(reactiveTodoClient.deleteTodo(USER_EMAIL, "1")).thenReturn(Uni.createFrom().voidItem());
+        Mockito.when(reactiveTodoClient.getTodos(USER_EMAIL)).thenReturn(Uni.createFrom().item(List.of()));
+        todoService.updateTodo(USER_EMAIL, "1", new TodoItem("1", "Done", true));
+
+        reactiveTodoService.deleteTodo(USER_EMAIL, "1").await().indefinitely();
+        todoService.updateTodo(USER_EMAIL, "2", new TodoItem("2", "Walked", true));
+        todoCache.invalidateAll();
+        reactiveTodoService.findAllTodos(USER_EMAIL).await().indefinitely();
+
+        InOrder inOrder = Mockito.inOrder(todoClient, reactiveTodoClient);
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("1"), any(TodoItem.class));
+        inOrder.verify(reactiveTodoClient).deleteTodo(USER_EMAIL, "1");
+        inOrder.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("2"), any(TodoItem.class));
+        inOrder.verify(reactiveTodoClient).getTodos(USER_EMAIL);
+    }
+
+    @Test
+    void testShutdownDrainsTheBuffer() {
+        todoService.updateTodo(USER_EMAIL, "2", new TodoItem("2", "Walk the cat", false));
+
+        writeBehind.onStop(null);
+
+        Mockito.verify(todoClient).updateTodo(eq(USER_EMAIL), eq("2"), any(TodoItem.class));
+    }
+}